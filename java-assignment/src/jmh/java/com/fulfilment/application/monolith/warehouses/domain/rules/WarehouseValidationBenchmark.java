@@ -0,0 +1,84 @@
+package com.fulfilment.application.monolith.warehouses.domain.rules;
+
+import com.fulfilment.application.monolith.common.DomainValidationException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the warehouse rule sets on the passing path, which should not allocate (check with
+ * {@code -prof gc}), and on the failing path, which builds one exception per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseValidationBenchmark {
+
+  private final WarehouseValidationRules rules = new WarehouseValidationRules();
+  private final Location location = new Location("ZWOLLE-001", 3, 200);
+
+  private WarehouseDTO valid;
+  private WarehouseDTO invalid;
+  private WarehouseDTO current;
+
+  @Setup
+  public void setUp() {
+    valid = warehouse("MWH.100", 100, 10);
+    current = warehouse("MWH.100", 80, 10);
+    // breaks capacity, stock and existing-stock rules at once
+    invalid = warehouse("MWH.100", 500, 600);
+  }
+
+  @Benchmark
+  public void upsertValid() {
+    rules.validateUpsert(valid);
+  }
+
+  @Benchmark
+  public void creationValid() {
+    rules.validateCreation(valid, null, location, 1);
+  }
+
+  @Benchmark
+  public void replacementValid() {
+    rules.validateReplacement(valid, current, location, 1);
+  }
+
+  @Benchmark
+  public String bulkCheckValid() {
+    return rules.check(WarehouseValidationRules.BULK_REPLACE, valid, current, location);
+  }
+
+  @Benchmark
+  public Object replacementInvalid() {
+    try {
+      rules.validateReplacement(invalid, current, location, 1);
+      return null;
+    } catch (DomainValidationException e) {
+      return e;
+    }
+  }
+
+  private static WarehouseDTO warehouse(String businessUnitCode, int capacity, int stock) {
+    WarehouseDTO warehouse = new WarehouseDTO();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+}
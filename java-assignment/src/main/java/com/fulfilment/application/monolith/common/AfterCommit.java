@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Defers work until the current transaction has committed, e.g. updating in-memory state that must
+ * not show a change that may still roll back.
+ */
+public final class AfterCommit {
+
+  private AfterCommit() {}
+
+  /** Runs {@code action} once the current transaction has committed. Nothing happens on rollback. */
+  public static void run(TransactionSynchronizationRegistry transactions, Runnable action) {
+    transactions.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {}
+
+      @Override
+      public void afterCompletion(int status) {
+        if (status == Status.STATUS_COMMITTED) {
+          action.run();
+        }
+      }
+    });
+  }
+}
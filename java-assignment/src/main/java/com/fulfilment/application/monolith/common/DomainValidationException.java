@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import java.util.List;
+
+/**
+ * Expected rejection of a request by a domain rule.
+ *
+ * <p>These are thrown for bad input, which a misbehaving client can send in a tight loop, so no
+ * stack trace is captured: the descriptor already says where the failure comes from.
+ * {@link ErrorMapper} answers them without logging above DEBUG.
+ */
+public class DomainValidationException extends WebApplicationException {
+
+  private final transient ErrorDescriptor descriptor;
+  private final List<String> violations;
+
+  public DomainValidationException(ErrorDescriptor descriptor) {
+    this(descriptor, descriptor.message());
+  }
+
+  public DomainValidationException(ErrorDescriptor descriptor, String message) {
+    this(descriptor, message, List.of(message));
+  }
+
+  /**
+   * @param descriptor the first violation, which decides the status
+   * @param violations messages of every violation found, starting with {@code message}
+   */
+  public DomainValidationException(ErrorDescriptor descriptor, String message, List<String> violations) {
+    super(message, descriptor.status());
+    this.descriptor = descriptor;
+    this.violations = violations;
+  }
+
+  public ErrorDescriptor descriptor() {
+    return descriptor;
+  }
+
+  public List<String> violations() {
+    return violations;
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
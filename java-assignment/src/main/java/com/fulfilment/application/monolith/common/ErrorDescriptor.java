@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.common;
+
+/**
+ * A known client error: stable machine-readable code, HTTP status and default message. Implemented
+ * by enums so every descriptor is allocated once.
+ */
+public interface ErrorDescriptor {
+
+  String code();
+
+  int status();
+
+  String message();
+}
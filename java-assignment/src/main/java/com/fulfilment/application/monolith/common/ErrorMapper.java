@@ -1,41 +1,62 @@
 package com.fulfilment.application.monolith.common;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fulfilment.application.monolith.products.ProductResource;
-import jakarta.inject.Inject;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
 import org.jboss.logging.Logger;
 
+import java.util.List;
+
 @Provider
 public class ErrorMapper implements ExceptionMapper<Exception> {
 
-    @Inject
-    ObjectMapper objectMapper;
-
-    private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
+    private static final Logger LOGGER = Logger.getLogger(ErrorMapper.class.getName());
 
+    // Client errors are expected; a flood of them must not flood the log.
+    private static final LogRateLimiter CLIENT_ERROR_LOG = new LogRateLimiter(20, 1000);
 
     @Override
     public Response toResponse(Exception exception) {
-        LOGGER.error("Failed to handle request", exception);
-
         int code = 500;
         if (exception instanceof WebApplicationException) {
             code = ((WebApplicationException) exception).getResponse().getStatus();
         }
 
-        ObjectNode exceptionJson = objectMapper.createObjectNode();
-        exceptionJson.put("exceptionType", exception.getClass().getName());
-        exceptionJson.put("code", code);
-
-        if (exception.getMessage() != null) {
-            exceptionJson.put("error", exception.getMessage());
+        String errorCode = null;
+        List<String> violations = null;
+        if (exception instanceof DomainValidationException validation) {
+            errorCode = validation.descriptor().code();
+            violations = validation.violations().size() > 1 ? validation.violations() : null;
+            logClientError(Logger.Level.DEBUG, code, errorCode, exception);
+        } else if (code < 500) {
+            logClientError(Logger.Level.INFO, code, null, exception);
+        } else {
+            // Unexpected failures keep the full stack trace.
+            LOGGER.error("Failed to handle request", exception);
         }
 
-        return Response.status(code).entity(exceptionJson).build();
+        ErrorResponse body = new ErrorResponse(exception.getClass().getName(), code, exception.getMessage(), errorCode, violations);
+        return Response.status(code).type(MediaType.APPLICATION_JSON_TYPE).entity(body).build();
     }
+
+    private static void logClientError(Logger.Level level, int code, String errorCode, Exception exception) {
+        if (!LOGGER.isEnabled(level)) {
+            return;
+        }
+        int suppressed = CLIENT_ERROR_LOG.tryAcquire();
+        if (suppressed < 0) {
+            return;
+        }
+        LOGGER.logf(level, "Request rejected with %d %s: %s%s", code, errorCode == null ? "" : errorCode,
+                exception.getMessage(), suppressed > 0 ? " (" + suppressed + " similar messages suppressed)" : "");
+    }
+
+    /**
+     * Serialised directly by Jackson; no intermediate JSON tree.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ErrorResponse(String exceptionType, int code, String error, String errorCode, List<String> violations) {}
 }
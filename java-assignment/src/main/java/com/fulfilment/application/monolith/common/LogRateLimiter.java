@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets at most {@code permitsPerWindow} log lines through per time window, without locking.
+ * Suppressed lines are counted so the next line that gets through can report them.
+ */
+public final class LogRateLimiter {
+
+  private final int permitsPerWindow;
+  private final long windowNanos;
+  private final AtomicLong windowStart;
+  private final AtomicInteger used = new AtomicInteger();
+  private final AtomicInteger suppressed = new AtomicInteger();
+
+  public LogRateLimiter(int permitsPerWindow, long windowMillis) {
+    this.permitsPerWindow = permitsPerWindow;
+    this.windowNanos = windowMillis * 1_000_000L;
+    this.windowStart = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * @return {@code -1} when the line must be dropped, otherwise the number of lines dropped since
+   *     the last one that got through
+   */
+  public int tryAcquire() {
+    long now = System.nanoTime();
+    long start = windowStart.get();
+    if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+      used.set(0);
+    }
+    if (used.incrementAndGet() > permitsPerWindow) {
+      suppressed.incrementAndGet();
+      return -1;
+    }
+    return suppressed.getAndSet(0);
+  }
+}
@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.common;
+
+import io.quarkus.logging.LoggingFilter;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Filter;
+import java.util.logging.LogRecord;
+
+/**
+ * Lets through one in {@code sql-log.sample-rate} statements logged by Hibernate when
+ * {@code quarkus.hibernate-orm.log.sql} is switched on; every other record passes unchanged.
+ */
+@LoggingFilter(name = "sql-log-sampler")
+public final class SqlLogSampler implements Filter {
+
+  static final String SQL_LOGGER = "org.hibernate.SQL";
+
+  private final int sampleRate;
+  private final AtomicLong seen = new AtomicLong();
+
+  public SqlLogSampler(@ConfigProperty(name = "sql-log.sample-rate", defaultValue = "100") int sampleRate) {
+    this.sampleRate = Math.max(1, sampleRate);
+  }
+
+  @Override
+  public boolean isLoggable(LogRecord record) {
+    if (!SQL_LOGGER.equals(record.getLoggerName())) {
+      return true;
+    }
+    return seen.getAndIncrement() % sampleRate == 0;
+  }
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import java.time.Instant;
+
+/**
+ * One audited mutation. {@code before} and {@code after} are immutable snapshots of the changed
+ * values ({@code null} on create and delete respectively); they are serialised on the writer thread.
+ */
+public record AuditEvent(Instant at, String actor, String entity, String entityId, Action action, Object before,
+                         Object after) {
+
+  public enum Action {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+}
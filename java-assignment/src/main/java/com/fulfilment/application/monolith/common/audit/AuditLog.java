@@ -0,0 +1,227 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.AfterCommit;
+import com.fulfilment.application.monolith.common.LogRateLimiter;
+import io.quarkus.arc.Arc;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured audit trail of entity mutations, written as JSON lines to a rotating file.
+ *
+ * <p>{@link #record} only snapshots the actor and hands the event to a lock-free ring buffer,
+ * after commit when called in a transaction, so rolled back changes, including those of a
+ * transaction already marked rollback-only, are not audited. A single
+ * writer thread drains the buffer in batches, serialises the events and flushes once per batch.
+ * When the writer falls behind and the buffer is full, events are dropped and counted rather than
+ * slowing down requests.
+ */
+@ApplicationScoped
+public class AuditLog {
+
+  private static final Logger LOG = Logger.getLogger(AuditLog.class);
+
+  /** Request header naming who made a change. */
+  public static final String ACTOR_HEADER = "X-Actor";
+
+  static final String SYSTEM = "system";
+  static final String ANONYMOUS = "anonymous";
+
+  private static final Object PENDING_KEY = new Object();
+
+  private static final LogRateLimiter FAILURE_LOG = new LogRateLimiter(1, 10_000);
+
+  @Inject ObjectMapper objectMapper;
+  @Inject TransactionSynchronizationRegistry transactions;
+  @Inject CurrentVertxRequest currentRequest;
+
+  @ConfigProperty(name = "audit.log.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "audit.log.directory")
+  String directory;
+
+  @ConfigProperty(name = "audit.log.max-file-size", defaultValue = "10485760")
+  long maxFileBytes;
+
+  @ConfigProperty(name = "audit.log.max-files", defaultValue = "5")
+  int maxFiles;
+
+  @ConfigProperty(name = "audit.log.buffer-size", defaultValue = "8192")
+  int bufferSize;
+
+  @ConfigProperty(name = "audit.log.batch-size", defaultValue = "512")
+  int batchSize;
+
+  @ConfigProperty(name = "audit.log.idle-wait", defaultValue = "20ms")
+  Duration idleWait;
+
+  private AuditRingBuffer<AuditEvent> buffer;
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder written = new LongAdder();
+
+  // writer thread state
+  private RotatingFileSink sink;
+  private int batchFailures;
+  private Thread writer;
+  private volatile boolean running;
+
+  @PostConstruct
+  void init() {
+    buffer = new AuditRingBuffer<>(bufferSize);
+  }
+
+  void onStart(@Observes StartupEvent event) throws IOException {
+    if (!enabled) {
+      return;
+    }
+    sink = new RotatingFileSink(Path.of(directory), "audit", maxFileBytes, maxFiles);
+    running = true;
+    writer = new Thread(this::writeLoop, "audit-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+    LOG.infof("Audit log writing to %s", sink.current());
+  }
+
+  void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+    if (writer == null) {
+      return;
+    }
+    running = false;
+    writer.join(Duration.ofSeconds(5).toMillis());
+    // the writer closes the sink once it has drained the buffer; it is not thread-safe
+    if (writer.isAlive()) {
+      LOG.warn("Audit log writer did not finish within 5s; pending events may be lost");
+    }
+  }
+
+  /**
+   * Audits a change of {@code entity} {@code entityId}. Call after the change is applied, with
+   * snapshots that are not modified afterwards.
+   */
+  public void record(String entity, Object entityId, AuditEvent.Action action, Object before, Object after) {
+    if (!enabled) {
+      return;
+    }
+    AuditEvent event = new AuditEvent(Instant.now(), currentActor(), entity, String.valueOf(entityId), action,
+        before, after);
+    switch (transactions.getTransactionStatus()) {
+      case Status.STATUS_NO_TRANSACTION -> {
+        enqueue(event);
+        return;
+      }
+      // the change is going to be rolled back
+      case Status.STATUS_MARKED_ROLLBACK, Status.STATUS_ROLLING_BACK, Status.STATUS_ROLLEDBACK -> {
+        return;
+      }
+      default -> {
+        // registered below
+      }
+    }
+    // one synchronization per transaction, however many changes it audits
+    @SuppressWarnings("unchecked")
+    List<AuditEvent> pending = (List<AuditEvent>) transactions.getResource(PENDING_KEY);
+    if (pending == null) {
+      List<AuditEvent> events = new ArrayList<>();
+      transactions.putResource(PENDING_KEY, events);
+      AfterCommit.run(transactions, () -> events.forEach(this::enqueue));
+      pending = events;
+    }
+    pending.add(event);
+  }
+
+  public Stats stats() {
+    return new Stats(written.sum(), dropped.sum(), failed.sum());
+  }
+
+  private void enqueue(AuditEvent event) {
+    if (!buffer.offer(event)) {
+      dropped.increment();
+    }
+  }
+
+  private String currentActor() {
+    if (!Arc.container().requestContext().isActive()) {
+      return SYSTEM;
+    }
+    RoutingContext request = currentRequest.getCurrent();
+    if (request == null) {
+      return SYSTEM;
+    }
+    String actor = request.request().getHeader(ACTOR_HEADER);
+    return actor == null || actor.isBlank() ? ANONYMOUS : actor;
+  }
+
+  private void writeLoop() {
+    try {
+      drainUntilStopped();
+    } finally {
+      try {
+        sink.close();
+      } catch (IOException e) {
+        logFailure(e);
+      }
+    }
+  }
+
+  private void drainUntilStopped() {
+    long idleNanos = idleWait.toNanos();
+    while (true) {
+      batchFailures = 0;
+      int drained = buffer.drain(this::write, batchSize);
+      if (drained > 0) {
+        try {
+          sink.flush();
+          written.add(drained - batchFailures);
+        } catch (IOException e) {
+          failed.add(drained - batchFailures);
+          logFailure(e);
+        }
+      } else if (running) {
+        LockSupport.parkNanos(idleNanos);
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void write(AuditEvent event) {
+    try {
+      sink.write(objectMapper.writeValueAsBytes(event));
+    } catch (IOException e) {
+      batchFailures++;
+      failed.increment();
+      logFailure(e);
+    }
+  }
+
+  private static void logFailure(IOException e) {
+    int suppressed = FAILURE_LOG.tryAcquire();
+    if (suppressed >= 0) {
+      LOG.errorf(e, "Failed to write audit events (%d similar failures suppressed)", Integer.valueOf(suppressed));
+    }
+  }
+
+  public record Stats(long written, long dropped, long failed) {}
+}
@@ -0,0 +1,85 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer ring buffer.
+ *
+ * <p>Producers claim a slot with one CAS on the tail and publish it by advancing the slot's
+ * sequence; the consumer takes published slots in order and frees them the same way. A full buffer
+ * never blocks: {@link #offer} returns {@code false} and the caller decides what to drop.
+ */
+public final class AuditRingBuffer<T> {
+
+  private final int mask;
+  private final Object[] slots;
+  // sequence == position: free for that position; position + 1: published
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  // consumer only
+  private long head;
+
+  /** @param capacity rounded up to a power of two, at least 2 */
+  public AuditRingBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    // with a single slot "published" and "free for the next lap" would be the same sequence
+    int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = size - 1;
+    this.slots = new Object[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  public int capacity() {
+    return slots.length;
+  }
+
+  public boolean offer(T item) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) (position & mask);
+      long sequence = sequences.get(index);
+      if (sequence == position) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots[index] = item;
+          sequences.lazySet(index, position + 1);
+          return true;
+        }
+      } else if (sequence < position) {
+        // the consumer has not freed this slot yet
+        return false;
+      }
+      // another producer took the position; retry with the new tail
+    }
+  }
+
+  /**
+   * Hands up to {@code max} published items to {@code consumer} in order. Must only be called from
+   * the single consumer thread.
+   *
+   * @return the number of items drained
+   */
+  @SuppressWarnings("unchecked")
+  public int drain(Consumer<T> consumer, int max) {
+    int drained = 0;
+    while (drained < max) {
+      int index = (int) (head & mask);
+      if (sequences.get(index) != head + 1) {
+        break;
+      }
+      T item = (T) slots[index];
+      slots[index] = null;
+      sequences.lazySet(index, head + slots.length);
+      head++;
+      drained++;
+      consumer.accept(item);
+    }
+    return drained;
+  }
+}
@@ -0,0 +1,113 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends lines to {@code <name>.log}, rolling it over to {@code <name>.1.log} (and older files to
+ * the next index) once it reaches the size limit. Only {@code maxFiles} rolled files are kept. Not
+ * thread-safe; meant for a single writer that calls {@link #flush} once per batch.
+ */
+public final class RotatingFileSink implements Closeable {
+
+  private static final int BUFFER_BYTES = 64 * 1024;
+
+  private final Path directory;
+  private final String name;
+  private final long maxFileBytes;
+  private final int maxFiles;
+
+  private final byte[] buffer = new byte[BUFFER_BYTES];
+  private int buffered;
+  private OutputStream out;
+  private long size;
+
+  public RotatingFileSink(Path directory, String name, long maxFileBytes, int maxFiles) throws IOException {
+    this.directory = directory;
+    this.name = name;
+    this.maxFileBytes = maxFileBytes;
+    this.maxFiles = maxFiles;
+    Files.createDirectories(directory);
+    openCurrent();
+  }
+
+  public Path current() {
+    return directory.resolve(name + ".log");
+  }
+
+  /** Buffers one line; {@code line} must not contain a newline, which is added here. */
+  public void write(byte[] line) throws IOException {
+    if (size + buffered + line.length + 1 > maxFileBytes && size + buffered > 0) {
+      flush();
+      rotate();
+    }
+    if (buffered + line.length + 1 > buffer.length) {
+      flushBuffer();
+      if (line.length + 1 > buffer.length) {
+        out.write(line);
+        out.write('\n');
+        size += line.length + 1;
+        return;
+      }
+    }
+    System.arraycopy(line, 0, buffer, buffered, line.length);
+    buffered += line.length;
+    buffer[buffered++] = '\n';
+  }
+
+  public void flush() throws IOException {
+    flushBuffer();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    out.close();
+  }
+
+  private void flushBuffer() throws IOException {
+    if (buffered > 0) {
+      out.write(buffer, 0, buffered);
+      size += buffered;
+      buffered = 0;
+    }
+  }
+
+  // Whatever fails, the current file is open again afterwards, so later writes go on appending to
+  // it and the next one that reaches the limit tries again.
+  private void rotate() throws IOException {
+    try {
+      out.close();
+      Files.deleteIfExists(rolled(maxFiles));
+      for (int i = maxFiles - 1; i >= 1; i--) {
+        Path from = rolled(i);
+        if (Files.exists(from)) {
+          Files.move(from, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+      if (maxFiles > 0) {
+        Files.move(current(), rolled(1), StandardCopyOption.REPLACE_EXISTING);
+      } else {
+        Files.delete(current());
+      }
+    } finally {
+      openCurrent();
+    }
+  }
+
+  private void openCurrent() throws IOException {
+    Path file = current();
+    out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    size = Files.size(file);
+  }
+
+  Path rolled(int index) {
+    return directory.resolve(name + "." + index + ".log");
+  }
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.common.cache;
+
+import com.fulfilment.application.monolith.common.AfterCommit;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.hibernate.SessionFactory;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Second-level cache eviction for rows changed with native SQL, which Hibernate does not see.
+ *
+ * <p>Evicting while the transaction is still open is not enough: a concurrent reader that misses
+ * the cache loads the last committed row and caches it again, and that copy outlives the commit.
+ * Evicting once the transaction has committed leaves nothing stale behind; until then other readers
+ * get the committed row, which is the right answer for them.
+ */
+public final class EntityCacheEviction {
+
+  private EntityCacheEviction() {}
+
+  /** Evicts the given entities once the current transaction has committed. Nothing happens on rollback. */
+  public static void evictAfterCommit(TransactionSynchronizationRegistry transactions, SessionFactory sessionFactory,
+                                      Class<?> entityClass, Collection<?> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    List<?> evicted = List.copyOf(ids);
+    AfterCommit.run(transactions, () -> evicted.forEach(id -> sessionFactory.getCache().evict(entityClass, id)));
+  }
+}
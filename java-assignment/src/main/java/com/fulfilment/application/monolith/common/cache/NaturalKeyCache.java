@@ -0,0 +1,107 @@
+package com.fulfilment.application.monolith.common.cache;
+
+import com.fulfilment.application.monolith.common.AfterCommit;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded map from a unique natural key (e.g. a name) to an entity id, in front of the entity
+ * cache. Only the id is cached, so the entity itself still comes from Hibernate and stays coherent.
+ *
+ * <p>Reads are lock-free. When full, entries are evicted CLOCK-style: an entry read since the last
+ * sweep gets a second chance, so frequently used keys stay. Callers must treat a hit as a hint and
+ * check the loaded entity still has the key, calling {@link #invalidate} when it does not.
+ */
+public final class NaturalKeyCache {
+
+  private final int maxEntries;
+  private final Map<String, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public NaturalKeyCache(int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+  }
+
+  /** Cached id for {@code key}, or {@code null}. Counts towards the hit rate. */
+  public Long get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    entry.referenced = true;
+    return entry.id;
+  }
+
+  public void put(String key, Long id) {
+    // make room first, so the new entry cannot be the one swept out
+    if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+      evict();
+    }
+    entries.put(key, new Entry(id));
+  }
+
+  public void invalidate(String key) {
+    if (entries.remove(key) != null) {
+      invalidations.increment();
+    }
+  }
+
+  /**
+   * Invalidates {@code key} once the current transaction has committed, e.g. after a rename or
+   * delete. Nothing happens on rollback, when the old key is still valid.
+   */
+  public void invalidateAfterCommit(TransactionSynchronizationRegistry transactions, String key) {
+    AfterCommit.run(transactions, () -> invalidate(key));
+  }
+
+  public Stats stats() {
+    long h = hits.sum();
+    long m = misses.sum();
+    return new Stats(entries.size(), maxEntries, h, m, h + m == 0 ? 0 : (double) h / (h + m),
+        evictions.sum(), invalidations.sum());
+  }
+
+  // Concurrent putters may each sweep; the map tolerates it and the size only ends up lower.
+  private void evict() {
+    Iterator<Entry> it = entries.values().iterator();
+    int target = maxEntries - Math.max(1, maxEntries / 10);
+    while (entries.size() > target) {
+      if (!it.hasNext()) {
+        it = entries.values().iterator();
+        if (!it.hasNext()) {
+          return;
+        }
+      }
+      Entry entry = it.next();
+      if (entry.referenced) {
+        entry.referenced = false;
+      } else {
+        it.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  private static final class Entry {
+    final Long id;
+    volatile boolean referenced;
+
+    Entry(Long id) {
+      this.id = id;
+    }
+  }
+
+  public record Stats(int size, int maxEntries, long hits, long misses, double hitRate, long evictions,
+                      long invalidations) {}
+}
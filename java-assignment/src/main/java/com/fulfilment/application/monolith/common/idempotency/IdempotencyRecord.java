@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.common.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_record", indexes = @Index(name = "idempotency_record_expires_idx", columnList = "expiresAt"))
+public class IdempotencyRecord {
+
+  // scope and client key, e.g. "warehouse.create:3f1c..."
+  @Id
+  @Column(length = 320)
+  public String id;
+
+  @Column(length = 64, nullable = false)
+  public String requestHash;
+
+  // null until the claiming transaction stores it, so never seen by others
+  @Column(columnDefinition = "text")
+  public String responseBody;
+
+  public LocalDateTime createdAt;
+
+  public LocalDateTime expiresAt;
+
+  public IdempotencyRecord() {}
+}
@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.common.idempotency;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+
+@ApplicationScoped
+public class IdempotencyRecordRepository implements PanacheRepositoryBase<IdempotencyRecord, String> {
+
+  // An expired record that was not purged yet is claimed again.
+  private static final String CLAIM_SQL =
+      "INSERT INTO idempotency_record (id, requestHash, createdAt, expiresAt) VALUES (?1, ?2, ?3, ?4)"
+          + " ON CONFLICT (id) DO UPDATE SET requestHash = EXCLUDED.requestHash, responseBody = NULL,"
+          + " createdAt = EXCLUDED.createdAt, expiresAt = EXCLUDED.expiresAt"
+          + " WHERE idempotency_record.expiresAt < EXCLUDED.createdAt";
+
+  /**
+   * Claims a key for the current transaction. While another transaction holds the same key this
+   * waits for it to end.
+   *
+   * @return {@code false} when the key has an unexpired record of a committed transaction
+   */
+  public boolean claim(String id, String requestHash, LocalDateTime now, LocalDateTime expiresAt) {
+    return getEntityManager().createNativeQuery(CLAIM_SQL)
+        .setParameter(1, id)
+        .setParameter(2, requestHash)
+        .setParameter(3, now)
+        .setParameter(4, expiresAt)
+        .executeUpdate() == 1;
+  }
+
+  /** Stores the response of a key claimed by the current transaction. */
+  public void complete(String id, String responseBody) {
+    getEntityManager().createNativeQuery("UPDATE idempotency_record SET responseBody = ?1 WHERE id = ?2")
+        .setParameter(1, responseBody)
+        .setParameter(2, id)
+        .executeUpdate();
+  }
+}
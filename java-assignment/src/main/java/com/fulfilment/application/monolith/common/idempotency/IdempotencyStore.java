@@ -0,0 +1,193 @@
+package com.fulfilment.application.monolith.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Response store for {@code Idempotency-Key} handling.
+ *
+ * <p>Completed responses are kept in a bounded, access-ordered in-memory map and in the
+ * {@code idempotency_record} table, both evicted after the configured TTL. The database record is
+ * claimed before the operation runs and completed in the same transaction, so a key is either fully
+ * executed and recorded or not at all, and a retry on another node waits for the first attempt and
+ * replays its response. Replays are answered from memory when possible, from the table otherwise,
+ * and never run the operation again.
+ */
+@ApplicationScoped
+public class IdempotencyStore {
+
+    private static final Logger LOG = Logger.getLogger(IdempotencyStore.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @ConfigProperty(name = "idempotency.ttl", defaultValue = "PT24H")
+    Duration ttl;
+
+    @ConfigProperty(name = "idempotency.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, StoredResponse> responses = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Runs {@code action} once per {@code scope} and {@code key}. Without a key the action simply runs.
+     *
+     * @param request the request payload; a replay with a different payload is rejected with 422
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new WebApplicationException("Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters.", 400);
+        }
+
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse stored = lookup(id);
+        if (stored != null) {
+            return replay(id, stored, requestHash, responseType);
+        }
+
+        if (!inFlight.add(id)) {
+            LOG.warnf("Idempotent request %s is already in progress", id);
+            throw inProgress();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(ttl);
+            StoredResponse[] recorded = new StoredResponse[1];
+            T result = QuarkusTransaction.joiningExisting().call(() -> {
+                // Waits while another node runs the same key, then replays what it committed.
+                if (!idempotencyRecordRepository.claim(id, requestHash, now, expiresAt)) {
+                    StoredResponse winner = lookup(id);
+                    if (winner == null) {
+                        throw inProgress();
+                    }
+                    return replay(id, winner, requestHash, responseType);
+                }
+                T response = action.get();
+                recorded[0] = new StoredResponse(requestHash, toJson(response), expiresAt);
+                idempotencyRecordRepository.complete(id, recorded[0].body());
+                return response;
+            });
+            if (recorded[0] != null) {
+                remember(id, recorded[0]);
+            }
+            return result;
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    @Scheduled(every = "{idempotency.purge-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (responses) {
+            responses.values().removeIf(response -> response.isExpired(now));
+        }
+        long purged = QuarkusTransaction.requiringNew().call(() -> idempotencyRecordRepository.delete("expiresAt < ?1", now));
+        if (purged > 0) {
+            LOG.infof("Purged %d expired idempotency records", purged);
+        }
+    }
+
+    private StoredResponse lookup(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (responses) {
+            StoredResponse cached = responses.get(id);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached;
+                }
+                responses.remove(id);
+            }
+        }
+
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id);
+        if (record == null || record.responseBody == null || record.expiresAt.isBefore(now)) {
+            return null;
+        }
+        StoredResponse stored = new StoredResponse(record.requestHash, record.responseBody, record.expiresAt);
+        remember(id, stored);
+        return stored;
+    }
+
+    private void remember(String id, StoredResponse stored) {
+        synchronized (responses) {
+            responses.put(id, stored);
+        }
+    }
+
+    private static WebApplicationException inProgress() {
+        return new WebApplicationException("A request with this Idempotency-Key is still in progress.", 409);
+    }
+
+    private <T> T replay(String id, StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            LOG.warnf("Idempotency key %s reused with a different request", id);
+            throw new WebApplicationException("Idempotency-Key was already used with a different request.", 422);
+        }
+        LOG.debugf("Replaying stored response for %s", id);
+        try {
+            return objectMapper.readValue(stored.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for " + id + " is not readable", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response is not serializable", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body, LocalDateTime expiresAt) {
+        boolean isExpired(LocalDateTime now) {
+            return expiresAt.isBefore(now);
+        }
+    }
+}
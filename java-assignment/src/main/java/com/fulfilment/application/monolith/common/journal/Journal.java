@@ -0,0 +1,341 @@
+package com.fulfilment.application.monolith.common.journal;
+
+import org.jboss.logging.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of opaque records, stored in fixed-size segment files.
+ *
+ * <p>Each record is written as {@code [int length][int crc32c][payload]}. Segments are sized up
+ * front, so the zero bytes after the last record mark the end, and a torn record at the tail fails
+ * its checksum and is dropped on reopen. Segment files are named after the sequence of their first
+ * record.
+ *
+ * <p>Consumers report how far they got with {@link JournalReader#acknowledge}. Segments holding only
+ * acknowledged records are deleted when the journal opens and whenever it starts a new segment, so
+ * the journal takes up the unconsumed records plus one segment.
+ *
+ * <p>Appends are handed to a single writer thread, which writes everything queued so far with one
+ * write call and one {@code fsync}: concurrent appenders share the cost of a sync instead of paying
+ * it each. An append completes once its record is durable.
+ */
+public final class Journal implements Closeable {
+
+  private static final Logger LOG = Logger.getLogger(Journal.class);
+
+  static final int HEADER_BYTES = 8;
+  static final String SUFFIX = ".log";
+  static final String ACK_SUFFIX = ".ack";
+
+  private static final int MAX_BATCH = 1024;
+
+  private final Path directory;
+  private final String prefix;
+  private final int segmentBytes;
+  private final BlockingQueue<Append> queue;
+  private final Thread writer;
+
+  // writer thread state
+  private FileChannel channel;
+  private long position;
+  private long nextSequence;
+  private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+  private IOException failure;
+
+  // records below this sequence are durable and visible to readers
+  private volatile long durableSequence;
+  private volatile boolean closed;
+
+  private Journal(Path directory, String prefix, int segmentBytes, int queueCapacity) throws IOException {
+    this.directory = directory;
+    this.prefix = prefix;
+    this.segmentBytes = segmentBytes;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    recover();
+    this.writer = new Thread(this::writeLoop, "journal-" + prefix);
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Opens the journal in {@code directory}, creating it when needed and continuing after the last
+   * intact record otherwise.
+   *
+   * @param segmentBytes size of one segment file; also the upper bound of a single record
+   * @param queueCapacity appends waiting for the writer before {@link #append} blocks
+   */
+  public static Journal open(Path directory, String prefix, int segmentBytes, int queueCapacity) throws IOException {
+    if (segmentBytes <= HEADER_BYTES) {
+      throw new IllegalArgumentException("Segment size must exceed " + HEADER_BYTES + " bytes: " + segmentBytes);
+    }
+    Files.createDirectories(directory);
+    return new Journal(directory, prefix, segmentBytes, queueCapacity);
+  }
+
+  /**
+   * Queues a record for writing.
+   *
+   * @return completes with the record's sequence once it is durable
+   */
+  public CompletableFuture<Long> append(byte[] payload) {
+    Append append = new Append(payload);
+    if (payload.length == 0) {
+      // a zero length marks the end of a segment
+      append.future.completeExceptionally(new IllegalArgumentException("Records must not be empty"));
+      return append.future;
+    }
+    if (HEADER_BYTES + payload.length > segmentBytes) {
+      append.future.completeExceptionally(
+          new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a segment"));
+      return append.future;
+    }
+    if (closed) {
+      append.future.completeExceptionally(new IOException("Journal " + prefix + " is closed"));
+      return append.future;
+    }
+    try {
+      queue.put(append);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      append.future.completeExceptionally(e);
+      return append.future;
+    }
+    // closed while queueing and the writer already gone: nobody will pick this up
+    if (closed && !writer.isAlive() && queue.remove(append)) {
+      append.future.completeExceptionally(new IOException("Journal " + prefix + " is closed"));
+    }
+    return append.future;
+  }
+
+  /** {@link #append} and wait until the record is durable. */
+  public long appendAndSync(byte[] payload) {
+    try {
+      return append(payload).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw new UncheckedIOException(io);
+      }
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw e;
+    }
+  }
+
+  /** Sequence the next record will get; every record below it that was appended is durable. */
+  public long durableSequence() {
+    return durableSequence;
+  }
+
+  /** Reader over the durable records of this journal. */
+  public JournalReader reader() {
+    return new JournalReader(directory, prefix, this::durableSequence);
+  }
+
+  /** Writes what is queued, then stops the writer. */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  private void writeLoop() {
+    List<Append> batch = new ArrayList<>();
+    while (!closed || !queue.isEmpty()) {
+      try {
+        Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, MAX_BATCH - 1);
+        writeBatch(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        closed = true;
+      } finally {
+        batch.clear();
+      }
+    }
+    queue.forEach(a -> a.future.completeExceptionally(new IOException("Journal " + prefix + " is closed")));
+  }
+
+  private void writeBatch(List<Append> batch) {
+    if (failure != null) {
+      batch.forEach(a -> a.future.completeExceptionally(failure));
+      return;
+    }
+    long first = nextSequence;
+    try {
+      buffer.clear();
+      for (Append append : batch) {
+        int size = HEADER_BYTES + append.payload.length;
+        if (position + buffer.position() + size > segmentBytes) {
+          flush();
+          rotate();
+        }
+        if (buffer.remaining() < size) {
+          flush();
+          if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+          }
+        }
+        buffer.putInt(append.payload.length).putInt(checksum(append.payload)).put(append.payload);
+        append.sequence = nextSequence++;
+      }
+      flush();
+      channel.force(false);
+    } catch (IOException e) {
+      // The segment may now hold a partial batch; refuse further writes rather than guess.
+      failure = e;
+      LOG.errorf(e, "Journal %s failed after sequence %d; no further records are accepted", prefix, Long.valueOf(first));
+      batch.forEach(a -> a.future.completeExceptionally(e));
+      return;
+    }
+    durableSequence = nextSequence;
+    batch.forEach(a -> a.future.complete(a.sequence));
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+    buffer.clear();
+  }
+
+  private void rotate() throws IOException {
+    channel.force(false);
+    channel.close();
+    openSegment(nextSequence);
+    deleteAcknowledged();
+  }
+
+  // A segment can go once the segment after it starts at or below the acknowledged sequence; the
+  // last segment is the one being written and always stays.
+  private void deleteAcknowledged() {
+    try {
+      long acknowledged = JournalReader.acknowledged(directory, prefix);
+      List<Segment> segments = Segment.list(directory, prefix);
+      int deleted = 0;
+      for (int i = 0; i + 1 < segments.size() && segments.get(i + 1).firstSequence() <= acknowledged; i++) {
+        if (Files.deleteIfExists(segments.get(i).path())) {
+          deleted++;
+        }
+      }
+      if (deleted > 0) {
+        LOG.debugf("Journal %s deleted %d segments acknowledged up to sequence %d", prefix, Integer.valueOf(deleted),
+            Long.valueOf(acknowledged));
+      }
+    } catch (IOException e) {
+      // only costs disk space; tried again at the next rotation
+      LOG.warnf(e, "Journal %s could not delete acknowledged segments", prefix);
+    }
+  }
+
+  private void openSegment(long firstSequence) throws IOException {
+    Path file = directory.resolve(segmentName(prefix, firstSequence));
+    channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    // size the file up front so appends never have to grow it
+    channel.write(ByteBuffer.allocate(1), segmentBytes - 1);
+    position = 0;
+    LOG.debugf("Journal %s opened segment %s", prefix, file);
+  }
+
+  private void recover() throws IOException {
+    List<Segment> segments = Segment.list(directory, prefix);
+    if (segments.isEmpty()) {
+      openSegment(0);
+      return;
+    }
+    Segment last = segments.get(segments.size() - 1);
+    channel = FileChannel.open(last.path(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long count = 0;
+    long end = 0;
+    try (JournalReader.SegmentCursor cursor = new JournalReader.SegmentCursor(channel, false)) {
+      while (cursor.next()) {
+        count++;
+        end = cursor.position();
+      }
+    }
+    // clear whatever a torn write left behind, so it cannot be mistaken for a record later
+    ByteBuffer zeros = ByteBuffer.allocate(64 * 1024);
+    for (long p = end; p < channel.size(); ) {
+      zeros.clear().limit((int) Math.min(zeros.capacity(), channel.size() - p));
+      p += channel.write(zeros, p);
+    }
+    position = end;
+    nextSequence = last.firstSequence() + count;
+    durableSequence = nextSequence;
+    LOG.infof("Journal %s continues at sequence %d in %s", prefix, Long.valueOf(nextSequence), last.path());
+    deleteAcknowledged();
+  }
+
+  static int checksum(byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  static String segmentName(String prefix, long firstSequence) {
+    return String.format("%s-%020d%s", prefix, firstSequence, SUFFIX);
+  }
+
+  private static final class Append {
+    final byte[] payload;
+    final CompletableFuture<Long> future = new CompletableFuture<>();
+    long sequence;
+
+    Append(byte[] payload) {
+      this.payload = payload;
+    }
+  }
+
+  record Segment(Path path, long firstSequence) {
+
+    static List<Segment> list(Path directory, String prefix) throws IOException {
+      List<Segment> segments = new ArrayList<>();
+      if (!Files.isDirectory(directory)) {
+        return segments;
+      }
+      String start = prefix + "-";
+      try (var files = Files.list(directory)) {
+        files.forEach(file -> {
+          String name = file.getFileName().toString();
+          if (name.startsWith(start) && name.endsWith(SUFFIX)) {
+            try {
+              segments.add(new Segment(file, Long.parseLong(name.substring(start.length(), name.length() - SUFFIX.length()))));
+            } catch (NumberFormatException ignored) {
+              // not one of ours
+            }
+          }
+        });
+      }
+      segments.sort((a, b) -> Long.compare(a.firstSequence(), b.firstSequence()));
+      return segments;
+    }
+  }
+}
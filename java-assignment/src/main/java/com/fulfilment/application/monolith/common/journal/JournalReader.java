@@ -0,0 +1,173 @@
+package com.fulfilment.application.monolith.common.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Reads records of a {@link Journal} in sequence order, for consumers that poll from the last
+ * sequence they processed. Stateless between calls and safe to use while the journal is written.
+ *
+ * <p>The consumer acknowledges what it processed, so the journal can delete those segments. Reading
+ * below the oldest retained record starts at that record.
+ */
+public final class JournalReader {
+
+  private final Path directory;
+  private final String prefix;
+  private final LongSupplier limit;
+
+  /**
+   * @param limit records at or above this sequence are not returned, e.g. because they are not
+   *     durable yet
+   */
+  public JournalReader(Path directory, String prefix, LongSupplier limit) {
+    this.directory = directory;
+    this.prefix = prefix;
+    this.limit = limit;
+  }
+
+  /** Reader for a journal written by another process; returns every intact record. */
+  public static JournalReader open(Path directory, String prefix) {
+    return new JournalReader(directory, prefix, () -> Long.MAX_VALUE);
+  }
+
+  /**
+   * Reads up to {@code max} records starting at sequence {@code from}.
+   *
+   * @return fewer than {@code max} records when the end of the journal was reached
+   */
+  public List<JournalRecord> read(long from, int max) throws IOException {
+    long end = limit.getAsLong();
+    List<JournalRecord> records = new ArrayList<>(Math.min(max, 256));
+    List<Journal.Segment> segments = Journal.Segment.list(directory, prefix);
+
+    // start in the last segment beginning at or before 'from'
+    int index = 0;
+    while (index + 1 < segments.size() && segments.get(index + 1).firstSequence() <= from) {
+      index++;
+    }
+    for (; index < segments.size() && records.size() < max; index++) {
+      Journal.Segment segment = segments.get(index);
+      long sequence = segment.firstSequence();
+      FileChannel channel;
+      try {
+        channel = FileChannel.open(segment.path(), StandardOpenOption.READ);
+      } catch (NoSuchFileException e) {
+        // acknowledged and deleted since it was listed
+        continue;
+      }
+      try (SegmentCursor cursor = new SegmentCursor(channel, true)) {
+        while (records.size() < max && sequence < end && cursor.next()) {
+          if (sequence >= from) {
+            records.add(new JournalRecord(sequence, cursor.payload()));
+          }
+          sequence++;
+        }
+      }
+      if (sequence >= end) {
+        break;
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Records that every record below {@code sequence} has been processed and may be deleted. Meant
+   * for a single consumer; a sequence below the current acknowledgement is ignored.
+   */
+  public void acknowledge(long sequence) throws IOException {
+    if (sequence <= acknowledged(directory, prefix)) {
+      return;
+    }
+    Path file = directory.resolve(prefix + Journal.ACK_SUFFIX);
+    Path temp = directory.resolve(prefix + Journal.ACK_SUFFIX + ".tmp");
+    Files.writeString(temp, Long.toString(sequence), StandardCharsets.US_ASCII);
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** The sequence below which every record has been acknowledged; 0 when nothing has been. */
+  static long acknowledged(Path directory, String prefix) throws IOException {
+    Path file = directory.resolve(prefix + Journal.ACK_SUFFIX);
+    try {
+      return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    } catch (NoSuchFileException e) {
+      return 0;
+    } catch (NumberFormatException e) {
+      throw new IOException("Unreadable acknowledgement in " + file, e);
+    }
+  }
+
+  /**
+   * Walks the intact records of one segment; stops at the first zero length or checksum mismatch.
+   */
+  static final class SegmentCursor implements Closeable {
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long size;
+    private final ByteBuffer header = ByteBuffer.allocate(Journal.HEADER_BYTES);
+    private long position;
+    private byte[] payload;
+
+    SegmentCursor(FileChannel channel, boolean ownsChannel) throws IOException {
+      this.channel = channel;
+      this.ownsChannel = ownsChannel;
+      this.size = channel.size();
+    }
+
+    boolean next() throws IOException {
+      if (position + Journal.HEADER_BYTES > size || !readFully(header.clear(), position)) {
+        return false;
+      }
+      int length = header.getInt(0);
+      int checksum = header.getInt(4);
+      if (length <= 0 || position + Journal.HEADER_BYTES + length > size) {
+        return false;
+      }
+      byte[] bytes = new byte[length];
+      if (!readFully(ByteBuffer.wrap(bytes), position + Journal.HEADER_BYTES) || Journal.checksum(bytes) != checksum) {
+        return false;
+      }
+      payload = bytes;
+      position += Journal.HEADER_BYTES + length;
+      return true;
+    }
+
+    byte[] payload() {
+      return payload;
+    }
+
+    /** End of the last record returned by {@link #next()}. */
+    long position() {
+      return position;
+    }
+
+    private boolean readFully(ByteBuffer target, long at) throws IOException {
+      while (target.hasRemaining()) {
+        int read = channel.read(target, at + target.position());
+        if (read < 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (ownsChannel) {
+        channel.close();
+      }
+    }
+  }
+}
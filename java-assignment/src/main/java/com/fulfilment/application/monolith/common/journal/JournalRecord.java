@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.common.journal;
+
+/**
+ * One record read back from a {@link Journal}.
+ *
+ * @param sequence position of the record in the journal, starting at 0
+ */
+public record JournalRecord(long sequence, byte[] payload) {}
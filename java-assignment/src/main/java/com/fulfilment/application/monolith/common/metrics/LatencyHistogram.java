@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.common.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets, cheap enough to record on every call.
+ * Percentiles are approximated by the upper bound of the bucket they fall in.
+ */
+public final class LatencyHistogram {
+
+  private static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000};
+
+  // last bucket counts everything above the highest bound
+  private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(long nanos) {
+    long millis = nanos / 1_000_000;
+    int i = 0;
+    while (i < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[i]) {
+      i++;
+    }
+    buckets[i].increment();
+    count.increment();
+    totalNanos.add(nanos);
+  }
+
+  public Snapshot snapshot() {
+    long[] counts = new long[buckets.length];
+    long total = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+    Map<String, Long> byBucket = new LinkedHashMap<>();
+    for (int i = 0; i < counts.length; i++) {
+      byBucket.put(i < BOUNDS_MILLIS.length ? "lt" + BOUNDS_MILLIS[i] + "ms" : "ge" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", counts[i]);
+    }
+    long n = count.sum();
+    return new Snapshot(n, n == 0 ? 0 : totalNanos.sum() / n / 1_000_000.0,
+        percentile(counts, total, 0.5), percentile(counts, total, 0.99), byBucket);
+  }
+
+  // upper bound of the bucket holding the given quantile; -1 when above every bound
+  private static long percentile(long[] counts, long total, double quantile) {
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(quantile * total);
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return i < BOUNDS_MILLIS.length ? BOUNDS_MILLIS[i] : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param p50Millis upper bound of the median's bucket, {@code -1} when above every bucket
+   */
+  public record Snapshot(long count, double meanMillis, long p50Millis, long p99Millis, Map<String, Long> buckets) {}
+}
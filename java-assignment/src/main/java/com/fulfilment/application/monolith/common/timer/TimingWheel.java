@@ -0,0 +1,109 @@
+package com.fulfilment.application.monolith.common.timer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedules and expires items in O(1) each, however many are pending.
+ *
+ * <p>Level 0 has one slot per tick; every higher level has slots {@value #SLOTS} times as wide.
+ * An item goes into the lowest level whose range covers its deadline. When the time reaches the
+ * start of a higher-level slot, that slot is cascaded: its items move down to a finer level. Items
+ * further out than the top level are parked in its farthest slot and placed again when reached.
+ *
+ * <p>Not thread-safe. Cancelling is left to the caller: an expired item that is no longer wanted is
+ * simply ignored.
+ */
+public final class TimingWheel<T> {
+
+  static final int BITS = 6;
+  static final int SLOTS = 1 << BITS;
+  private static final int MASK = SLOTS - 1;
+
+  private final long tickMillis;
+  private final List<List<ArrayDeque<Entry<T>>>> levels;
+  private long currentTick;
+  private int size;
+
+  public TimingWheel(long tickMillis, int levelCount, long nowMillis) {
+    if (tickMillis <= 0 || levelCount < 1 || levelCount * BITS >= 63) {
+      throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + " ms, " + levelCount + " levels");
+    }
+    this.tickMillis = tickMillis;
+    this.levels = new ArrayList<>(levelCount);
+    for (int level = 0; level < levelCount; level++) {
+      List<ArrayDeque<Entry<T>>> slots = new ArrayList<>(SLOTS);
+      for (int slot = 0; slot < SLOTS; slot++) {
+        slots.add(new ArrayDeque<>());
+      }
+      levels.add(slots);
+    }
+    this.currentTick = nowMillis / tickMillis;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Schedules {@code item} to expire at the first tick at or after {@code deadlineMillis}. */
+  public void schedule(T item, long deadlineMillis) {
+    long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    // the slot of the current tick has been processed already
+    place(new Entry<>(item, deadlineTick), 1);
+    size++;
+  }
+
+  /** Moves the wheel to {@code nowMillis}, handing every item due by then to {@code expired}. */
+  public void advance(long nowMillis, Consumer<T> expired) {
+    long targetTick = nowMillis / tickMillis;
+    while (currentTick < targetTick) {
+      currentTick++;
+      // coarsest first, so items cascaded down a level can be cascaded again in the same tick
+      for (int level = levels.size() - 1; level >= 1; level--) {
+        if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+          cascade(level);
+        }
+      }
+      ArrayDeque<Entry<T>> due = levels.get(0).get((int) (currentTick & MASK));
+      int count = due.size();
+      for (int i = 0; i < count; i++) {
+        Entry<T> entry = due.poll();
+        if (entry.deadlineTick <= currentTick) {
+          size--;
+          expired.accept(entry.item);
+        } else {
+          // parked beyond the range of the wheel
+          place(entry, 1);
+        }
+      }
+    }
+  }
+
+  private void cascade(int level) {
+    ArrayDeque<Entry<T>> slot = levels.get(level).get((int) ((currentTick >>> (BITS * level)) & MASK));
+    int count = slot.size();
+    for (int i = 0; i < count; i++) {
+      // level 0 of the current tick is processed after cascading, so items due now can go there
+      place(slot.poll(), 0);
+    }
+  }
+
+  private void place(Entry<T> entry, long minDelta) {
+    long delta = Math.max(minDelta, entry.deadlineTick - currentTick);
+    long tick = currentTick + delta;
+    int top = levels.size() - 1;
+    for (int level = 0; level <= top; level++) {
+      if (delta < 1L << (BITS * (level + 1))) {
+        levels.get(level).get((int) ((tick >>> (BITS * level)) & MASK)).add(entry);
+        return;
+      }
+    }
+    // the farthest slot of the top level; reached before the deadline and placed again then
+    long farthest = currentTick + (1L << (BITS * (top + 1))) - (1L << (BITS * top));
+    levels.get(top).get((int) ((farthest >>> (BITS * top)) & MASK)).add(entry);
+  }
+
+  private record Entry<T>(T item, long deadlineTick) {}
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.common.validation;
+
+import com.fulfilment.application.monolith.common.ErrorDescriptor;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One check of a {@link RuleSet}.
+ *
+ * @param violated returns {@code true} when the rule is broken; must not allocate
+ * @param message builds the message of a violation, or {@code null} to use the descriptor's
+ *     default; only called for violations
+ * @param stopOnViolation whether later rules are skipped when this one is broken, typically because they
+ *     depend on the value it checks
+ */
+public record Rule<C>(ErrorDescriptor error, Predicate<C> violated, Function<C, String> message, boolean stopOnViolation) {
+
+  public static <C> Rule<C> of(ErrorDescriptor error, Predicate<C> violated) {
+    return new Rule<>(error, violated, null, false);
+  }
+
+  public static <C> Rule<C> of(ErrorDescriptor error, Predicate<C> violated, Function<C, String> message) {
+    return new Rule<>(error, violated, message, false);
+  }
+
+  /** Same rule, but stops the rule set when broken. */
+  public Rule<C> blocking() {
+    return new Rule<>(error, violated, message, true);
+  }
+}
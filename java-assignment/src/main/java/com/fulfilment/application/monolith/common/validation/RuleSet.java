@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.common.validation;
+
+import java.util.List;
+
+/**
+ * Immutable, ordered list of rules, built once and shared. Running it walks a plain array and writes
+ * violations into a caller-supplied {@link ValidationResult}, so a passing run allocates nothing.
+ */
+public final class RuleSet<C> {
+
+  private final Rule<C>[] rules;
+
+  @SafeVarargs
+  public RuleSet(Rule<C>... rules) {
+    this.rules = rules.clone();
+  }
+
+  @SafeVarargs
+  public static <C> RuleSet<C> of(Rule<C>... rules) {
+    return new RuleSet<>(rules);
+  }
+
+  /**
+   * Runs every rule in order against {@code context}, appending violations to {@code result}.
+   *
+   * @return {@code result}, for chaining
+   */
+  public ValidationResult validate(C context, ValidationResult result) {
+    for (Rule<C> rule : rules) {
+      if (rule.violated().test(context)) {
+        result.add(rule.error(), rule.message() == null ? rule.error().message() : rule.message().apply(context));
+        if (rule.stopOnViolation()) {
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  public int size() {
+    return rules.length;
+  }
+
+  public List<Rule<C>> rules() {
+    return List.of(rules);
+  }
+}
@@ -0,0 +1,82 @@
+package com.fulfilment.application.monolith.common.validation;
+
+import com.fulfilment.application.monolith.common.DomainValidationException;
+import com.fulfilment.application.monolith.common.ErrorDescriptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Violations collected by one or more {@link RuleSet} runs. Meant to be reused: {@link #clear()}
+ * keeps the backing arrays, which only grow when a run reports more violations than ever before.
+ * Not thread-safe.
+ */
+public final class ValidationResult {
+
+  private ErrorDescriptor[] errors;
+  private String[] messages;
+  private int size;
+
+  public ValidationResult() {
+    this(8);
+  }
+
+  public ValidationResult(int initialCapacity) {
+    this.errors = new ErrorDescriptor[initialCapacity];
+    this.messages = new String[initialCapacity];
+  }
+
+  public ValidationResult clear() {
+    Arrays.fill(messages, 0, size, null);
+    Arrays.fill(errors, 0, size, null);
+    size = 0;
+    return this;
+  }
+
+  void add(ErrorDescriptor error, String message) {
+    if (size == errors.length) {
+      errors = Arrays.copyOf(errors, size * 2);
+      messages = Arrays.copyOf(messages, size * 2);
+    }
+    errors[size] = error;
+    messages[size] = message;
+    size++;
+  }
+
+  public boolean isValid() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public ErrorDescriptor error(int index) {
+    return errors[index];
+  }
+
+  public String message(int index) {
+    return messages[index];
+  }
+
+  /** Message of the first violation, or {@code null} when valid. */
+  public String firstMessage() {
+    return size == 0 ? null : messages[0];
+  }
+
+  /**
+   * Throws the first violation as a {@link DomainValidationException} that also carries every other
+   * violation. Does nothing when valid.
+   */
+  public void throwIfInvalid() {
+    if (size == 0) {
+      return;
+    }
+    List<String> all = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      all.add(messages[i]);
+    }
+    throw new DomainValidationException(errors[0], messages[0], all);
+  }
+}
@@ -9,6 +9,9 @@ import jakarta.persistence.*;
 @Entity
 @Table(uniqueConstraints = {
         @UniqueConstraint(columnNames = {"product_id", "warehouse_id", "store_id"})
+}, indexes = {
+        // store deletion removes a store's fulfilments in one statement
+        @Index(name = "fulfilment_store_idx", columnList = "store_id")
 })
 public class Fulfilment {
 
@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+/**
+ * Fired when a fulfilment is persisted. The warehouse is identified by its business unit code, which
+ * survives a warehouse replacement. Observers should listen after commit.
+ */
+public record FulfilmentAdded(Long fulfilmentId, Long storeId, Long productId, String businessUnitCode) {}
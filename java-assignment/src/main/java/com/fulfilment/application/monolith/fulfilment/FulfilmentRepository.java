@@ -1,9 +1,19 @@
-
 package com.fulfilment.application.monolith.fulfilment;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
+
 @ApplicationScoped
 public class FulfilmentRepository implements PanacheRepository<Fulfilment> {
+
+    /**
+     * Removes every fulfilment of the given stores with a single bulk DELETE; no entity is loaded.
+     *
+     * @return the number of fulfilments removed
+     */
+    public long deleteByStoreIds(Collection<Long> storeIds) {
+        return delete("store.id in ?1", storeIds);
+    }
 }
@@ -5,6 +5,7 @@ import com.fulfilment.application.monolith.products.Product;
 import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 
 @ApplicationScoped
@@ -13,6 +14,9 @@ public class FulfilmentService {
     @Inject
     FulfilmentRepository fulfilmentRepository;
 
+    @Inject
+    Event<FulfilmentAdded> fulfilmentAdded;
+
     public void addFulfilment(Product product, DbWarehouse warehouse, Store store) throws Exception {
         // Rule 1: A product can be fulfilled by a maximum of 2 warehouses per store.
         if (fulfilmentRepository.count("product = ?1 and store = ?2", product, store) >= 2) {
@@ -41,5 +45,6 @@ public class FulfilmentService {
         fulfilment.store = store;
 
         fulfilmentRepository.persist(fulfilment);
+        fulfilmentAdded.fire(new FulfilmentAdded(fulfilment.id, store.id, product.id, warehouse.businessUnitCode));
     }
 }
@@ -0,0 +1,131 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the location catalog.
+ *
+ * <p>Everything a lookup needs is built once when the snapshot is created, so readers never lock and
+ * a reload simply swaps in a new snapshot. A reader that grabbed the previous snapshot keeps seeing a
+ * complete, consistent catalog until it is done with it.
+ */
+public final class LocationCatalog {
+
+    private final Map<String, Location> byIdentifier;
+    private final Collection<Location> locations;
+    // sorted by identifier; identifiers sharing a prefix are contiguous
+    private final String[] sortedIdentifiers;
+    private final List<Location> sortedLocations;
+    private final LocationKdTree spatialIndex;
+    private final String source;
+
+    private LocationCatalog(Map<String, Location> byIdentifier, String source) {
+        this.byIdentifier = byIdentifier;
+        this.locations = Collections.unmodifiableCollection(byIdentifier.values());
+        Location[] sorted = byIdentifier.values().toArray(Location[]::new);
+        Arrays.sort(sorted, Comparator.comparing((Location l) -> l.identification));
+        this.sortedIdentifiers = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sortedIdentifiers[i] = sorted[i].identification;
+        }
+        this.sortedLocations = Collections.unmodifiableList(Arrays.asList(sorted));
+        this.spatialIndex = LocationKdTree.build(byIdentifier.values());
+        this.source = source;
+    }
+
+    /**
+     * @throws IllegalArgumentException when two locations share an identifier
+     */
+    public static LocationCatalog of(List<Location> locations, String source) {
+        // Pre-sized so loading a large catalog never rehashes.
+        Map<String, Location> byIdentifier = new HashMap<>((int) (locations.size() / 0.75f) + 1);
+        for (Location location : locations) {
+            if (byIdentifier.putIfAbsent(location.identification, location) != null) {
+                throw new IllegalArgumentException("Duplicate location identifier: " + location.identification);
+            }
+        }
+        return new LocationCatalog(byIdentifier, source);
+    }
+
+    public Location get(String identifier) {
+        return identifier == null ? null : byIdentifier.get(identifier);
+    }
+
+    /**
+     * Locations whose identifier starts with {@code prefix}, in identifier order, at most {@code limit}.
+     * The result is a read-only view on the snapshot; nothing is copied.
+     */
+    public List<Location> findByPrefix(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        int from = lowerBound(prefix);
+        int to = from;
+        int max = Math.min(sortedIdentifiers.length, from + limit);
+        // matches are contiguous, so stop at the first identifier that does not start with prefix
+        while (to < max && sortedIdentifiers[to].startsWith(prefix)) {
+            to++;
+        }
+        return sortedLocations.subList(from, to);
+    }
+
+    /**
+     * Number of locations whose identifier starts with {@code prefix}, without materialising them.
+     */
+    public int countByPrefix(String prefix) {
+        if (prefix == null) {
+            return 0;
+        }
+        int from = lowerBound(prefix);
+        int lo = from;
+        int hi = sortedIdentifiers.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedIdentifiers[mid].startsWith(prefix)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - from;
+    }
+
+    // index of the first identifier >= key
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = sortedIdentifiers.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedIdentifiers[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public Collection<Location> all() {
+        return locations;
+    }
+
+    public LocationKdTree spatialIndex() {
+        return spatialIndex;
+    }
+
+    public int size() {
+        return byIdentifier.size();
+    }
+
+    public String source() {
+        return source;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a location catalog from CSV.
+ *
+ * <p>Expected columns, after a header line: {@code identification, maxNumberOfWarehouses,
+ * maxCapacity, latitude, longitude}. Coordinates may be left empty. Blank lines and lines starting
+ * with {@code #} are ignored. The whole file is rejected on the first malformed line, so a broken
+ * file never replaces a working catalog.
+ */
+public final class LocationCatalogReader {
+
+    private static final int COLUMNS = 5;
+
+    private LocationCatalogReader() {}
+
+    public static LocationCatalog read(Reader source, String name) throws IOException {
+        List<Location> locations = new ArrayList<>();
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source, 1 << 16);
+
+        boolean headerSeen = false;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.charAt(0) == '#') {
+                continue;
+            }
+            if (!headerSeen) {
+                headerSeen = true;
+                continue;
+            }
+            locations.add(parse(line, lineNumber, name));
+        }
+        return LocationCatalog.of(locations, name);
+    }
+
+    private static Location parse(String line, int lineNumber, String name) {
+        String[] fields = new String[COLUMNS];
+        int count = 0;
+        int start = 0;
+        // Hand-rolled split: no regex, no intermediate list, matters for catalogs with many rows.
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == ',') {
+                if (count == COLUMNS) {
+                    throw malformed(name, lineNumber, "expected " + COLUMNS + " columns");
+                }
+                fields[count++] = line.substring(start, i).trim();
+                start = i + 1;
+            }
+        }
+        if (count != 3 && count != COLUMNS) {
+            throw malformed(name, lineNumber, "expected " + COLUMNS + " columns");
+        }
+        if (fields[0].isEmpty()) {
+            throw malformed(name, lineNumber, "identification is empty");
+        }
+        try {
+            double latitude = Double.NaN;
+            double longitude = Double.NaN;
+            if (count == COLUMNS && !fields[3].isEmpty() && !fields[4].isEmpty()) {
+                latitude = Double.parseDouble(fields[3]);
+                longitude = Double.parseDouble(fields[4]);
+                if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                    throw malformed(name, lineNumber, "coordinates out of range");
+                }
+            }
+            Location location = new Location(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                    latitude, longitude);
+            if (location.maxNumberOfWarehouses < 0 || location.maxCapacity < 0) {
+                throw malformed(name, lineNumber, "limits must not be negative");
+            }
+            return location;
+        } catch (NumberFormatException e) {
+            throw malformed(name, lineNumber, e.getMessage());
+        }
+    }
+
+    private static IllegalArgumentException malformed(String name, int lineNumber, String reason) {
+        return new IllegalArgumentException("Malformed location catalog " + name + " at line " + lineNumber + ": " + reason);
+    }
+}
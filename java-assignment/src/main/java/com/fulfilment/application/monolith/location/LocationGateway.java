@@ -2,30 +2,153 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Resolves locations from a catalog file.
+ *
+ * <p>The bundled {@code locations.csv} is used unless {@code location.catalog.path} points to an
+ * external file. That file is checked periodically and, when it changed, loaded into a new
+ * {@link LocationCatalog} that replaces the current one with a single reference swap. Lookups read
+ * the current snapshot without locking. A file that fails to load is logged and ignored.
+ */
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
 
-    private static final Map<String, Location> locationIdentifierMap = new HashMap<>();
+    private static final Logger LOG = Logger.getLogger(LocationGateway.class);
 
-    static {
-        locationIdentifierMap.put("ZWOLLE-001", new Location("ZWOLLE-001", 1, 40));
-        locationIdentifierMap.put("ZWOLLE-002", new Location("ZWOLLE-002", 2, 50));
-        locationIdentifierMap.put("AMSTERDAM-001", new Location("AMSTERDAM-001", 5, 100));
-        locationIdentifierMap.put("AMSTERDAM-002", new Location("AMSTERDAM-002", 3, 75));
-        locationIdentifierMap.put("TILBURG-001", new Location("TILBURG-001", 1, 40));
-        locationIdentifierMap.put("HELMOND-001", new Location("HELMOND-001", 1, 45));
-        locationIdentifierMap.put("EINDHOVEN-001", new Location("EINDHOVEN-001", 2, 70));
-        locationIdentifierMap.put("VETSBY-001", new Location("VETSBY-001", 1, 90));
-    }
+    static final String BUNDLED_CATALOG = "locations.csv";
+
+    @ConfigProperty(name = "location.catalog.path")
+    Optional<String> catalogPath = Optional.empty();
+
+    private volatile LocationCatalog catalog;
 
+    // last seen modification time and size of the external file
+    private volatile FileStamp loadedStamp;
+
+    // Not in the constructor: the client proxy of this bean runs the constructor too.
+    @PostConstruct
+    void init() {
+        catalog = loadBundled();
+        catalogPath.ifPresent(path -> {
+            if (!reload()) {
+                LOG.warnf("Location catalog %s could not be loaded, using the bundled catalog", path);
+            }
+        });
+    }
 
     @Override
     public Location resolveByIdentifier(String identifier) {
-        return locationIdentifierMap.get(identifier);
+        return catalog.get(identifier);
+    }
+
+    @Override
+    public Map<String, Location> resolveAll(Collection<String> identifiers) {
+        LocationCatalog snapshot = catalog;
+        Map<String, Location> resolved = new HashMap<>((int) (identifiers.size() / 0.75f) + 1);
+        for (String identifier : identifiers) {
+            Location location = snapshot.get(identifier);
+            if (location != null) {
+                resolved.put(identifier, location);
+            }
+        }
+        return resolved;
+    }
+
+    @Override
+    public List<Location> findByPrefix(String prefix, int limit) {
+        return catalog.findByPrefix(prefix, limit);
+    }
+
+    public Collection<Location> allLocations() {
+        return catalog.all();
+    }
+
+    /**
+     * The current snapshot. Callers doing several lookups should read it once and use it throughout.
+     */
+    public LocationCatalog catalog() {
+        return catalog;
+    }
+
+    @Scheduled(every = "{location.catalog.reload-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reloadIfChanged() {
+        if (catalogPath.isEmpty()) {
+            return;
+        }
+        FileStamp stamp = FileStamp.of(Path.of(catalogPath.get()));
+        if (stamp != null && !stamp.equals(loadedStamp)) {
+            reload();
+        }
+    }
+
+    /**
+     * Loads the external catalog file and swaps it in.
+     *
+     * @return {@code false} when no file is configured or it could not be loaded
+     */
+    public synchronized boolean reload() {
+        if (catalogPath.isEmpty()) {
+            return false;
+        }
+        Path path = Path.of(catalogPath.get());
+        FileStamp stamp = FileStamp.of(path);
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            long started = System.nanoTime();
+            LocationCatalog loaded = LocationCatalogReader.read(reader, path.toString());
+            catalog = loaded;
+            loadedStamp = stamp;
+            LOG.infof("Loaded %d locations from %s in %d ms",
+                    loaded.size(), path, (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Remember the stamp anyway so a broken file is reported once, not on every check.
+            loadedStamp = stamp;
+            LOG.errorf(e, "Failed to load location catalog from %s; keeping %d locations from %s",
+                    path, catalog.size(), catalog.source());
+            return false;
+        }
+    }
+
+    private static LocationCatalog loadBundled() {
+        try (InputStream in = LocationGateway.class.getClassLoader().getResourceAsStream(BUNDLED_CATALOG)) {
+            if (in == null) {
+                throw new IllegalStateException("Bundled location catalog " + BUNDLED_CATALOG + " is missing");
+            }
+            return LocationCatalogReader.read(new InputStreamReader(in, StandardCharsets.UTF_8), BUNDLED_CATALOG);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record FileStamp(long modifiedMillis, long size) {
+        static FileStamp of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                return null;
+            }
+        }
     }
 }
@@ -0,0 +1,209 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable k-d tree over location coordinates.
+ *
+ * <p>Points are stored as unit vectors on the sphere, so the straight-line (chord) distance between
+ * two points orders them exactly like the great-circle distance and no longitude wrap-around or
+ * pole handling is needed. Nodes are implicit: the subtree {@code [lo, hi)} is split at its middle
+ * index, and each middle index keeps the bounding box of its subtree for pruning.
+ */
+public final class LocationKdTree {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /** Receives locations in increasing distance; return {@code false} to stop the search. */
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(Location location, double distanceKm);
+    }
+
+    private final Location[] locations;
+    private final double[] xyz;
+    private final double[] boxMin;
+    private final double[] boxMax;
+
+    private LocationKdTree(Point[] points) {
+        int n = points.length;
+        this.locations = new Location[n];
+        this.xyz = new double[3 * n];
+        this.boxMin = new double[3 * n];
+        this.boxMax = new double[3 * n];
+        build(points, 0, n);
+        for (int i = 0; i < n; i++) {
+            locations[i] = points[i].location();
+            System.arraycopy(points[i].xyz(), 0, xyz, 3 * i, 3);
+        }
+    }
+
+    public static LocationKdTree build(Collection<Location> candidates) {
+        Point[] points = candidates.stream()
+                .filter(Location::hasCoordinates)
+                .map(l -> new Point(l, toUnitVector(l.latitude, l.longitude)))
+                .toArray(Point[]::new);
+        return new LocationKdTree(points);
+    }
+
+    public int size() {
+        return locations.length;
+    }
+
+    /**
+     * Visits locations from nearest to farthest, lazily: subtrees are only expanded when they can
+     * still contain something closer than what has been visited so far.
+     */
+    public void visitNearest(double latitude, double longitude, Visitor visitor) {
+        if (locations.length == 0) {
+            return;
+        }
+        double[] query = toUnitVector(latitude, longitude);
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::chord));
+        queue.add(new Candidate(boxDistance(query, locations.length >>> 1), 0, locations.length, -1));
+
+        while (!queue.isEmpty()) {
+            Candidate next = queue.poll();
+            if (next.point() >= 0) {
+                if (!visitor.visit(locations[next.point()], chordToKm(next.chord()))) {
+                    return;
+                }
+                continue;
+            }
+            int lo = next.lo();
+            int hi = next.hi();
+            int mid = (lo + hi) >>> 1;
+            queue.add(new Candidate(pointDistance(query, mid), mid, mid + 1, mid));
+            if (lo < mid) {
+                queue.add(new Candidate(boxDistance(query, (lo + mid) >>> 1), lo, mid, -1));
+            }
+            if (mid + 1 < hi) {
+                queue.add(new Candidate(boxDistance(query, (mid + 1 + hi) >>> 1), mid + 1, hi, -1));
+            }
+        }
+    }
+
+    /** Convenience wrapper returning the {@code k} nearest locations. */
+    public List<Location> nearest(double latitude, double longitude, int k) {
+        List<Location> result = new ArrayList<>(Math.min(k, locations.length));
+        visitNearest(latitude, longitude, (location, distanceKm) -> {
+            result.add(location);
+            return result.size() < k;
+        });
+        return result;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double[] a = toUnitVector(lat1, lon1);
+        double[] b = toUnitVector(lat2, lon2);
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return chordToKm(Math.sqrt(dx * dx + dy * dy + dz * dz));
+    }
+
+    private void build(Point[] points, int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int i = lo; i < hi; i++) {
+            double[] p = points[i].xyz();
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], p[axis]);
+                max[axis] = Math.max(max[axis], p[axis]);
+            }
+        }
+
+        // split on the widest axis of this subtree
+        int axis = 0;
+        for (int a = 1; a < 3; a++) {
+            if (max[a] - min[a] > max[axis] - min[axis]) {
+                axis = a;
+            }
+        }
+        // Only the median has to land in place, so partition instead of sorting: O(n) per level.
+        select(points, lo, hi - 1, mid, axis);
+
+        System.arraycopy(min, 0, boxMin, 3 * mid, 3);
+        System.arraycopy(max, 0, boxMax, 3 * mid, 3);
+
+        build(points, lo, mid);
+        build(points, mid + 1, hi);
+    }
+
+    private static void select(Point[] points, int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = points[(left + right) >>> 1].xyz()[axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[i].xyz()[axis] < pivot) {
+                    i++;
+                }
+                while (points[j].xyz()[axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    Point tmp = points[i];
+                    points[i] = points[j];
+                    points[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double pointDistance(double[] query, int index) {
+        double sum = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double d = query[axis] - xyz[3 * index + axis];
+            sum += d * d;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // Lower bound of the chord distance from the query to anything in the subtree rooted at nodeMid.
+    private double boxDistance(double[] query, int nodeMid) {
+        double sum = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double v = query[axis];
+            double lo = boxMin[3 * nodeMid + axis];
+            double hi = boxMax[3 * nodeMid + axis];
+            double d = v < lo ? lo - v : (v > hi ? v - hi : 0);
+            sum += d * d;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[] {cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double chordToKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+    }
+
+    private record Point(Location location, double[] xyz) {}
+
+    private record Candidate(double chord, int lo, int hi, int point) {}
+}
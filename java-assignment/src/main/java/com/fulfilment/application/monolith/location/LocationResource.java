@@ -0,0 +1,103 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationCapacityLedger;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Path("location")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class LocationResource {
+
+  static final int MAX_PREFIX_LIMIT = 1000;
+  static final int MAX_BATCH_SIZE = 1000;
+
+  @Inject LocationGateway locationGateway;
+  @Inject LocationCapacityLedger locationCapacityLedger;
+
+  private static final Logger LOGGER = Logger.getLogger(LocationResource.class.getName());
+
+  @GET
+  public List<LocationView> findByPrefix(
+      @QueryParam("prefix") @DefaultValue("") String prefix,
+      @QueryParam("limit") @DefaultValue("50") int limit) {
+    if (limit < 1 || limit > MAX_PREFIX_LIMIT) {
+      throw new WebApplicationException("Limit must be between 1 and " + MAX_PREFIX_LIMIT + ".", 400);
+    }
+    return locationGateway.findByPrefix(prefix, limit).stream().map(LocationView::of).toList();
+  }
+
+  @GET
+  @Path("{identifier}")
+  public LocationView getSingle(String identifier) {
+    return LocationView.of(find(identifier));
+  }
+
+  @GET
+  @Path("{identifier}/capacity")
+  public Capacity getCapacity(String identifier) {
+    Location location = find(identifier);
+    long reserved = locationCapacityLedger.reservedCapacity(identifier);
+    return new Capacity(identifier, location.maxCapacity, reserved, location.maxCapacity - reserved,
+        location.maxNumberOfWarehouses, locationCapacityLedger.activeWarehouses(identifier));
+  }
+
+  @POST
+  @Path("resolve")
+  public BatchResolution resolve(List<String> identifiers) {
+    if (identifiers == null || identifiers.isEmpty()) {
+      throw new WebApplicationException("At least one identifier must be provided.", 400);
+    }
+    if (identifiers.size() > MAX_BATCH_SIZE) {
+      throw new WebApplicationException("At most " + MAX_BATCH_SIZE + " identifiers can be resolved at once.", 400);
+    }
+
+    Map<String, Location> found = locationGateway.resolveAll(identifiers);
+    Map<String, LocationView> views = new HashMap<>((int) (found.size() / 0.75f) + 1);
+    found.forEach((identifier, location) -> views.put(identifier, LocationView.of(location)));
+    List<String> missing = new ArrayList<>();
+    for (String identifier : identifiers) {
+      if (!found.containsKey(identifier)) {
+        missing.add(identifier);
+      }
+    }
+    return new BatchResolution(views, missing);
+  }
+
+  private Location find(String identifier) {
+    Location location = locationGateway.resolveByIdentifier(identifier);
+    if (location == null) {
+      LOGGER.warnf("Location %s does not exist.", identifier);
+      throw new WebApplicationException("Location " + identifier + " does not exist.", 404);
+    }
+    return location;
+  }
+
+  public record Capacity(String location, long maxCapacity, long reservedCapacity, long remainingCapacity,
+                         int maxNumberOfWarehouses, int activeWarehouses) {}
+
+  public record BatchResolution(Map<String, LocationView> locations, List<String> missing) {}
+
+  /** A location as returned by the API; coordinates are left out when unknown, as JSON has no NaN. */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record LocationView(String identification, int maxNumberOfWarehouses, int maxCapacity, Double latitude,
+                             Double longitude) {
+
+    static LocationView of(Location location) {
+      return location.hasCoordinates()
+          ? new LocationView(location.identification, location.maxNumberOfWarehouses, location.maxCapacity,
+              location.latitude, location.longitude)
+          : new LocationView(location.identification, location.maxNumberOfWarehouses, location.maxCapacity, null, null);
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 
 @Entity
@@ -24,6 +27,12 @@ public class Product {
 
   public int stock;
 
+  // Held by open reservations; maintained only by StockReservationRepository's statements.
+  @JsonIgnore
+  @ColumnDefault("0")
+  @Column(nullable = false, insertable = false, updatable = false)
+  public int reserved;
+
   public Product() {}
 
   public Product(String name) {
@@ -1,7 +1,179 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.common.cache.EntityCacheEviction;
+import com.fulfilment.application.monolith.common.cache.NaturalKeyCache;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+  // The condition makes the check and the write one atomic step: concurrent adjustments queue on
+  // the row lock and each one sees the stock the previous one left. Stock held by reservations
+  // cannot be taken out. It is evaluated in bigint, so a result beyond the int4 column rejects the
+  // row instead of failing the statement.
+  private static final String ADJUST_STOCK_SQL =
+      "UPDATE product SET stock = stock + ? WHERE id = ? AND stock::bigint + ? BETWEEN reserved AND " + Integer.MAX_VALUE;
+
+  private static final String LOCK_RESERVED_SQL = "SELECT reserved FROM product WHERE id = ? FOR UPDATE";
+
+  private static final String ADJUST_STOCK_RETURNING_SQL = ADJUST_STOCK_SQL + " RETURNING stock";
+
+  @Inject SessionFactory sessionFactory;
+
+  @Inject TransactionSynchronizationRegistry transactions;
+
+  @ConfigProperty(name = "product.name-cache.max-entries", defaultValue = "10000")
+  int nameCacheSize;
+
+  private NaturalKeyCache nameCache;
+
+  @PostConstruct
+  void init() {
+    nameCache = new NaturalKeyCache(nameCacheSize);
+  }
+
+  /** Product with the given unique name, resolved like {@code StoreRepository.findByName}. */
+  public Product findByName(String name) {
+    Long id = nameCache.get(name);
+    if (id != null) {
+      Product product = findById(id);
+      if (product != null && name.equals(product.name)) {
+        return product;
+      }
+      nameCache.invalidate(name);
+    }
+    Product product = find("name", name).firstResult();
+    if (product != null) {
+      nameCache.put(name, product.id);
+    }
+    return product;
+  }
+
+  /** Call when {@code name} stops naming a product in the current transaction. */
+  public void nameReleased(String name) {
+    nameCache.invalidateAfterCommit(transactions, name);
+  }
+
+  /**
+   * Adds {@code delta} to the stock of a product unless that would take it below its reserved
+   * quantity or beyond an {@code int}.
+   *
+   * @return the new stock, or {@code null} when the product does not exist or the result is out of range
+   */
+  public Integer adjustStock(Long id, int delta) {
+    Integer[] stock = new Integer[1];
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(ADJUST_STOCK_RETURNING_SQL)) {
+        bind(statement, id, delta);
+        try (ResultSet rows = statement.executeQuery()) {
+          if (rows.next()) {
+            stock[0] = rows.getInt(1);
+          }
+        }
+      }
+    });
+    if (stock[0] != null) {
+      EntityCacheEviction.evictAfterCommit(transactions, sessionFactory, Product.class, List.of(id));
+    }
+    return stock[0];
+  }
+
+  /**
+   * Applies several adjustments as one JDBC batch, in product id order so that concurrent batches
+   * lock rows in the same order and cannot deadlock. The caller's transaction decides whether the
+   * applied ones stay.
+   *
+   * @return the products whose adjustment was not applied
+   */
+  public List<Long> adjustStock(SortedMap<Long, Integer> deltas) {
+    List<Long> rejected = new ArrayList<>();
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      // the update count tells whether the row qualified
+      try (PreparedStatement statement = connection.prepareStatement(ADJUST_STOCK_SQL)) {
+        for (Map.Entry<Long, Integer> adjustment : deltas.entrySet()) {
+          bind(statement, adjustment.getKey(), adjustment.getValue());
+          statement.addBatch();
+        }
+        int[] counts = statement.executeBatch();
+        int i = 0;
+        for (Long id : deltas.keySet()) {
+          if (counts[i++] == 0) {
+            rejected.add(id);
+          }
+        }
+      }
+    });
+    EntityCacheEviction.evictAfterCommit(transactions, sessionFactory, Product.class, deltas.keySet());
+    return rejected;
+  }
+
+  /**
+   * Locks a product row until the end of the transaction, so no reservation can be added meanwhile,
+   * and returns its reserved quantity.
+   *
+   * @return {@code null} when the product does not exist
+   */
+  public Integer lockReserved(Long id) {
+    Integer[] reserved = new Integer[1];
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(LOCK_RESERVED_SQL)) {
+        statement.setLong(1, id);
+        try (ResultSet rows = statement.executeQuery()) {
+          if (rows.next()) {
+            reserved[0] = rows.getInt(1);
+          }
+        }
+      }
+    });
+    return reserved[0];
+  }
+
+  /** Stock and reserved quantity of a product, read from the table; {@code null} when it does not exist. */
+  public ProductResource.Availability availability(Long id) {
+    return getEntityManager()
+        .createQuery("select p.stock, p.reserved from Product p where p.id = ?1", Object[].class)
+        .setParameter(1, id)
+        .getResultStream()
+        .findFirst()
+        .map(row -> {
+          int stock = (Integer) row[0];
+          int reserved = (Integer) row[1];
+          return new ProductResource.Availability(id, stock, reserved, Math.max(0, stock - reserved));
+        })
+        .orElse(null);
+  }
+
+  public List<StockLevel> stockLevels(Collection<Long> ids) {
+    return getEntityManager()
+        .createQuery("select new " + StockLevel.class.getName() + "(p.id, p.stock) from Product p where p.id in ?1 order by p.id",
+            StockLevel.class)
+        .setParameter(1, ids)
+        .getResultList();
+  }
+
+  private static void bind(PreparedStatement statement, Long id, int delta) throws SQLException {
+    statement.setInt(1, delta);
+    statement.setLong(2, id);
+    statement.setInt(3, delta);
+  }
+
+  public NaturalKeyCache.Stats nameCacheStats() {
+    return nameCache.stats();
+  }
+}
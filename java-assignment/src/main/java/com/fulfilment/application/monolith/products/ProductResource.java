@@ -1,5 +1,8 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.common.audit.AuditEvent;
+import com.fulfilment.application.monolith.common.audit.AuditLog;
+import com.fulfilment.application.monolith.common.cache.NaturalKeyCache;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -8,7 +11,12 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Path("product")
 @ApplicationScoped
@@ -17,19 +25,45 @@ import java.util.List;
 public class ProductResource {
 
   @Inject ProductRepository productRepository;
+  @Inject AuditLog auditLog;
+  @Inject StockReservations stockReservations;
 
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  private static final String AUDITED_ENTITY = "product";
+
+  private static final int MAX_ADJUSTMENTS = 1000;
+
+  // larger movements are almost certainly typos; summed per product they still fit an int
+  static final int MAX_STOCK_DELTA = 1_000_000;
+
   @GET
   public List<Product> get() {
-    LOGGER.info("Getting all products");
+    LOGGER.debug("Getting all products");
     return productRepository.listAll(Sort.by("name"));
   }
 
+  @GET
+  @Path("by-name/{name}")
+  public Product getByName(String name) {
+    Product entity = productRepository.findByName(name);
+    if (entity == null) {
+      LOGGER.debugf("Product with name %s does not exist.", name);
+      throw new WebApplicationException("Product with name " + name + " does not exist.", 404);
+    }
+    return entity;
+  }
+
+  @GET
+  @Path("name-cache/stats")
+  public NaturalKeyCache.Stats nameCacheStats() {
+    return productRepository.nameCacheStats();
+  }
+
   @GET
   @Path("{id}")
   public Product getSingle(Long id) {
-    LOGGER.infof("Getting single product with id %d", id);
+    LOGGER.debugf("Getting single product with id %d", id);
     Product entity = productRepository.findById(id);
     if (entity == null) {
       LOGGER.warnf("Product with id %d does not exist.", id);
@@ -41,14 +75,15 @@ public class ProductResource {
   @POST
   @Transactional
   public Response create(Product product) {
-    LOGGER.info("Creating new product");
+    LOGGER.debug("Creating new product");
     if (product.id != null) {
       LOGGER.warn("Id was invalidly set on request.");
       throw new WebApplicationException("Id was invalidly set on request.", 422);
     }
 
     productRepository.persist(product);
-    LOGGER.infof("New product created with id %d", product.id);
+    auditLog.record(AUDITED_ENTITY, product.id, AuditEvent.Action.CREATE, null, ProductState.of(product));
+    LOGGER.debugf("New product created with id %d", product.id);
     return Response.ok(product).status(201).build();
   }
 
@@ -56,7 +91,7 @@ public class ProductResource {
   @Path("{id}")
   @Transactional
   public Product update(Long id, Product product) {
-    LOGGER.infof("Updating product with id %d", id);
+    LOGGER.debugf("Updating product with id %d", id);
     if (product.name == null) {
       LOGGER.warn("Product Name was not set on request.");
       throw new WebApplicationException("Product Name was not set on request.", 422);
@@ -69,14 +104,31 @@ public class ProductResource {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
 
+    // no reservation can be added until this commits
+    Integer reserved = productRepository.lockReserved(id);
+    if (reserved == null) {
+      LOGGER.warnf("Product with id %d does not exist.", id);
+      throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+    }
+    if (product.stock < reserved) {
+      LOGGER.debugf("Stock of product with id %d cannot go below its %d reserved", id, reserved);
+      throw new WebApplicationException("Stock of product with id of " + id + " cannot go below the " + reserved
+          + " reserved.", 409);
+    }
+
+    ProductState before = ProductState.of(entity);
+    if (!product.name.equals(entity.name)) {
+      productRepository.nameReleased(entity.name);
+    }
     entity.name = product.name;
     entity.description = product.description;
     entity.price = product.price;
     entity.stock = product.stock;
 
     productRepository.persist(entity);
+    auditLog.record(AUDITED_ENTITY, id, AuditEvent.Action.UPDATE, before, ProductState.of(entity));
 
-    LOGGER.infof("Product with id %d updated.", id);
+    LOGGER.debugf("Product with id %d updated.", id);
     return entity;
   }
 
@@ -84,15 +136,193 @@ public class ProductResource {
   @Path("{id}")
   @Transactional
   public Response delete(Long id) {
-    LOGGER.infof("Deleting product with id %d", id);
+    LOGGER.debugf("Deleting product with id %d", id);
     Product entity = productRepository.findById(id);
     if (entity == null) {
       LOGGER.warnf("Product with id %d does not exist.", id);
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    stockReservations.discard(id);
     productRepository.delete(entity);
-    LOGGER.infof("Product with id %d deleted.", id);
+    productRepository.nameReleased(entity.name);
+    auditLog.record(AUDITED_ENTITY, id, AuditEvent.Action.DELETE, ProductState.of(entity), null);
+    LOGGER.debugf("Product with id %d deleted.", id);
     return Response.status(204).build();
   }
 
+  /**
+   * Adds {@code delta} (negative to take stock out) to the stock of a product in one conditional
+   * update, so concurrent adjustments never lose each other. Rejected with 409 when the stock would
+   * drop below what open reservations hold, and with 422 when the delta is beyond {@value #MAX_STOCK_DELTA} either way or the
+   * stock would no longer fit an {@code int}.
+   */
+  @POST
+  @Path("{id}/stock-adjustments")
+  @Transactional
+  public StockLevel adjustStock(Long id, StockAdjustment adjustment) {
+    if (adjustment == null || adjustment.delta() == null) {
+      LOGGER.warn("Stock delta was not set on request.");
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
+    }
+    int delta = checkDelta(adjustment.delta());
+    Integer stock = productRepository.adjustStock(id, delta);
+    if (stock == null) {
+      List<StockLevel> current = productRepository.stockLevels(List.of(id));
+      if (current.isEmpty()) {
+        LOGGER.warnf("Product with id %d does not exist.", id);
+        throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+      }
+      if (exceedsMaximum(current.get(0), delta)) {
+        LOGGER.debugf("Stock of product with id %d would exceed the maximum with %d", id, Integer.valueOf(delta));
+        throw new WebApplicationException("Stock of product with id of " + id + " would exceed " + Integer.MAX_VALUE + ".", 422);
+      }
+      LOGGER.debugf("Insufficient stock for product with id %d to apply %d", id, Integer.valueOf(delta));
+      throw new WebApplicationException("Insufficient stock for product with id of " + id + ".", 409);
+    }
+    auditLog.record(AUDITED_ENTITY, id, AuditEvent.Action.UPDATE, new StockLevel(id, stock - delta),
+        new StockLevel(id, stock));
+    return new StockLevel(id, stock);
+  }
+
+  /**
+   * Applies several stock adjustments, all or none. Adjustments of the same product are summed
+   * first. Rejected with 404, 409 or 422 naming the products that failed.
+   */
+  @POST
+  @Path("stock-adjustments")
+  @Transactional
+  public List<StockLevel> adjustStocks(List<StockAdjustment> adjustments) {
+    if (adjustments == null || adjustments.isEmpty()) {
+      throw new WebApplicationException("At least one stock adjustment must be provided.", 422);
+    }
+    if (adjustments.size() > MAX_ADJUSTMENTS) {
+      throw new WebApplicationException("At most " + MAX_ADJUSTMENTS + " stock adjustments can be applied at once.", 422);
+    }
+    SortedMap<Long, Integer> deltas = new TreeMap<>();
+    for (StockAdjustment adjustment : adjustments) {
+      if (adjustment == null || adjustment.productId() == null || adjustment.delta() == null) {
+        LOGGER.warn("Product id and stock delta must be set on every adjustment.");
+        throw new WebApplicationException("Product id and stock delta must be set on every adjustment.", 422);
+      }
+      try {
+        deltas.merge(adjustment.productId(), checkDelta(adjustment.delta()), Math::addExact);
+      } catch (ArithmeticException e) {
+        throw new WebApplicationException("Stock deltas of product with id of " + adjustment.productId() + " add up beyond "
+            + Integer.MAX_VALUE + ".", 422);
+      }
+    }
+
+    List<Long> rejected = productRepository.adjustStock(deltas);
+    if (!rejected.isEmpty()) {
+      List<Long> missing = new ArrayList<>(rejected);
+      List<Long> tooLarge = new ArrayList<>();
+      for (StockLevel level : productRepository.stockLevels(rejected)) {
+        missing.remove(level.productId());
+        if (exceedsMaximum(level, deltas.get(level.productId()))) {
+          tooLarge.add(level.productId());
+        }
+      }
+      if (!missing.isEmpty()) {
+        LOGGER.warnf("Products with ids %s do not exist.", missing);
+        throw new WebApplicationException("Products with ids " + missing + " do not exist.", 404);
+      }
+      if (!tooLarge.isEmpty()) {
+        LOGGER.debugf("Stock of products with ids %s would exceed the maximum", tooLarge);
+        throw new WebApplicationException("Stock of products with ids " + tooLarge + " would exceed " + Integer.MAX_VALUE + ".", 422);
+      }
+      LOGGER.debugf("Insufficient stock for products with ids %s", rejected);
+      throw new WebApplicationException("Insufficient stock for products with ids " + rejected + ".", 409);
+    }
+
+    List<StockLevel> levels = productRepository.stockLevels(deltas.keySet());
+    for (StockLevel level : levels) {
+      auditLog.record(AUDITED_ENTITY, level.productId(), AuditEvent.Action.UPDATE,
+          new StockLevel(level.productId(), level.stock() - deltas.get(level.productId())), level);
+    }
+    return levels;
+  }
+
+  private static int checkDelta(int delta) {
+    if (delta < -MAX_STOCK_DELTA || delta > MAX_STOCK_DELTA) {
+      LOGGER.warnf("Stock delta %d is out of range.", Integer.valueOf(delta));
+      throw new WebApplicationException("Stock delta must be between " + -MAX_STOCK_DELTA + " and " + MAX_STOCK_DELTA + ".", 422);
+    }
+    return delta;
+  }
+
+  private static boolean exceedsMaximum(StockLevel level, int delta) {
+    return (long) level.stock() + delta > Integer.MAX_VALUE;
+  }
+
+  /** Stock of a product and how much of it is held by open reservations. */
+  @GET
+  @Path("{id}/availability")
+  public Availability getAvailability(Long id) {
+    Availability availability = productRepository.availability(id);
+    if (availability == null) {
+      LOGGER.warnf("Product with id %d does not exist.", id);
+      throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+    }
+    return availability;
+  }
+
+  /**
+   * Holds stock of a product for {@code ttlSeconds}, until it is confirmed or released. Rejected
+   * with 409 when less than the quantity is available.
+   */
+  @POST
+  @Path("{id}/reservations")
+  @Transactional
+  public Response reserve(Long id, ReservationRequest request) {
+    if (request == null || request.quantity() == null || request.quantity() <= 0) {
+      LOGGER.warn("Reservation quantity must be positive.");
+      throw new WebApplicationException("Reservation quantity must be positive.", 422);
+    }
+    long maxTtlSeconds = stockReservations.maxTtl().toSeconds();
+    if (request.ttlSeconds() == null || request.ttlSeconds() <= 0 || request.ttlSeconds() > maxTtlSeconds) {
+      LOGGER.warn("Reservation ttlSeconds is out of range.");
+      throw new WebApplicationException("Reservation ttlSeconds must be between 1 and " + maxTtlSeconds + ".", 422);
+    }
+    StockReservations.Held hold = stockReservations.reserve(id, request.quantity(), Duration.ofSeconds(request.ttlSeconds()));
+    if (hold == null) {
+      if (productRepository.availability(id) == null) {
+        LOGGER.warnf("Product with id %d does not exist.", id);
+        throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+      }
+      LOGGER.debugf("Insufficient available stock for product with id %d", id);
+      throw new WebApplicationException("Insufficient available stock for product with id of " + id + ".", 409);
+    }
+    LOGGER.debugf("Reservation %d holds %d of product %d", hold.id(), request.quantity(), id);
+    return Response.ok(hold).status(201).build();
+  }
+
+  /** Ends a reservation by taking its quantity out of the stock. */
+  @POST
+  @Path("reservations/{reservationId}/confirm")
+  @Transactional
+  public StockLevel confirmReservation(Long reservationId) {
+    StockLevel level = stockReservations.confirm(reservationId);
+    auditLog.record(AUDITED_ENTITY, level.productId(), AuditEvent.Action.UPDATE, null, level);
+    LOGGER.debugf("Reservation %d confirmed", reservationId);
+    return level;
+  }
+
+  /** Ends a reservation, making its quantity available again. */
+  @DELETE
+  @Path("reservations/{reservationId}")
+  @Transactional
+  public Response releaseReservation(Long reservationId) {
+    stockReservations.release(reservationId);
+    LOGGER.debugf("Reservation %d released", reservationId);
+    return Response.status(204).build();
+  }
+
+  public record Availability(Long productId, int stock, int reserved, int available) {}
+
+  /** Audited values of a product. */
+  public record ProductState(String name, String description, BigDecimal price, int stock) {
+    static ProductState of(Product product) {
+      return new ProductState(product.name, product.description, product.price, product.stock);
+    }
+  }
 }
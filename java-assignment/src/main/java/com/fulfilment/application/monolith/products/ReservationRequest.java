@@ -0,0 +1,4 @@
+package com.fulfilment.application.monolith.products;
+
+/** Body of a stock reservation: how much to hold and for how long. */
+public record ReservationRequest(Integer quantity, Long ttlSeconds) {}
@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.products;
+
+/**
+ * A relative stock change. {@code productId} is only read by the batch endpoint; the single one
+ * takes it from the path.
+ */
+public record StockAdjustment(Long productId, Integer delta) {}
@@ -0,0 +1,3 @@
+package com.fulfilment.application.monolith.products;
+
+public record StockLevel(Long productId, int stock) {}
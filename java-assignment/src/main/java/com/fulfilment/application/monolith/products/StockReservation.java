@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Stock held for a cart until it is confirmed, released or expires. Only open reservations are
+ * stored; the row is deleted when the reservation ends, together with its share of
+ * {@link Product#reserved}.
+ */
+@Entity
+@Table(name = "stock_reservation", indexes = {
+    @Index(name = "stock_reservation_product_idx", columnList = "productId"),
+    @Index(name = "stock_reservation_expires_idx", columnList = "expiresAt")})
+public class StockReservation {
+
+  @Id @GeneratedValue public Long id;
+
+  @Column(nullable = false)
+  public Long productId;
+
+  public int quantity;
+
+  @Column(nullable = false)
+  public Instant createdAt;
+
+  @Column(nullable = false)
+  public Instant expiresAt;
+}
@@ -0,0 +1,132 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Open reservations and the {@code reserved} total they keep on their product. Every statement that
+ * ends reservations deletes them and takes their quantity off the product in one step, so a
+ * reservation is counted exactly as long as its row exists, whichever node ends it.
+ */
+@ApplicationScoped
+public class StockReservationRepository implements PanacheRepository<StockReservation> {
+
+  // The row lock serialises reservations of a product across nodes.
+  private static final String HOLD_SQL =
+      "UPDATE product SET reserved = reserved + ? WHERE id = ? AND stock::bigint - reserved >= ?";
+
+  private static final String CONFIRM_SQL =
+      "WITH ended AS (DELETE FROM stock_reservation WHERE id = ? AND expiresAt > ? RETURNING productId, quantity)"
+          + " UPDATE product p SET stock = p.stock - e.quantity, reserved = p.reserved - e.quantity"
+          + " FROM ended e WHERE p.id = e.productId RETURNING p.id, p.stock";
+
+  private static final String RELEASE_SQL =
+      "WITH ended AS (DELETE FROM stock_reservation WHERE id = ? AND expiresAt > ? RETURNING productId, quantity)"
+          + " UPDATE product p SET reserved = p.reserved - e.quantity FROM ended e WHERE p.id = e.productId"
+          + " RETURNING p.id";
+
+  private static final String EXPIRE_SQL =
+      "WITH expired AS (DELETE FROM stock_reservation WHERE expiresAt <= ? AND (? OR id = ANY(?)) RETURNING productId, quantity),"
+          + " totals AS (SELECT productId, SUM(quantity) AS quantity FROM expired GROUP BY productId)"
+          + " UPDATE product p SET reserved = p.reserved - t.quantity FROM totals t WHERE p.id = t.productId"
+          + " RETURNING t.quantity";
+
+  /**
+   * Adds {@code quantity} to the reserved total of a product if its unreserved stock covers it.
+   *
+   * @return {@code false} when the product does not exist or has too little unreserved stock
+   */
+  public boolean hold(Long productId, int quantity) {
+    int[] updated = new int[1];
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(HOLD_SQL)) {
+        statement.setInt(1, quantity);
+        statement.setLong(2, productId);
+        statement.setInt(3, quantity);
+        updated[0] = statement.executeUpdate();
+      }
+    });
+    return updated[0] > 0;
+  }
+
+  /**
+   * Ends an unexpired reservation and takes its quantity out of the product stock.
+   *
+   * @return the new stock level, or {@code null} when there is no such open reservation
+   */
+  public StockLevel confirm(Long reservationId, Instant now) {
+    StockLevel[] level = new StockLevel[1];
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(CONFIRM_SQL)) {
+        statement.setLong(1, reservationId);
+        statement.setObject(2, utc(now));
+        try (ResultSet rows = statement.executeQuery()) {
+          if (rows.next()) {
+            level[0] = new StockLevel(rows.getLong(1), rows.getInt(2));
+          }
+        }
+      }
+    });
+    return level[0];
+  }
+
+  /**
+   * Ends an unexpired reservation, making its quantity available again.
+   *
+   * @return the product id, or {@code null} when there is no such open reservation
+   */
+  public Long release(Long reservationId, Instant now) {
+    Long[] productId = new Long[1];
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(RELEASE_SQL)) {
+        statement.setLong(1, reservationId);
+        statement.setObject(2, utc(now));
+        try (ResultSet rows = statement.executeQuery()) {
+          if (rows.next()) {
+            productId[0] = rows.getLong(1);
+          }
+        }
+      }
+    });
+    return productId[0];
+  }
+
+  /**
+   * Ends the given reservations, or all when {@code ids} is {@code null}, that expired by {@code now}.
+   *
+   * @return the total quantity released
+   */
+  public long expire(Instant now, Collection<Long> ids) {
+    long[] released = new long[1];
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(EXPIRE_SQL)) {
+        statement.setObject(1, utc(now));
+        statement.setBoolean(2, ids == null);
+        statement.setArray(3, connection.createArrayOf("int8", ids == null ? new Object[0] : ids.toArray()));
+        try (ResultSet rows = statement.executeQuery()) {
+          while (rows.next()) {
+            released[0] += rows.getLong(1);
+          }
+        }
+      }
+    });
+    return released[0];
+  }
+
+  /** Removes the reservations of a product that is being deleted. */
+  public long discardForProduct(Long productId) {
+    return delete("productId", productId);
+  }
+
+  private static OffsetDateTime utc(Instant instant) {
+    return instant.atOffset(ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,181 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.common.AfterCommit;
+import com.fulfilment.application.monolith.common.cache.EntityCacheEviction;
+import com.fulfilment.application.monolith.common.timer.TimingWheel;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open stock reservations, kept in the {@code stock_reservation} table with their total on the
+ * product's {@code reserved} column.
+ *
+ * <p>The database decides everything: a reservation is taken by a conditional update of the
+ * product, which holds its row lock until commit, so nodes cannot overbook; it is confirmed,
+ * released or expired by deleting its row and adjusting the product in the same statement, so
+ * exactly one of them ends it, on any node. Stock adjustments never take the stock below the
+ * reserved quantity.
+ *
+ * <p>Expiry of reservations made or loaded by this node runs off a hierarchical
+ * {@link TimingWheel} advanced every tick, not a timer per reservation. A slower sweep expires
+ * whatever other nodes left behind, e.g. because they stopped.
+ */
+@ApplicationScoped
+public class StockReservations {
+
+  private static final Logger LOG = Logger.getLogger(StockReservations.class);
+
+  private static final int WHEEL_LEVELS = 4;
+
+  @Inject StockReservationRepository reservationRepository;
+  @Inject SessionFactory sessionFactory;
+  @Inject TransactionSynchronizationRegistry transactions;
+
+  @ConfigProperty(name = "product.reservation.tick", defaultValue = "100ms")
+  Duration tick;
+
+  @ConfigProperty(name = "product.reservation.max-ttl", defaultValue = "PT24H")
+  Duration maxTtl;
+
+  // guarded by itself
+  private TimingWheel<Long> wheel;
+
+  @PostConstruct
+  void init() {
+    wheel = new TimingWheel<>(tick.toMillis(), WHEEL_LEVELS, System.currentTimeMillis());
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    List<StockReservation> open = QuarkusTransaction.requiringNew().call(reservationRepository::listAll);
+    open.forEach(reservation -> schedule(reservation.id, reservation.expiresAt));
+    LOG.infof("Scheduled expiry of %d open stock reservations", Integer.valueOf(open.size()));
+  }
+
+  public Duration maxTtl() {
+    return maxTtl;
+  }
+
+  /**
+   * Reserves {@code quantity} of the product for {@code ttl}. Must run in a transaction.
+   *
+   * @return {@code null} when the product does not exist or has less than {@code quantity} available
+   */
+  public Held reserve(Long productId, int quantity, Duration ttl) {
+    if (!reservationRepository.hold(productId, quantity)) {
+      return null;
+    }
+    StockReservation reservation = new StockReservation();
+    reservation.productId = productId;
+    reservation.quantity = quantity;
+    reservation.createdAt = Instant.now();
+    reservation.expiresAt = reservation.createdAt.plus(ttl);
+    reservationRepository.persist(reservation);
+    productChanged(productId);
+
+    Held hold = new Held(reservation.id, productId, quantity, reservation.expiresAt);
+    AfterCommit.run(transactions, () -> schedule(hold.id(), hold.expiresAt()));
+    return hold;
+  }
+
+  /**
+   * Ends a reservation and takes its quantity out of the product stock. Must run in a transaction.
+   * Fails with 404 when there is no such open reservation.
+   */
+  public StockLevel confirm(Long reservationId) {
+    StockLevel level = reservationId == null ? null : reservationRepository.confirm(reservationId, Instant.now());
+    if (level == null) {
+      throw notFound(reservationId);
+    }
+    productChanged(level.productId());
+    return level;
+  }
+
+  /**
+   * Ends a reservation without touching the stock. Must run in a transaction. Fails with 404 when
+   * there is no such open reservation.
+   *
+   * @return the product it held stock of
+   */
+  public Long release(Long reservationId) {
+    Long productId = reservationId == null ? null : reservationRepository.release(reservationId, Instant.now());
+    if (productId == null) {
+      throw notFound(reservationId);
+    }
+    productChanged(productId);
+    return productId;
+  }
+
+  /** Drops the open reservations of a product that is being deleted. Must run in a transaction. */
+  public void discard(Long productId) {
+    reservationRepository.discardForProduct(productId);
+  }
+
+  @Scheduled(every = "{product.reservation.tick}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void expireDue() {
+    long now = System.currentTimeMillis();
+    List<Long> due = new ArrayList<>();
+    synchronized (wheel) {
+      wheel.advance(now, due::add);
+    }
+    if (due.isEmpty()) {
+      return;
+    }
+    try {
+      // confirmed or released ones are gone already and not matched
+      long released = QuarkusTransaction.requiringNew().call(() -> reservationRepository.expire(Instant.ofEpochMilli(now), due));
+      evictProducts();
+      LOG.debugf("Expired stock reservations releasing %d units", Long.valueOf(released));
+    } catch (RuntimeException e) {
+      LOG.warnf(e, "Failed to expire %d stock reservations; retrying on the next tick", Integer.valueOf(due.size()));
+      due.forEach(id -> schedule(id, Instant.ofEpochMilli(now)));
+    }
+  }
+
+  @Scheduled(every = "{product.reservation.sweep-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void sweepExpired() {
+    long released = QuarkusTransaction.requiringNew().call(() -> reservationRepository.expire(Instant.now(), null));
+    if (released > 0) {
+      evictProducts();
+      LOG.debugf("Swept expired stock reservations releasing %d units", Long.valueOf(released));
+    }
+  }
+
+  private void schedule(Long id, Instant expiresAt) {
+    synchronized (wheel) {
+      // past the sub-millisecond part, so the expiring statement matches it
+      wheel.schedule(id, expiresAt.toEpochMilli() + 1);
+    }
+  }
+
+  // the statements bypass the persistence context
+  private void productChanged(Long productId) {
+    EntityCacheEviction.evictAfterCommit(transactions, sessionFactory, Product.class, List.of(productId));
+  }
+
+  // expiry does not say which products it touched
+  private void evictProducts() {
+    sessionFactory.getCache().evict(Product.class);
+  }
+
+  private static WebApplicationException notFound(Long reservationId) {
+    return new WebApplicationException("Reservation with id of " + reservationId + " does not exist.", 404);
+  }
+
+  /** An open reservation. */
+  public record Held(Long id, Long productId, int quantity, Instant expiresAt) {}
+}
@@ -0,0 +1,84 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the legacy system holds, as one 64-bit {@link LegacyStoreFingerprint} per store.
+ *
+ * <p>Kept in the database next to the outbox, so every node sees the sends of all nodes and the
+ * digest survives restarts and journal retention. A store's fingerprint changes in the transaction
+ * that deletes its sent outbox entry, so the digest and the outbox never disagree about a store.
+ */
+@ApplicationScoped
+public class LegacyStoreDigest implements PanacheRepositoryBase<LegacyStoreFingerprint, Long> {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private static final String RECEIVED_SQL =
+      "INSERT INTO legacy_store_fingerprint (storeId, fingerprint, receivedAt) VALUES (?1, ?2, ?3)"
+          + " ON CONFLICT (storeId) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, receivedAt = EXCLUDED.receivedAt";
+
+  // Fingerprints of stores that no longer exist, i.e. whose delete has not reached the legacy system.
+  private static final String ORPHANED_HQL =
+      "select f.storeId from LegacyStoreFingerprint f where f.storeId > ?1 and f.storeId <= ?2"
+          + " and not exists (select 1 from Store s where s.id = f.storeId) order by f.storeId";
+
+  /** Records that the legacy system received {@code type} for the given store state. */
+  public void received(StoreLegacySyncType type, Long storeId, String name, int quantityProductsInStock) {
+    if (type == StoreLegacySyncType.DELETE) {
+      deleteById(storeId);
+      return;
+    }
+    getEntityManager().createNativeQuery(RECEIVED_SQL)
+        .setParameter(1, storeId)
+        .setParameter(2, fingerprint(storeId, name, quantityProductsInStock))
+        .setParameter(3, LocalDateTime.now())
+        .executeUpdate();
+  }
+
+  /** Fingerprints of those of the given stores the legacy system has, by store id. */
+  public Map<Long, Long> fingerprintsOf(Collection<Long> storeIds) {
+    Map<Long, Long> fingerprints = new HashMap<>();
+    getEntityManager()
+        .createQuery("select f.storeId, f.fingerprint from LegacyStoreFingerprint f where f.storeId in ?1", Object[].class)
+        .setParameter(1, storeIds)
+        .getResultList()
+        .forEach(row -> fingerprints.put((Long) row[0], (Long) row[1]));
+    return fingerprints;
+  }
+
+  /** Ids in {@code (afterId, upToId]} the legacy system has but that no longer name a store. */
+  public List<Long> orphanedStoreIds(long afterId, long upToId) {
+    return getEntityManager().createQuery(ORPHANED_HQL, Long.class)
+        .setParameter(1, afterId)
+        .setParameter(2, upToId)
+        .getResultList();
+  }
+
+  /** FNV-1a over the synced fields of a store, id first. */
+  static long fingerprint(long id, String name, int quantityProductsInStock) {
+    long hash = FNV_OFFSET;
+    hash = mix(hash, id);
+    hash = mix(hash, quantityProductsInStock);
+    String value = name == null ? "" : name;
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, long value) {
+    for (int shift = 0; shift < 64; shift += 8) {
+      hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * The state of a store as the legacy system last received it, reduced to a fingerprint. Written by
+ * {@link StoreSyncOutboxDrainer} in the transaction that settles the sent entry, on whichever node
+ * sent it, and removed once a delete was sent. Not tied to the store row, so it outlives a deleted
+ * store until the legacy system has been told.
+ */
+@Entity
+@Table(name = "legacy_store_fingerprint")
+public class LegacyStoreFingerprint {
+
+  @Id
+  public Long storeId;
+
+  public long fingerprint;
+
+  public LocalDateTime receivedAt;
+}
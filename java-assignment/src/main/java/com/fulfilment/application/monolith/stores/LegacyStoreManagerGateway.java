@@ -1,51 +1,126 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.common.journal.Journal;
+import com.fulfilment.application.monolith.common.journal.JournalRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.nio.file.Files;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Hands store changes to the legacy system by appending them to a journal it reads from.
+ *
+ * <p>A call returns once its record is durable; calls made at the same time share one fsync.
+ */
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
-  public void createStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+  static final String JOURNAL_PREFIX = "legacy-store-sync";
+
+  @ConfigProperty(name = "store.legacy.journal.directory")
+  String directory;
+
+  @ConfigProperty(name = "store.legacy.journal.segment-size", defaultValue = "16777216")
+  int segmentSize;
+
+  @ConfigProperty(name = "store.legacy.journal.queue-capacity", defaultValue = "4096")
+  int queueCapacity;
+
+  private Journal journal;
+
+  @PostConstruct
+  void open() {
+    try {
+      journal = Journal.open(Path.of(directory), JOURNAL_PREFIX, segmentSize, queueCapacity);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open the legacy store sync journal in " + directory, e);
+    }
   }
 
-  public void updateStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+  @PreDestroy
+  void close() throws IOException {
+    journal.close();
   }
 
-  private void writeToFile(Store store) {
-    try {
-      // Step 1: Create a temporary file
-      Path tempFile;
+  public void createStoreOnLegacySystem(Store store) {
+    journal.appendAndSync(encode(StoreLegacySyncType.CREATE, store));
+  }
 
-      tempFile = Files.createTempFile(store.name, ".txt");
+  public void updateStoreOnLegacySystem(Store store) {
+    journal.appendAndSync(encode(StoreLegacySyncType.UPDATE, store));
+  }
 
-      System.out.println("Temporary file created at: " + tempFile.toString());
+  /** Tells the legacy system a store is gone; {@code store} carries its last state. */
+  public void deleteStoreOnLegacySystem(Store store) {
+    journal.appendAndSync(encode(StoreLegacySyncType.DELETE, store));
+  }
 
-      // Step 2: Write data to the temporary file
-      String content =
-          "Store created. [ name ="
-              + store.name
-              + " ] [ items on stock ="
-              + store.quantityProductsInStock
-              + "]";
-      Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
+  /**
+   * Reads synced changes for the legacy consumer, oldest first.
+   *
+   * @param from sequence to start at; pass the last processed sequence plus one
+   */
+  public List<LegacyStoreRecord> read(long from, int max) {
+    try {
+      List<JournalRecord> records = journal.reader().read(from, max);
+      List<LegacyStoreRecord> decoded = new ArrayList<>(records.size());
+      for (JournalRecord record : records) {
+        decoded.add(decode(record));
+      }
+      return decoded;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-      // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+  /**
+   * Lets the journal delete what the legacy consumer has processed.
+   *
+   * @param sequence every record below it has been processed
+   */
+  public void acknowledge(long sequence) {
+    try {
+      journal.reader().acknowledge(sequence);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-      // Step 4: Delete the temporary file when done
-      Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
+  // [byte type][long id][int quantityProductsInStock][modified UTF-8 name]
+  static byte[] encode(StoreLegacySyncType type, Store store) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + (store.name == null ? 0 : store.name.length() * 3));
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(type.ordinal());
+      out.writeLong(store.id == null ? -1 : store.id);
+      out.writeInt(store.quantityProductsInStock);
+      out.writeUTF(store.name == null ? "" : store.name);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
 
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to sync store to legacy system", e);
+  static LegacyStoreRecord decode(JournalRecord record) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.payload()))) {
+      StoreLegacySyncType type = StoreLegacySyncType.values()[in.readByte()];
+      long id = in.readLong();
+      int quantity = in.readInt();
+      String name = in.readUTF();
+      return new LegacyStoreRecord(record.sequence(), type, id, name, quantity);
     }
   }
+
+  /** A store change as the legacy system receives it. */
+  public record LegacyStoreRecord(long sequence, StoreLegacySyncType type, long storeId, String name,
+                                  int quantityProductsInStock) {}
 }
@@ -0,0 +1,233 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.common.metrics.LatencyHistogram;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Worker pool for legacy sync calls, kept apart from request handling.
+ *
+ * <p>The pool and its queue are bounded. When the queue is full, {@link OverflowPolicy} decides
+ * whether the submitter waits, the call is dropped, or it is refused so the submitter can leave it
+ * in the outbox. Each target additionally gets at most {@code max-concurrency-per-target} calls at
+ * a time. Calls over that limit wait in a queue of their target rather than on a worker, so a slow
+ * legacy system cannot take every worker from the other targets.
+ */
+@ApplicationScoped
+public class LegacySyncExecutor {
+
+  private static final Logger LOG = Logger.getLogger(LegacySyncExecutor.class);
+
+  public enum OverflowPolicy {
+    /** The submitter waits for queue space. */
+    BLOCK,
+    /** The call is dropped; the change never reaches the legacy system. */
+    SHED,
+    /** The call is refused and stays in the outbox for a later attempt. */
+    SPILL
+  }
+
+  @ConfigProperty(name = "store.sync.executor.threads", defaultValue = "4")
+  int threads;
+
+  @ConfigProperty(name = "store.sync.executor.queue-capacity", defaultValue = "256")
+  int queueCapacity;
+
+  @ConfigProperty(name = "store.sync.executor.overflow-policy", defaultValue = "spill")
+  OverflowPolicy overflowPolicy;
+
+  @ConfigProperty(name = "store.sync.executor.max-concurrency-per-target", defaultValue = "2")
+  int maxConcurrencyPerTarget;
+
+  private ThreadPoolExecutor pool;
+  // calls queued or waiting for a target permit; taken on submit, given back when the call starts
+  private Semaphore queueSlots;
+  private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder succeeded = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder retried = new LongAdder();
+  private final LongAdder shed = new LongAdder();
+  private final LongAdder spilled = new LongAdder();
+  private final LatencyHistogram queueWait = new LatencyHistogram();
+  private final LatencyHistogram execution = new LatencyHistogram();
+
+  @PostConstruct
+  void start() {
+    AtomicInteger index = new AtomicInteger();
+    queueSlots = new Semaphore(queueCapacity);
+    // Only calls holding a target permit get here, so this queue is bounded by the permits.
+    pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+        task -> {
+          Thread thread = new Thread(task, "legacy-sync-" + index.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    pool.shutdown();
+    if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+      LOG.warnf("Legacy sync executor did not finish %d queued calls", queueDepth());
+      pool.shutdownNow();
+    }
+  }
+
+  public OverflowPolicy overflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * Runs {@code call} against {@code target} on a sync worker.
+   *
+   * @param retry whether this is a repeated attempt, for the retry count
+   * @throws RejectedExecutionException when the queue is full and the policy is {@code SHED} or
+   *     {@code SPILL}
+   */
+  public CompletableFuture<Void> submit(String target, boolean retry, Runnable call) {
+    if (pool.isShutdown()) {
+      throw new RejectedExecutionException("Legacy sync executor is shut down");
+    }
+    takeQueueSlot();
+    Target queue = targets.computeIfAbsent(target, t -> new Target(maxConcurrencyPerTarget));
+    Call queued = new Call(queue, call);
+    queue.waiting.add(queued);
+    submitted.increment();
+    if (retry) {
+      retried.increment();
+    }
+    dispatch(queue);
+    return queued.result;
+  }
+
+  private void takeQueueSlot() {
+    switch (overflowPolicy) {
+      case BLOCK -> {
+        try {
+          queueSlots.acquire();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+        }
+      }
+      case SHED -> {
+        if (!queueSlots.tryAcquire()) {
+          shed.increment();
+          throw new RejectedExecutionException("Legacy sync queue is full; call shed");
+        }
+      }
+      case SPILL -> {
+        if (!queueSlots.tryAcquire()) {
+          spilled.increment();
+          throw new RejectedExecutionException("Legacy sync queue is full; call left in the outbox");
+        }
+      }
+    }
+  }
+
+  // Hands waiting calls of the target to the pool while it has permits. Called after a call is
+  // queued and after one finishes; the re-check after giving a permit back covers a call queued
+  // in between.
+  private void dispatch(Target target) {
+    while (target.permits.tryAcquire()) {
+      Call next = target.waiting.poll();
+      if (next == null) {
+        target.permits.release();
+        if (target.waiting.isEmpty()) {
+          return;
+        }
+        continue;
+      }
+      try {
+        pool.execute(next);
+      } catch (RejectedExecutionException e) {
+        target.permits.release();
+        queueSlots.release();
+        failed.increment();
+        next.result.completeExceptionally(e);
+      }
+    }
+  }
+
+  private final class Call implements Runnable {
+    final Target target;
+    final Runnable call;
+    final long queuedAt = System.nanoTime();
+    final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    Call(Target target, Runnable call) {
+      this.target = target;
+      this.call = call;
+    }
+
+    @Override
+    public void run() {
+      long started = System.nanoTime();
+      queueSlots.release();
+      queueWait.record(started - queuedAt);
+      RuntimeException failure = null;
+      try {
+        call.run();
+      } catch (RuntimeException e) {
+        failure = e;
+      } finally {
+        // metrics first, so they include this call once the caller sees it complete
+        execution.record(System.nanoTime() - started);
+        target.permits.release();
+        dispatch(target);
+      }
+      if (failure == null) {
+        succeeded.increment();
+        result.complete(null);
+      } else {
+        failed.increment();
+        result.completeExceptionally(failure);
+      }
+    }
+  }
+
+  // calls of one target waiting for one of its permits
+  private static final class Target {
+    final Semaphore permits;
+    final Queue<Call> waiting = new ConcurrentLinkedQueue<>();
+
+    Target(int maxConcurrency) {
+      this.permits = new Semaphore(maxConcurrency);
+    }
+  }
+
+  private int queueDepth() {
+    int depth = pool.getQueue().size();
+    for (Target target : targets.values()) {
+      depth += target.waiting.size();
+    }
+    return depth;
+  }
+
+  public Metrics metrics() {
+    return new Metrics(queueDepth(), pool.getActiveCount(), submitted.sum(), succeeded.sum(),
+        failed.sum(), retried.sum(), shed.sum(), spilled.sum(), queueWait.snapshot(), execution.snapshot());
+  }
+
+  public record Metrics(int queueDepth, int active, long submitted, long succeeded, long failed, long retried,
+                        long shed, long spilled, LatencyHistogram.Snapshot queueWait,
+                        LatencyHistogram.Snapshot execution) {}
+}
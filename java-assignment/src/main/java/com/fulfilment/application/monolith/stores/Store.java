@@ -1,10 +1,11 @@
 package com.fulfilment.application.monolith.stores;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.*;
 
 @Entity
 @Cacheable
+// keyset pagination walks (name, id)
+@Table(indexes = @Index(name = "store_name_id_idx", columnList = "name, id"))
 public class Store {
 
     @Id
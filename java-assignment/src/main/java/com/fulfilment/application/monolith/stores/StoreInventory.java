@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.stores;
+
+/**
+ * What a store is supplied with: the distinct products it is fulfilled with, the distinct warehouses
+ * fulfilling it, and the summed stock of those warehouses that are active.
+ */
+public record StoreInventory(Long storeId, int productsServed, int servingWarehouses, long totalUpstreamStock) {
+
+  static StoreInventory empty(Long storeId) {
+    return new StoreInventory(storeId, 0, 0, 0);
+  }
+}
@@ -0,0 +1,231 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.fulfilment.FulfilmentAdded;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-store inventory aggregates, kept in memory.
+ *
+ * <p>Fulfilments are tallied per store by product and by warehouse business unit code, so a replaced
+ * warehouse keeps serving the stores of the row it replaced. Committed {@link FulfilmentAdded},
+ * {@link StoresDeleted} and {@link WarehouseChange} events update only the stores they touch; a
+ * warehouse stock change reaches its stores through a reverse index. Writers serialise on the view
+ * and publish an immutable {@link StoreInventory} per store, which readers get without locking.
+ *
+ * <p>The view is loaded at startup and rebuilt periodically, which picks up writes made by other
+ * nodes. Fulfilments are counted by id, so an event the rebuilt state already contains is not counted
+ * twice.
+ */
+@ApplicationScoped
+public class StoreInventoryView {
+
+  private static final Logger LOG = Logger.getLogger(StoreInventoryView.class);
+
+  private static final String FULFILMENT_ROWS =
+      "select f.id, f.store.id, f.product.id, f.warehouse.businessUnitCode from Fulfilment f";
+
+  @Inject EntityManager entityManager;
+  @Inject WarehouseStore warehouseStore;
+
+  // guarded by this
+  private State state = new State();
+
+  // Events committed while a rebuild reads, replayed onto its result; null when no rebuild runs.
+  // guarded by this
+  private List<Function<State, Collection<Tally>>> replayAfterRebuild;
+
+  private final Map<Long, StoreInventory> published = new ConcurrentHashMap<>();
+
+  void onStart(@Observes StartupEvent event) {
+    rebuild();
+  }
+
+  /**
+   * Reloads the view. Fulfilments and warehouses are read from one snapshot; events committed
+   * meanwhile are also applied to the old state, and replayed onto the new one before it replaces
+   * it. Events already in the snapshot replay without effect.
+   */
+  @Scheduled(every = "{store.inventory.rebuild-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void rebuild() {
+    synchronized (this) {
+      replayAfterRebuild = new ArrayList<>();
+    }
+    try {
+      State rebuilt = QuarkusTransaction.requiringNew().call(this::load);
+      synchronized (this) {
+        replayAfterRebuild.forEach(event -> event.apply(rebuilt));
+        LOG.debugf("Store inventory rebuilt from %d fulfilments for %d stores, %d events replayed",
+            Integer.valueOf(rebuilt.fulfilmentCount()), Integer.valueOf(rebuilt.tallies.size()),
+            Integer.valueOf(replayAfterRebuild.size()));
+        state = rebuilt;
+        published.keySet().retainAll(rebuilt.tallies.keySet());
+        rebuilt.tallies.values().forEach(this::publish);
+      }
+    } finally {
+      synchronized (this) {
+        replayAfterRebuild = null;
+      }
+    }
+  }
+
+  private State load() {
+    // both reads see the same snapshot
+    entityManager.createNativeQuery("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ").executeUpdate();
+    List<Object[]> rows = entityManager.createQuery(FULFILMENT_ROWS, Object[].class).getResultList();
+    State loaded = new State();
+    for (WarehouseDTO warehouse : warehouseStore.getAll()) {
+      loaded.activeWarehouses.put(warehouse.businessUnitCode, new ActiveWarehouse(warehouse.id, stockOf(warehouse)));
+    }
+    for (Object[] row : rows) {
+      loaded.add((Long) row[0], (Long) row[1], (Long) row[2], (String) row[3]);
+    }
+    return loaded;
+  }
+
+  /** The current aggregates of a store; all zero when nothing fulfils it. */
+  public StoreInventory inventoryOf(Long storeId) {
+    StoreInventory inventory = published.get(storeId);
+    return inventory == null ? StoreInventory.empty(storeId) : inventory;
+  }
+
+  synchronized void onFulfilmentAdded(@Observes(during = TransactionPhase.AFTER_SUCCESS) FulfilmentAdded added) {
+    apply(target -> {
+      Tally tally = target.add(added.fulfilmentId(), added.storeId(), added.productId(), added.businessUnitCode());
+      return tally == null ? List.of() : List.of(tally);
+    });
+  }
+
+  synchronized void onStoresDeleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoresDeleted deleted) {
+    apply(target -> {
+      deleted.storeIds().forEach(target::remove);
+      return List.of();
+    });
+    deleted.storeIds().forEach(published::remove);
+  }
+
+  synchronized void onWarehouseChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChange change) {
+    apply(target -> target.apply(change));
+  }
+
+  // guarded by this
+  private void apply(Function<State, Collection<Tally>> event) {
+    if (replayAfterRebuild != null) {
+      replayAfterRebuild.add(event);
+    }
+    event.apply(state).forEach(this::publish);
+  }
+
+  private void publish(Tally tally) {
+    published.put(tally.storeId, new StoreInventory(tally.storeId, tally.products.size(), tally.warehouses.size(),
+        tally.upstreamStock));
+  }
+
+  private static long stockOf(WarehouseDTO warehouse) {
+    return warehouse.stock == null ? 0 : warehouse.stock;
+  }
+
+  private record ActiveWarehouse(Long id, long stock) {}
+
+  private static final class State {
+    final Map<Long, Tally> tallies = new HashMap<>();
+    // business unit code -> stores it fulfils
+    final Map<String, Set<Long>> storesByWarehouse = new HashMap<>();
+    final Map<String, ActiveWarehouse> activeWarehouses = new HashMap<>();
+
+    /** Counts a fulfilment; {@code null} when it is already counted. */
+    Tally add(Long fulfilmentId, Long storeId, Long productId, String businessUnitCode) {
+      Tally tally = tallies.computeIfAbsent(storeId, Tally::new);
+      if (!tally.fulfilments.add(fulfilmentId)) {
+        return null;
+      }
+      tally.products.merge(productId, 1, Integer::sum);
+      if (tally.warehouses.merge(businessUnitCode, 1, Integer::sum) == 1) {
+        storesByWarehouse.computeIfAbsent(businessUnitCode, c -> new HashSet<>()).add(storeId);
+        tally.upstreamStock += stockOf(businessUnitCode);
+      }
+      return tally;
+    }
+
+    void remove(Long storeId) {
+      Tally tally = tallies.remove(storeId);
+      if (tally == null) {
+        return;
+      }
+      for (String code : tally.warehouses.keySet()) {
+        Set<Long> stores = storesByWarehouse.get(code);
+        stores.remove(storeId);
+        if (stores.isEmpty()) {
+          storesByWarehouse.remove(code);
+        }
+      }
+    }
+
+    /** Applies a warehouse change and returns the stores whose upstream stock moved. */
+    Collection<Tally> apply(WarehouseChange change) {
+      WarehouseDTO warehouse = change.warehouse();
+      String code = warehouse.businessUnitCode;
+      long before = stockOf(code);
+      switch (change.type()) {
+        case CREATED -> activeWarehouses.put(code, new ActiveWarehouse(warehouse.id, StoreInventoryView.stockOf(warehouse)));
+        // only if it is still this row; its replacement may already be active
+        case ARCHIVED -> activeWarehouses.computeIfPresent(code,
+            (c, active) -> active.id().equals(warehouse.id) ? null : active);
+      }
+      long delta = stockOf(code) - before;
+      Set<Long> stores = storesByWarehouse.get(code);
+      if (delta == 0 || stores == null) {
+        return List.of();
+      }
+      List<Tally> changed = new ArrayList<>(stores.size());
+      for (Long storeId : stores) {
+        Tally tally = tallies.get(storeId);
+        tally.upstreamStock += delta;
+        changed.add(tally);
+      }
+      return changed;
+    }
+
+    long stockOf(String businessUnitCode) {
+      ActiveWarehouse active = activeWarehouses.get(businessUnitCode);
+      return active == null ? 0 : active.stock();
+    }
+
+    int fulfilmentCount() {
+      return tallies.values().stream().mapToInt(tally -> tally.fulfilments.size()).sum();
+    }
+  }
+
+  // fulfilment counts of one store, by product and by warehouse
+  private static final class Tally {
+    final Long storeId;
+    final Set<Long> fulfilments = new HashSet<>();
+    final Map<Long, Integer> products = new HashMap<>();
+    final Map<String, Integer> warehouses = new HashMap<>();
+    long upstreamStock;
+
+    Tally(Long storeId) {
+      this.storeId = storeId;
+    }
+  }
+}
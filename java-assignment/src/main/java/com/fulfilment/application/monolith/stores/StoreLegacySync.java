@@ -1,3 +1,12 @@
 package com.fulfilment.application.monolith.stores;
 
-public record StoreLegacySync(StoreLegacySyncType type, Long storeId) {}
\ No newline at end of file
+/**
+ * A store change to send to the legacy system, with the state of the store as written. Fired after
+ * the last change of the store in the transaction, so the sync path never reads the store again.
+ */
+public record StoreLegacySync(StoreLegacySyncType type, Long storeId, String name, int quantityProductsInStock) {
+
+  public static StoreLegacySync of(StoreLegacySyncType type, Store store) {
+    return new StoreLegacySync(type, store.id, store.name, store.quantityProductsInStock);
+  }
+}
@@ -0,0 +1,6 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.List;
+
+/** Store changes written together, e.g. by a bulk upsert, to be recorded for sync in one go. */
+public record StoreLegacySyncBatch(List<StoreLegacySync> syncs) {}
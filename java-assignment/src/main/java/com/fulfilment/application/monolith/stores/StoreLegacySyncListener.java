@@ -2,25 +2,46 @@ package com.fulfilment.application.monolith.stores;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
-import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Records store changes in the outbox, inside the transaction of the store write: the sync is
+ * committed or rolled back together with the change, and {@link StoreSyncOutboxDrainer} sends it
+ * to the legacy system later.
+ *
+ * <p>New entries are held back for {@code store.sync.coalesce-window}; changes to the same store
+ * within that time are merged into the pending entry, so the legacy system gets one call with the
+ * latest state. A zero window sends every change on its own.
+ */
 @ApplicationScoped
 public class StoreLegacySyncListener {
 
-  @Inject StoreRepository storeRepository;
-  @Inject LegacyStoreManagerGateway legacy;
+  @Inject StoreSyncOutboxRepository outbox;
+
+  @ConfigProperty(name = "store.sync.coalesce-window", defaultValue = "PT0.2S")
+  Duration coalesceWindow;
 
-  public void afterCommit(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreLegacySync evt) {
-    Store store = storeRepository.findById(evt.storeId());
-    if (store == null) {
-      // If it was deleted or missing, decide what you want to do. For now, skip.
+  public void enqueue(@Observes StoreLegacySync evt) {
+    if (!coalesceWindow.isZero() && outbox.mergeIntoPending(evt)) {
       return;
     }
+    LocalDateTime now = LocalDateTime.now();
+    outbox.persist(new StoreSyncOutboxEntry(evt, now, now.plus(coalesceWindow)));
+  }
 
-    switch (evt.type()) {
-      case CREATE -> legacy.createStoreOnLegacySystem(store);
-      case UPDATE -> legacy.updateStoreOnLegacySystem(store);
+  /**
+   * Records a batch with batched inserts and without merging: a bulk write touches each store
+   * once, so there is rarely anything pending to merge with.
+   */
+  public void enqueueAll(@Observes StoreLegacySyncBatch batch) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime availableAt = now.plus(coalesceWindow);
+    for (StoreLegacySync sync : batch.syncs()) {
+      outbox.persist(new StoreSyncOutboxEntry(sync, now, availableAt));
     }
   }
 }
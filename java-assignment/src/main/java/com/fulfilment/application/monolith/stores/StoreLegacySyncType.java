@@ -1,5 +1,5 @@
 package com.fulfilment.application.monolith.stores;
 
 public enum StoreLegacySyncType {
-    CREATE, UPDATE
+    CREATE, UPDATE, DELETE
 }
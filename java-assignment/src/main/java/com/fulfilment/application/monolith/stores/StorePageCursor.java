@@ -0,0 +1,30 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of a store page: name and id of the last store returned. Encoded as url-safe
+ * base64 of {@code id:name} so clients treat it as opaque.
+ */
+record StorePageCursor(long id, String name) {
+
+  String encode() {
+    String raw = id + ":" + name;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static StorePageCursor decode(String cursor) {
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("malformed cursor");
+      }
+      return new StorePageCursor(Long.parseLong(parts[0]), parts[1]);
+    } catch (IllegalArgumentException e) {
+      throw new WebApplicationException("Invalid page cursor: " + cursor, 400);
+    }
+  }
+}
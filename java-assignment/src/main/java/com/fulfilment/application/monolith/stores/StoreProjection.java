@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fields of a store to return, from the {@code fields} query parameter. Applied to rows of
+ * {@code id, name, quantityProductsInStock} as read by {@link StoreRepository}.
+ */
+final class StoreProjection {
+
+  private static final List<String> COLUMNS = List.of("id", "name", "quantityProductsInStock");
+
+  static final StoreProjection ALL = new StoreProjection(new int[] {0, 1, 2});
+
+  // indexes into the row, in output order
+  private final int[] columns;
+
+  private StoreProjection(int[] columns) {
+    this.columns = columns;
+  }
+
+  /**
+   * @param fields comma-separated field names; all fields when blank
+   */
+  static StoreProjection parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    List<Integer> selected = new ArrayList<>(COLUMNS.size());
+    for (String field : fields.split(",")) {
+      int column = COLUMNS.indexOf(field.trim());
+      if (column < 0) {
+        throw new WebApplicationException("Unknown store field: " + field.trim() + ". Allowed: " + COLUMNS, 400);
+      }
+      if (!selected.contains(column)) {
+        selected.add(column);
+      }
+    }
+    return new StoreProjection(selected.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  Map<String, Object> apply(Object[] row) {
+    Map<String, Object> projected = new LinkedHashMap<>(columns.length * 2);
+    for (int column : columns) {
+      projected.put(COLUMNS.get(column), row[column]);
+    }
+    return projected;
+  }
+}
@@ -0,0 +1,183 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds stores the legacy system does not have, or has with other values, and syncs them again.
+ *
+ * <p>A run walks all stores in id order, one keyset batch per transaction, and compares each
+ * store's fingerprint with the {@link LegacyStoreDigest}. Fingerprints in the same id range that
+ * no longer have a store are deletes the legacy system missed. Differences are written to the sync
+ * outbox as one batch, skipping stores that already have a sync pending. The checkpoint advances in
+ * the same transaction, so a run interrupted by a restart resumes after the last completed batch,
+ * and a store is never queued twice by the same batch.
+ */
+@ApplicationScoped
+public class StoreReconciliation {
+
+  private static final Logger LOG = Logger.getLogger(StoreReconciliation.class);
+
+  @Inject StoreRepository storeRepository;
+  @Inject StoreSyncOutboxRepository outbox;
+  @Inject StoreReconciliationCheckpointRepository checkpoints;
+  @Inject LegacyStoreDigest digest;
+  @Inject Event<StoreLegacySyncBatch> syncBatchEvent;
+
+  @ConfigProperty(name = "store.reconcile.batch-size", defaultValue = "1000")
+  int batchSize;
+
+  private Thread worker;
+  private volatile boolean stopping;
+
+  void onStart(@Observes StartupEvent event) {
+    StoreReconciliationCheckpoint checkpoint = QuarkusTransaction.requiringNew()
+        .call(() -> checkpoints.findById(StoreReconciliationCheckpoint.STORES));
+    if (checkpoint != null && checkpoint.startedAt != null && checkpoint.finishedAt == null) {
+      LOG.infof("Resuming store reconciliation after store %d", Long.valueOf(checkpoint.lastStoreId));
+      start();
+    }
+  }
+
+  void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+    Thread running;
+    synchronized (this) {
+      stopping = true;
+      running = worker;
+    }
+    if (running != null) {
+      running.join(5_000);
+    }
+  }
+
+  /**
+   * Starts a run in the background, or continues the unfinished one.
+   *
+   * @return {@code false} when a run is already going on in this JVM
+   */
+  public synchronized boolean start() {
+    if (worker != null || stopping) {
+      return false;
+    }
+    worker = new Thread(this::run, "store-reconciliation");
+    worker.setDaemon(true);
+    worker.start();
+    return true;
+  }
+
+  public Status status() {
+    StoreReconciliationCheckpoint checkpoint = QuarkusTransaction.requiringNew()
+        .call(() -> checkpoints.findById(StoreReconciliationCheckpoint.STORES));
+    boolean running;
+    synchronized (this) {
+      running = worker != null;
+    }
+    if (checkpoint == null) {
+      return new Status(running, 0, 0, 0, null, null);
+    }
+    return new Status(running, checkpoint.lastStoreId, checkpoint.scanned, checkpoint.resynced,
+        checkpoint.startedAt, checkpoint.finishedAt);
+  }
+
+  private void run() {
+    try {
+      QuarkusTransaction.requiringNew().run(this::begin);
+      while (!stopping && QuarkusTransaction.requiringNew().call(this::reconcileBatch)) {
+        // next batch
+      }
+      Status status = status();
+      LOG.infof("Store reconciliation %s: %d stores compared, %d synced again", stopping ? "paused" : "finished",
+          Long.valueOf(status.scanned()), Long.valueOf(status.resynced()));
+    } catch (RuntimeException e) {
+      LOG.error("Store reconciliation failed; it continues from its checkpoint on the next start", e);
+    } finally {
+      synchronized (this) {
+        worker = null;
+      }
+    }
+  }
+
+  // Starts over unless the previous run is unfinished.
+  void begin() {
+    StoreReconciliationCheckpoint checkpoint = checkpoints.lock();
+    if (checkpoint.startedAt == null || checkpoint.finishedAt != null) {
+      checkpoint.lastStoreId = 0;
+      checkpoint.scanned = 0;
+      checkpoint.resynced = 0;
+      checkpoint.startedAt = LocalDateTime.now();
+      checkpoint.finishedAt = null;
+      checkpoint.updatedAt = checkpoint.startedAt;
+    }
+  }
+
+  /** @return {@code true} while there may be more stores */
+  boolean reconcileBatch() {
+    StoreReconciliationCheckpoint checkpoint = checkpoints.lock();
+    if (checkpoint.finishedAt != null) {
+      // finished by another node meanwhile
+      return false;
+    }
+    List<Object[]> rows = storeRepository.rowsAfterId(checkpoint.lastStoreId, batchSize);
+    boolean last = rows.size() < batchSize;
+    List<Long> ids = new ArrayList<>(rows.size());
+    rows.forEach(row -> ids.add((Long) row[0]));
+    // the last batch also covers deleted stores above the highest remaining id
+    List<Long> deleted = digest.orphanedStoreIds(checkpoint.lastStoreId, last ? Long.MAX_VALUE : ids.get(ids.size() - 1));
+
+    List<Long> visited = new ArrayList<>(ids);
+    visited.addAll(deleted);
+    Set<Long> pending = visited.isEmpty() ? Set.of() : outbox.pendingStoreIds(visited);
+    Map<Long, Long> received = ids.isEmpty() ? Map.of() : digest.fingerprintsOf(ids);
+
+    List<StoreLegacySync> syncs = new ArrayList<>();
+    for (Object[] row : rows) {
+      long id = (Long) row[0];
+      String name = (String) row[1];
+      int quantity = (Integer) row[2];
+      if (pending.contains(id)) {
+        continue;
+      }
+      Long fingerprint = received.get(id);
+      if (fingerprint == null || fingerprint != LegacyStoreDigest.fingerprint(id, name, quantity)) {
+        syncs.add(new StoreLegacySync(fingerprint == null ? StoreLegacySyncType.CREATE : StoreLegacySyncType.UPDATE,
+            id, name, quantity));
+      }
+    }
+    for (Long id : deleted) {
+      if (!pending.contains(id)) {
+        syncs.add(new StoreLegacySync(StoreLegacySyncType.DELETE, id, null, 0));
+      }
+    }
+    if (!syncs.isEmpty()) {
+      syncBatchEvent.fire(new StoreLegacySyncBatch(syncs));
+    }
+
+    if (!ids.isEmpty()) {
+      checkpoint.lastStoreId = ids.get(ids.size() - 1);
+    }
+    checkpoint.scanned += visited.size();
+    checkpoint.resynced += syncs.size();
+    checkpoint.updatedAt = LocalDateTime.now();
+    if (last) {
+      checkpoint.finishedAt = checkpoint.updatedAt;
+      return false;
+    }
+    return true;
+  }
+
+  public record Status(boolean running, long lastStoreId, long scanned, long resynced, LocalDateTime startedAt,
+                       LocalDateTime finishedAt) {}
+}
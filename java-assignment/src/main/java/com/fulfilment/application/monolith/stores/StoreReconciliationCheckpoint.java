@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the store reconciliation, advanced in the transaction of every batch so a run
+ * interrupted by a restart continues after the last completed batch.
+ */
+@Entity
+@Table(name = "store_reconciliation_checkpoint")
+public class StoreReconciliationCheckpoint {
+
+  static final String STORES = "stores";
+
+  @Id
+  @Column(length = 32)
+  public String name;
+
+  // last store compared in the current run; stores are visited in id order
+  public long lastStoreId;
+
+  public long scanned;
+
+  public long resynced;
+
+  public LocalDateTime startedAt;
+
+  // null while a run is in progress
+  public LocalDateTime finishedAt;
+
+  public LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+
+@ApplicationScoped
+public class StoreReconciliationCheckpointRepository
+    implements PanacheRepositoryBase<StoreReconciliationCheckpoint, String> {
+
+  /**
+   * The checkpoint, locked until the current transaction ends so that only one node advances a run
+   * at a time. Created when missing.
+   */
+  public StoreReconciliationCheckpoint lock() {
+    StoreReconciliationCheckpoint checkpoint = findById(StoreReconciliationCheckpoint.STORES, LockModeType.PESSIMISTIC_WRITE);
+    if (checkpoint == null) {
+      checkpoint = new StoreReconciliationCheckpoint();
+      checkpoint.name = StoreReconciliationCheckpoint.STORES;
+      persist(checkpoint);
+    }
+    return checkpoint;
+  }
+}
@@ -1,7 +1,213 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.common.cache.EntityCacheEviction;
+import com.fulfilment.application.monolith.common.cache.NaturalKeyCache;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
-public class StoreRepository implements PanacheRepository<Store> {}
+public class StoreRepository implements PanacheRepository<Store> {
+
+  private static final String ROW_SELECT = "select s.id, s.name, s.quantityProductsInStock from Store s";
+
+  // Rows are passed as two arrays, so a chunk is one statement and one round trip. xmax = 0 only
+  // holds for a row this statement inserted.
+  private static final String UPSERT_SQL =
+      "INSERT INTO store (id, name, quantityProductsInStock)"
+          + " SELECT nextval('store_seq'), t.name, t.quantity FROM unnest(?, ?) AS t(name, quantity)"
+          + " ON CONFLICT (name) DO UPDATE SET quantityProductsInStock = EXCLUDED.quantityProductsInStock"
+          + " RETURNING id, name, quantityProductsInStock, (xmax = 0) AS inserted";
+
+  static final int UPSERT_CHUNK_SIZE = 500;
+
+  // Name order, so concurrent callers lock shared rows in the same order.
+  private static final String LOCK_BY_NAME_SQL =
+      "SELECT name, quantityProductsInStock FROM store WHERE name = ANY(?) ORDER BY name FOR UPDATE";
+
+  // Id order, for the same reason.
+  private static final String LOCK_BY_ID_SQL = "SELECT id FROM store WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+  private static final String DELETE_SQL = "DELETE FROM store WHERE id = ANY(?) RETURNING id, name, quantityProductsInStock";
+
+  @Inject SessionFactory sessionFactory;
+  @Inject TransactionSynchronizationRegistry transactions;
+
+  @ConfigProperty(name = "store.name-cache.max-entries", defaultValue = "10000")
+  int nameCacheSize;
+
+  private NaturalKeyCache nameCache;
+
+  @PostConstruct
+  void init() {
+    nameCache = new NaturalKeyCache(nameCacheSize);
+  }
+
+  /**
+   * Store with the given unique name. The name is resolved to an id through a bounded cache and the
+   * store loaded by id, which the entity cache usually serves.
+   */
+  public Store findByName(String name) {
+    Long id = nameCache.get(name);
+    if (id != null) {
+      Store store = findById(id);
+      if (store != null && name.equals(store.name)) {
+        return store;
+      }
+      // renamed or deleted by a transaction whose invalidation has not run yet
+      nameCache.invalidate(name);
+    }
+    Store store = find("name", name).firstResult();
+    if (store != null) {
+      nameCache.put(name, store.id);
+    }
+    return store;
+  }
+
+  /** Call when {@code name} stops naming a store in the current transaction. */
+  public void nameReleased(String name) {
+    nameCache.invalidateAfterCommit(transactions, name);
+  }
+
+  public NaturalKeyCache.Stats nameCacheStats() {
+    return nameCache.stats();
+  }
+
+  /**
+   * One page of {@code id, name, quantityProductsInStock} rows in (name, id) order, starting after
+   * {@code after}. Reads {@code limit + 1} rows so the caller can tell whether there is a next page.
+   */
+  public List<Object[]> pageRows(StorePageCursor after, int limit) {
+    return rowsAfter(after, limit + 1);
+  }
+
+  /**
+   * Up to {@code limit} {@code id, name, quantityProductsInStock} rows in (name, id) order, starting
+   * after {@code after}, or at the first store when it is {@code null}. The row-value comparison lets
+   * the database start from the position in the name index instead of filtering every row before it.
+   */
+  public List<Object[]> rowsAfter(StorePageCursor after, int limit) {
+    String where = after == null ? "" : " where (s.name, s.id) > (?1, ?2)";
+    var query = getEntityManager().createQuery(ROW_SELECT + where + " order by s.name, s.id", Object[].class)
+        .setMaxResults(limit);
+    if (after != null) {
+      query.setParameter(1, after.name()).setParameter(2, after.id());
+    }
+    return query.getResultList();
+  }
+
+  /** Up to {@code limit} {@code id, name, quantityProductsInStock} rows with an id above {@code afterId}, in id order. */
+  public List<Object[]> rowsAfterId(long afterId, int limit) {
+    return getEntityManager().createQuery(ROW_SELECT + " where s.id > ?1 order by s.id", Object[].class)
+        .setParameter(1, afterId)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  /**
+   * Locks the existing stores with the given names until the end of the transaction and returns
+   * their stock quantities by name, so a following {@link #upsertAll} can tell what it overwrote.
+   */
+  public Map<String, Integer> lockQuantitiesByName(Collection<String> names) {
+    Map<String, Integer> quantities = new HashMap<>();
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(LOCK_BY_NAME_SQL)) {
+        statement.setArray(1, connection.createArrayOf("varchar", names.toArray()));
+        try (ResultSet rows = statement.executeQuery()) {
+          while (rows.next()) {
+            quantities.put(rows.getString(1), rows.getInt(2));
+          }
+        }
+      }
+    });
+    return quantities;
+  }
+
+  /**
+   * Locks the existing stores with the given ids until the end of the transaction. A concurrent
+   * insert referencing one of them then waits, and fails on its foreign key once they are deleted.
+   */
+  public void lockAllById(Collection<Long> ids) {
+    getEntityManager().unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(LOCK_BY_ID_SQL)) {
+        statement.setArray(1, connection.createArrayOf("int8", ids.toArray()));
+        statement.executeQuery().close();
+      }
+    });
+  }
+
+  /**
+   * Inserts or updates stores by their unique name, {@value #UPSERT_CHUNK_SIZE} per statement.
+   * Names must be distinct. Bypasses the persistence context, so updated stores are evicted from
+   * the second-level cache once the transaction commits.
+   */
+  public List<UpsertedStore> upsertAll(List<Store> stores) {
+    List<UpsertedStore> upserted = new ArrayList<>(stores.size());
+    Session session = getEntityManager().unwrap(Session.class);
+    session.doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+        for (int from = 0; from < stores.size(); from += UPSERT_CHUNK_SIZE) {
+          List<Store> chunk = stores.subList(from, Math.min(stores.size(), from + UPSERT_CHUNK_SIZE));
+          String[] names = new String[chunk.size()];
+          Integer[] quantities = new Integer[chunk.size()];
+          for (int i = 0; i < chunk.size(); i++) {
+            names[i] = chunk.get(i).name;
+            quantities[i] = chunk.get(i).quantityProductsInStock;
+          }
+          statement.setArray(1, connection.createArrayOf("varchar", names));
+          statement.setArray(2, connection.createArrayOf("int4", quantities));
+          try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+              upserted.add(new UpsertedStore(rows.getLong(1), rows.getString(2), rows.getInt(3), rows.getBoolean(4)));
+            }
+          }
+        }
+      }
+    });
+    EntityCacheEviction.evictAfterCommit(transactions, sessionFactory, Store.class,
+        upserted.stream().filter(store -> !store.created()).map(UpsertedStore::id).toList());
+    return upserted;
+  }
+
+  /**
+   * Deletes the given stores with one statement and returns the ones that existed. Fulfilments
+   * referencing them must be gone first. Like {@link #upsertAll} this bypasses the persistence
+   * context, so the deleted stores are evicted from the second-level cache and their names released
+   * once the transaction commits.
+   */
+  public List<DeletedStore> deleteAllById(Collection<Long> ids) {
+    List<DeletedStore> deleted = new ArrayList<>(ids.size());
+    Session session = getEntityManager().unwrap(Session.class);
+    session.doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+        statement.setArray(1, connection.createArrayOf("int8", ids.toArray()));
+        try (ResultSet rows = statement.executeQuery()) {
+          while (rows.next()) {
+            deleted.add(new DeletedStore(rows.getLong(1), rows.getString(2), rows.getInt(3)));
+          }
+        }
+      }
+    });
+    EntityCacheEviction.evictAfterCommit(transactions, sessionFactory, Store.class,
+        deleted.stream().map(DeletedStore::id).toList());
+    deleted.forEach(store -> nameReleased(store.name()));
+    return deleted;
+  }
+
+  public record DeletedStore(Long id, String name, int quantityProductsInStock) {}
+
+  public record UpsertedStore(Long id, String name, int quantityProductsInStock, boolean created) {}
+}
@@ -1,5 +1,12 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.common.audit.AuditEvent;
+import com.fulfilment.application.monolith.common.audit.AuditLog;
+import com.fulfilment.application.monolith.common.cache.NaturalKeyCache;
+import com.fulfilment.application.monolith.fulfilment.FulfilmentRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
@@ -7,9 +14,16 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.jboss.logging.Logger;
 
+import java.io.BufferedOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Path("store")
 @ApplicationScoped
@@ -20,22 +34,172 @@ public class StoreResource {
     @Inject
     private Event<StoreLegacySync> storeLegacySyncEvent;
 
+    @Inject
+    private Event<StoreLegacySyncBatch> storeLegacySyncBatchEvent;
+
     @Inject
     private StoreRepository storeRepository;
 
+    @Inject
+    private StoreSyncOutboxRepository storeSyncOutbox;
+
+    @Inject
+    private LegacySyncExecutor legacySyncExecutor;
+
+    @Inject
+    private FulfilmentRepository fulfilmentRepository;
+
+    @Inject
+    private StoreInventoryView storeInventoryView;
+
+    @Inject
+    private AuditLog auditLog;
+
+    @Inject
+    private StoreReconciliation storeReconciliation;
+
+    @Inject
+    private Event<StoresDeleted> storesDeletedEvent;
+
 
     private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_BULK_SIZE = 10_000;
+
+    static final int STREAM_CHUNK_SIZE = 1000;
+
+    private static final String AUDITED_ENTITY = "store";
+
+    @Inject
+    private ObjectMapper objectMapper;
+
     @GET
     public List<Store> get() {
-        LOGGER.info("Getting all stores");
+        LOGGER.debug("Getting all stores");
         return storeRepository.listAll(Sort.by("name"));
     }
 
+    /**
+     * One page of stores in (name, id) order. Pass the returned {@code nextCursor} to get the next
+     * page; it is {@code null} on the last one.
+     */
+    @GET
+    @Path("page")
+    public StorePage page(@QueryParam("limit") @DefaultValue("100") int limit,
+                          @QueryParam("cursor") String cursor,
+                          @QueryParam("fields") String fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE + ".", 400);
+        }
+        StoreProjection projection = StoreProjection.parse(fields);
+        StorePageCursor after = cursor == null || cursor.isEmpty() ? null : StorePageCursor.decode(cursor);
+
+        List<Object[]> rows = storeRepository.pageRows(after, limit);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Object[] last = rows.get(limit - 1);
+            nextCursor = new StorePageCursor((Long) last[0], (String) last[1]).encode();
+        }
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        rows.forEach(row -> items.add(projection.apply(row)));
+        return new StorePage(items, nextCursor);
+    }
+
+    /**
+     * Every store as newline-delimited JSON, in (name, id) order. Stores are read in keyset chunks of
+     * {@value #STREAM_CHUNK_SIZE}, each in its own short transaction, so neither memory use nor the
+     * length of any transaction depends on the number of stores.
+     */
+    @GET
+    @Path("stream")
+    @Produces(NDJSON)
+    public StreamingOutput stream(@QueryParam("fields") String fields) {
+        StoreProjection projection = StoreProjection.parse(fields);
+        return output -> {
+            LOGGER.debug("Streaming all stores");
+            // one generator for the whole stream; rows are buffered and flushed only at the end
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(output, 64 * 1024));
+            generator.setRootValueSeparator(null);
+            StorePageCursor after = null;
+            List<Object[]> rows;
+            do {
+                StorePageCursor from = after;
+                rows = QuarkusTransaction.requiringNew().call(() -> storeRepository.rowsAfter(from, STREAM_CHUNK_SIZE));
+                for (Object[] row : rows) {
+                    generator.writeObject(projection.apply(row));
+                    generator.writeRaw('\n');
+                }
+                if (!rows.isEmpty()) {
+                    Object[] last = rows.get(rows.size() - 1);
+                    after = new StorePageCursor((Long) last[0], (String) last[1]);
+                }
+            } while (rows.size() == STREAM_CHUNK_SIZE);
+            generator.flush();
+        };
+    }
+
+    /**
+     * Products served, serving warehouses and their total stock, from the in-memory inventory view.
+     */
+    @GET
+    @Path("{id}/inventory")
+    public StoreInventory getInventory(Long id) {
+        if (storeRepository.findById(id) == null) {
+            LOGGER.debugf("Store with id %d does not exist.", id);
+            throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
+        }
+        return storeInventoryView.inventoryOf(id);
+    }
+
+    @GET
+    @Path("by-name/{name}")
+    public Store getByName(String name) {
+        Store entity = storeRepository.findByName(name);
+        if (entity == null) {
+            LOGGER.debugf("Store with name %s does not exist.", name);
+            throw new WebApplicationException("Store with name " + name + " does not exist.", 404);
+        }
+        return entity;
+    }
+
+    @GET
+    @Path("name-cache/stats")
+    public NaturalKeyCache.Stats nameCacheStats() {
+        return storeRepository.nameCacheStats();
+    }
+
+    /**
+     * Starts comparing all stores with what the legacy system received, or continues an interrupted
+     * run, and syncs the differences again.
+     */
+    @POST
+    @Path("sync/reconciliation")
+    public Response startReconciliation() {
+        boolean started = storeReconciliation.start();
+        return Response.status(started ? 202 : 409).entity(storeReconciliation.status()).build();
+    }
+
+    @GET
+    @Path("sync/reconciliation")
+    public StoreReconciliation.Status reconciliationStatus() {
+        return storeReconciliation.status();
+    }
+
+    @GET
+    @Path("sync/metrics")
+    public LegacySyncExecutor.Metrics syncMetrics() {
+        return legacySyncExecutor.metrics();
+    }
+
     @GET
     @Path("{id}")
     public Store getSingle(Long id) {
-        LOGGER.infof("Getting single store with id %d", id);
+        LOGGER.debugf("Getting single store with id %d", id);
         Store entity = storeRepository.findById(id);
         if (entity == null) {
             LOGGER.warnf("Store with id %d does not exist.", id);
@@ -47,7 +211,7 @@ public class StoreResource {
     @POST
     @Transactional
     public Response create(Store store) {
-        LOGGER.info("Creating new store");
+        LOGGER.debug("Creating new store");
         if (store.id != null) {
             LOGGER.warn("Id was invalidly set on request.");
             throw new WebApplicationException("Id was invalidly set on request.", 422);
@@ -55,17 +219,63 @@ public class StoreResource {
 
         storeRepository.persist(store);
 
-        storeLegacySyncEvent.fire(new StoreLegacySync(StoreLegacySyncType.CREATE, store.id));
+        storeLegacySyncEvent.fire(StoreLegacySync.of(StoreLegacySyncType.CREATE, store));
+        auditLog.record(AUDITED_ENTITY, store.id, AuditEvent.Action.CREATE, null, StoreState.of(store));
 
-        LOGGER.infof("New store created with id %d", store.id);
+        LOGGER.debugf("New store created with id %d", store.id);
         return Response.ok(store).status(201).build();
     }
 
+    /**
+     * Creates or updates stores by name in one transaction. A name given twice takes the last
+     * entry. Every store written is synced to the legacy system, as one batch.
+     */
+    @POST
+    @Path("bulk")
+    @Transactional
+    public StoreBulkResult bulkUpsert(List<Store> stores) {
+        if (stores == null || stores.isEmpty()) {
+            throw new WebApplicationException("At least one store must be provided.", 422);
+        }
+        if (stores.size() > MAX_BULK_SIZE) {
+            throw new WebApplicationException("At most " + MAX_BULK_SIZE + " stores can be upserted at once.", 422);
+        }
+        Map<String, Store> byName = new LinkedHashMap<>();
+        for (Store store : stores) {
+            if (store == null || store.name == null) {
+                LOGGER.warn("Store Name was not set on request.");
+                throw new WebApplicationException("Store Name was not set on request.", 422);
+            }
+            byName.remove(store.name);
+            byName.put(store.name, store);
+        }
+        LOGGER.debugf("Upserting %d stores", byName.size());
+
+        Map<String, Integer> previousQuantities = storeRepository.lockQuantitiesByName(byName.keySet());
+        List<StoreRepository.UpsertedStore> upserted = storeRepository.upsertAll(new ArrayList<>(byName.values()));
+
+        List<StoreLegacySync> syncs = new ArrayList<>(upserted.size());
+        int created = 0;
+        for (StoreRepository.UpsertedStore store : upserted) {
+            created += store.created() ? 1 : 0;
+            syncs.add(new StoreLegacySync(store.created() ? StoreLegacySyncType.CREATE : StoreLegacySyncType.UPDATE,
+                    store.id(), store.name(), store.quantityProductsInStock()));
+            Integer previousQuantity = previousQuantities.get(store.name());
+            auditLog.record(AUDITED_ENTITY, store.id(), store.created() ? AuditEvent.Action.CREATE : AuditEvent.Action.UPDATE,
+                    previousQuantity == null ? null : new StoreState(store.name(), previousQuantity),
+                    new StoreState(store.name(), store.quantityProductsInStock()));
+        }
+        storeLegacySyncBatchEvent.fire(new StoreLegacySyncBatch(syncs));
+
+        LOGGER.debugf("Upserted %d stores: %d created, %d updated", upserted.size(), created, upserted.size() - created);
+        return new StoreBulkResult(created, upserted.size() - created, upserted);
+    }
+
     @PUT
     @Path("{id}")
     @Transactional
     public Store update(Long id, Store updatedStore) {
-        LOGGER.infof("Updating store with id %d", id);
+        LOGGER.debugf("Updating store with id %d", id);
         if (updatedStore.name == null) {
             LOGGER.warn("Store Name was not set on request.");
             throw new WebApplicationException("Store Name was not set on request.", 422);
@@ -78,14 +288,19 @@ public class StoreResource {
             throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
         }
 
+        StoreState before = StoreState.of(entity);
+        if (!updatedStore.name.equals(entity.name)) {
+            storeRepository.nameReleased(entity.name);
+        }
         entity.name = updatedStore.name;
         entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
         storeRepository.persist(entity);
 
-        storeLegacySyncEvent.fire(new StoreLegacySync(StoreLegacySyncType.UPDATE, entity.id));
+        storeLegacySyncEvent.fire(StoreLegacySync.of(StoreLegacySyncType.UPDATE, entity));
+        auditLog.record(AUDITED_ENTITY, id, AuditEvent.Action.UPDATE, before, StoreState.of(entity));
 
-        LOGGER.infof("Store with id %d updated.", id);
+        LOGGER.debugf("Store with id %d updated.", id);
         return entity;
     }
 
@@ -93,7 +308,7 @@ public class StoreResource {
     @Path("{id}")
     @Transactional
     public Store patch(Long id, Store updatedStore) {
-        LOGGER.infof("Patching store with id %d", id);
+        LOGGER.debugf("Patching store with id %d", id);
         if (updatedStore.name == null) {
             LOGGER.warn("Store Name was not set on request.");
             throw new WebApplicationException("Store Name was not set on request.", 422);
@@ -106,7 +321,11 @@ public class StoreResource {
             throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
         }
 
+        StoreState before = StoreState.of(entity);
         if (entity.name != null) {
+            if (!updatedStore.name.equals(entity.name)) {
+                storeRepository.nameReleased(entity.name);
+            }
             entity.name = updatedStore.name;
         }
 
@@ -116,9 +335,10 @@ public class StoreResource {
 
         storeRepository.persist(entity);
 
-        storeLegacySyncEvent.fire(new StoreLegacySync(StoreLegacySyncType.UPDATE, entity.id));
+        storeLegacySyncEvent.fire(StoreLegacySync.of(StoreLegacySyncType.UPDATE, entity));
+        auditLog.record(AUDITED_ENTITY, id, AuditEvent.Action.UPDATE, before, StoreState.of(entity));
 
-        LOGGER.infof("Store with id %d patched.", id);
+        LOGGER.debugf("Store with id %d patched.", id);
         return entity;
     }
 
@@ -126,14 +346,73 @@ public class StoreResource {
     @Path("{id}")
     @Transactional
     public Response delete(Long id) {
-        LOGGER.infof("Deleting store with id %d", id);
-        Store entity = storeRepository.findById(id);
-        if (entity == null) {
+        LOGGER.debugf("Deleting store with id %d", id);
+        StoreBulkDeleteResult result = deleteStores(List.of(id));
+        if (result.deleted() == 0) {
             LOGGER.warnf("Store with id %d does not exist.", id);
             throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
         }
-        storeRepository.delete(entity);
-        LOGGER.infof("Store with id %d deleted.", id);
+        LOGGER.debugf("Store with id %d deleted with %d fulfilments.", id, Long.valueOf(result.fulfilmentsDeleted()));
         return Response.status(204).build();
     }
+
+    /**
+     * Deletes the given stores and their fulfilments in one transaction. Unknown ids are skipped;
+     * the result lists the stores that were actually deleted.
+     */
+    @POST
+    @Path("bulk-delete")
+    @Transactional
+    public StoreBulkDeleteResult bulkDelete(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new WebApplicationException("At least one store id must be provided.", 422);
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new WebApplicationException("At most " + MAX_BULK_SIZE + " stores can be deleted at once.", 422);
+        }
+        if (ids.contains(null)) {
+            LOGGER.warn("Store id was not set on request.");
+            throw new WebApplicationException("Store id was not set on request.", 422);
+        }
+        LOGGER.debugf("Deleting %d stores", ids.size());
+
+        StoreBulkDeleteResult result = deleteStores(new LinkedHashSet<>(ids));
+
+        LOGGER.debugf("Deleted %d stores with %d fulfilments", result.deleted(), result.fulfilmentsDeleted());
+        return result;
+    }
+
+    // Fulfilments reference the stores, so they go first. Each step is one set-based statement. The
+    // stores are locked before that, so no fulfilment can be added to them in between.
+    private StoreBulkDeleteResult deleteStores(Collection<Long> ids) {
+        storeRepository.lockAllById(ids);
+        long fulfilments = fulfilmentRepository.deleteByStoreIds(ids);
+        List<StoreRepository.DeletedStore> deleted = storeRepository.deleteAllById(ids);
+        // pending changes are moot; the legacy system only needs to hear about the delete
+        storeSyncOutbox.discardPending(ids);
+        if (!deleted.isEmpty()) {
+            storeLegacySyncBatchEvent.fire(new StoreLegacySyncBatch(deleted.stream()
+                    .map(store -> new StoreLegacySync(StoreLegacySyncType.DELETE, store.id(), store.name(), store.quantityProductsInStock()))
+                    .toList()));
+        }
+        storesDeletedEvent.fire(new StoresDeleted(ids));
+        for (StoreRepository.DeletedStore store : deleted) {
+            auditLog.record(AUDITED_ENTITY, store.id(), AuditEvent.Action.DELETE,
+                    new StoreState(store.name(), store.quantityProductsInStock()), null);
+        }
+        return new StoreBulkDeleteResult(deleted.size(), fulfilments, deleted);
+    }
+
+    /** Audited values of a store. */
+    public record StoreState(String name, int quantityProductsInStock) {
+        static StoreState of(Store store) {
+            return new StoreState(store.name, store.quantityProductsInStock);
+        }
+    }
+
+    public record StoreBulkDeleteResult(int deleted, long fulfilmentsDeleted, List<StoreRepository.DeletedStore> stores) {}
+
+    public record StoreBulkResult(int created, int updated, List<StoreRepository.UpsertedStore> stores) {}
+
+    public record StorePage(List<Map<String, Object>> items, String nextCursor) {}
 }
@@ -0,0 +1,149 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends outbox entries to the legacy system in the background.
+ *
+ * <p>Entries carry the state to send, so no store is read here. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, sent in parallel on the {@link LegacySyncExecutor} and settled
+ * in one transaction: sent entries are deleted and recorded in the {@link LegacyStoreDigest},
+ * failed ones stay with an exponentially growing delay, and entries the executor had no room for
+ * stay as they are. Calls that have not answered within {@code call-timeout} count as failed, so
+ * the claim never outlives the transaction. A crash between the legacy call and the commit sends
+ * the entry again, so delivery is at least once.
+ */
+@ApplicationScoped
+public class StoreSyncOutboxDrainer {
+
+  private static final Logger LOG = Logger.getLogger(StoreSyncOutboxDrainer.class);
+
+  static final String TARGET = "legacy-store-manager";
+
+  @Inject StoreSyncOutboxRepository outbox;
+  @Inject LegacyStoreManagerGateway legacy;
+  @Inject LegacySyncExecutor executor;
+  @Inject LegacyStoreDigest digest;
+
+  @ConfigProperty(name = "store.sync.outbox.batch-size", defaultValue = "50")
+  int batchSize;
+
+  @ConfigProperty(name = "store.sync.outbox.initial-backoff", defaultValue = "PT1S")
+  Duration initialBackoff;
+
+  @ConfigProperty(name = "store.sync.outbox.max-backoff", defaultValue = "PT5M")
+  Duration maxBackoff;
+
+  // how long a batch waits for its legacy calls while holding the claimed rows
+  @ConfigProperty(name = "store.sync.outbox.call-timeout", defaultValue = "PT20S")
+  Duration callTimeout;
+
+  @Scheduled(every = "{store.sync.outbox.poll-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void drain() {
+    try {
+      boolean more;
+      do {
+        more = QuarkusTransaction.requiringNew().call(this::drainBatch);
+      } while (more);
+    } catch (RuntimeException e) {
+      LOG.error("Failed to drain the store sync outbox", e);
+    }
+  }
+
+  /**
+   * @return whether another batch may be due right away: this one was full and the executor kept up
+   */
+  boolean drainBatch() {
+    LocalDateTime now = LocalDateTime.now();
+    List<StoreSyncOutboxEntry> entries = outbox.claimDue(now, batchSize);
+    if (entries.isEmpty()) {
+      return false;
+    }
+
+    List<CompletableFuture<Void>> calls = new ArrayList<>(entries.size());
+    for (StoreSyncOutboxEntry entry : entries) {
+      Store store = entry.toStore();
+      StoreLegacySyncType type = entry.type;
+      try {
+        calls.add(executor.submit(TARGET, entry.attempts > 0, () -> send(type, store)));
+      } catch (RejectedExecutionException e) {
+        calls.add(null);
+      }
+    }
+
+    long deadline = System.nanoTime() + callTimeout.toNanos();
+    int sent = 0;
+    int refused = 0;
+    for (int i = 0; i < entries.size(); i++) {
+      StoreSyncOutboxEntry entry = entries.get(i);
+      CompletableFuture<Void> call = calls.get(i);
+      if (call == null) {
+        refused++;
+        if (executor.overflowPolicy() == LegacySyncExecutor.OverflowPolicy.SHED) {
+          LOG.warnf("Legacy sync queue full; dropping %s of store %d", entry.type, entry.storeId);
+          outbox.delete(entry);
+        } else {
+          // spilled: left in the outbox, due again after a short pause
+          entry.availableAt = now.plus(initialBackoff);
+        }
+        continue;
+      }
+      try {
+        call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        sent++;
+        outbox.delete(entry);
+        digest.received(entry.type, entry.storeId, entry.name, entry.quantityProductsInStock);
+      } catch (InterruptedException e) {
+        // shutting down: roll back, so the whole batch is claimed again later
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for legacy sync calls", e);
+      } catch (ExecutionException | TimeoutException e) {
+        // a timed out call may still reach the legacy system; the retry then sends it again
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause()
+            : new TimeoutException("no answer within " + callTimeout);
+        entry.attempts++;
+        entry.availableAt = now.plus(backoff(entry.attempts, initialBackoff, maxBackoff));
+        entry.lastError = truncate(String.valueOf(cause.getMessage()), 500);
+        LOG.warnf("Legacy sync of store %d failed (attempt %d), retrying at %s: %s",
+            entry.storeId, Integer.valueOf(entry.attempts), entry.availableAt, cause.getMessage());
+      }
+    }
+    LOG.debugf("Store sync outbox: %d claimed, %d sent, %d refused",
+        Integer.valueOf(entries.size()), Integer.valueOf(sent), Integer.valueOf(refused));
+    return entries.size() == batchSize && refused == 0;
+  }
+
+  private void send(StoreLegacySyncType type, Store store) {
+    switch (type) {
+      case CREATE -> legacy.createStoreOnLegacySystem(store);
+      case UPDATE -> legacy.updateStoreOnLegacySystem(store);
+      case DELETE -> legacy.deleteStoreOnLegacySystem(store);
+    }
+  }
+
+  /** Delay before the given attempt: {@code initial * 2^(attempts-1)}, capped at {@code max}. */
+  static Duration backoff(int attempts, Duration initial, Duration max) {
+    int shift = Math.min(Math.max(attempts - 1, 0), 30);
+    long millis = initial.toMillis() << shift;
+    return millis <= 0 || millis > max.toMillis() ? max : Duration.ofMillis(millis);
+  }
+
+  private static String truncate(String s, int max) {
+    return s.length() <= max ? s : s.substring(0, max);
+  }
+}
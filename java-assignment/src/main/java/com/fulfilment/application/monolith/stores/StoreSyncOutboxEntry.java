@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * A store change still to be sent to the legacy system. Written in the transaction of the store
+ * write and deleted by {@link StoreSyncOutboxDrainer} once the legacy call succeeded.
+ *
+ * <p>Carries the store state to send. Later changes of the same store are merged into a pending
+ * entry, so its state is always the latest one and its type stays {@code CREATE} until the legacy
+ * system has seen the store.
+ */
+@Entity
+@Table(name = "store_sync_outbox", indexes = {
+    @Index(name = "store_sync_outbox_available_idx", columnList = "availableAt, id"),
+    @Index(name = "store_sync_outbox_store_idx", columnList = "storeId, id")})
+public class StoreSyncOutboxEntry {
+
+  @Id @GeneratedValue public Long id;
+
+  @Column(nullable = false)
+  public Long storeId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16, nullable = false)
+  public StoreLegacySyncType type;
+
+  @Column(length = 40)
+  public String name;
+
+  public int quantityProductsInStock;
+
+  public int attempts;
+
+  // not claimed before this time; pushed back after every failed attempt
+  @Column(nullable = false)
+  public LocalDateTime availableAt;
+
+  public LocalDateTime createdAt;
+
+  @Column(length = 500)
+  public String lastError;
+
+  public StoreSyncOutboxEntry() {}
+
+  public StoreSyncOutboxEntry(StoreLegacySync sync, LocalDateTime now, LocalDateTime availableAt) {
+    this.storeId = sync.storeId();
+    this.type = sync.type();
+    this.name = sync.name();
+    this.quantityProductsInStock = sync.quantityProductsInStock();
+    this.createdAt = now;
+    this.availableAt = availableAt;
+  }
+
+  /** Detached store carrying the state to send. */
+  public Store toStore() {
+    Store store = new Store(name);
+    store.id = storeId;
+    store.quantityProductsInStock = quantityProductsInStock;
+    return store;
+  }
+}
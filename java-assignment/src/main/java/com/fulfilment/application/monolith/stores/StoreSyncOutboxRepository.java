@@ -0,0 +1,69 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@ApplicationScoped
+public class StoreSyncOutboxRepository implements PanacheRepository<StoreSyncOutboxEntry> {
+
+  // Rows locked by another drainer are skipped rather than waited for, so nodes share the work.
+  // Only the oldest entry of each store is due: later ones wait until it is gone, keeping per-store order.
+  private static final String CLAIM_SQL =
+      "SELECT * FROM store_sync_outbox e WHERE e.availableAt <= ?1"
+          + " AND NOT EXISTS (SELECT 1 FROM store_sync_outbox p WHERE p.storeId = e.storeId AND p.id < e.id)"
+          + " ORDER BY e.id LIMIT ?2 FOR UPDATE SKIP LOCKED";
+
+  // Newest entry of the store that no drainer is sending right now; the type is kept, so a
+  // pending CREATE stays a CREATE.
+  private static final String MERGE_SQL =
+      "UPDATE store_sync_outbox SET name = ?2, quantityProductsInStock = ?3"
+          + " WHERE id = (SELECT id FROM store_sync_outbox WHERE storeId = ?1 ORDER BY id DESC LIMIT 1 FOR UPDATE SKIP LOCKED)";
+
+  /**
+   * Merges the state carried by {@code sync} into the pending entry of its store, if there is one
+   * not being sent.
+   *
+   * @return {@code false} when a new entry is needed
+   */
+  public boolean mergeIntoPending(StoreLegacySync sync) {
+    return getEntityManager().createNativeQuery(MERGE_SQL)
+        .setParameter(1, sync.storeId())
+        .setParameter(2, sync.name())
+        .setParameter(3, sync.quantityProductsInStock())
+        .executeUpdate() > 0;
+  }
+
+  /** Drops pending entries of a store, e.g. because it was deleted. */
+  public long discardPending(Long storeId) {
+    return delete("storeId", storeId);
+  }
+
+  public long discardPending(Collection<Long> storeIds) {
+    return delete("storeId in ?1", storeIds);
+  }
+
+  /** The stores among {@code storeIds} that have a sync pending. */
+  public Set<Long> pendingStoreIds(Collection<Long> storeIds) {
+    return new HashSet<>(getEntityManager()
+        .createQuery("select distinct e.storeId from StoreSyncOutboxEntry e where e.storeId in ?1", Long.class)
+        .setParameter(1, storeIds)
+        .getResultList());
+  }
+
+  /**
+   * Locks up to {@code limit} due entries until the current transaction ends.
+   */
+  @SuppressWarnings("unchecked")
+  public List<StoreSyncOutboxEntry> claimDue(LocalDateTime now, int limit) {
+    return getEntityManager().createNativeQuery(CLAIM_SQL, StoreSyncOutboxEntry.class)
+        .setParameter(1, now)
+        .setParameter(2, limit)
+        .getResultList();
+  }
+}
@@ -0,0 +1,6 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.Collection;
+
+/** Fired when stores are deleted, together with all of their fulfilments. */
+public record StoresDeleted(Collection<Long> storeIds) {}
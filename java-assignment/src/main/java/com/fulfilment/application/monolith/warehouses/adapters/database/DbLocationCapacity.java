@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Capacity taken up by the active warehouses of one location. Only ever changed with relative
+ * updates by {@link LocationCapacityRepository}, in the transaction of the warehouse write.
+ */
+@Entity
+@Table(name = "location_capacity")
+public class DbLocationCapacity {
+
+  @Id
+  public String location;
+
+  public long reservedCapacity;
+
+  public int activeWarehouses;
+
+  // bumped by every update, so in-memory copies can tell which of two states is newer
+  public long revision;
+
+  public DbLocationCapacity() {}
+}
@@ -0,0 +1,153 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.common.AfterCommit;
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationCapacityLedger;
+import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseError;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-location capacity ledger.
+ *
+ * <p>The {@code location_capacity} table is the authority: every {@link WarehouseChange} applies a
+ * relative update to it inside the transaction of the warehouse write, and an increase is made
+ * conditional on staying within {@link Location#maxCapacity}, so the cap holds across JVMs. The
+ * in-memory totals are copies of table rows, taken from the update itself once it commits and from
+ * a periodic re-read, which picks up writes made by other nodes. Each row carries a revision bumped
+ * by every update, and a copy only replaces an older one, so a re-read racing with a commit cannot
+ * lose or double count it.
+ */
+@ApplicationScoped
+public class LocationCapacityRepository implements LocationCapacityLedger, PanacheRepositoryBase<DbLocationCapacity, String> {
+
+    private static final Logger LOG = Logger.getLogger(LocationCapacityRepository.class);
+
+    private static final String ENSURE_ROW_SQL =
+            "INSERT INTO location_capacity (location, reservedCapacity, activeWarehouses, revision) VALUES (?1, 0, 0, 0)"
+                    + " ON CONFLICT (location) DO NOTHING";
+
+    // Decreases always apply; increases only while the location stays within its cap.
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE location_capacity SET reservedCapacity = reservedCapacity + ?, activeWarehouses = activeWarehouses + ?,"
+                    + " revision = revision + 1"
+                    + " WHERE location = ? AND (? <= 0 OR reservedCapacity + ? <= ?)"
+                    + " RETURNING reservedCapacity, activeWarehouses, revision";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO location_capacity (location, reservedCapacity, activeWarehouses, revision)"
+                    + " SELECT location, SUM(capacity), COUNT(*), 0 FROM warehouse WHERE archivedAt IS NULL GROUP BY location"
+                    + " ON CONFLICT (location) DO UPDATE"
+                    + " SET reservedCapacity = EXCLUDED.reservedCapacity, activeWarehouses = EXCLUDED.activeWarehouses,"
+                    + " revision = location_capacity.revision + 1";
+
+    private static final String CLEAR_EMPTY_SQL =
+            "UPDATE location_capacity SET reservedCapacity = 0, activeWarehouses = 0, revision = revision + 1"
+                    + " WHERE location NOT IN (SELECT location FROM warehouse WHERE archivedAt IS NULL)";
+
+    @Inject
+    LocationGateway locationGateway;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+
+    void onStart(@Observes StartupEvent event) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            // Block ledger writers while the totals are recomputed from the warehouse table.
+            getEntityManager().createNativeQuery("LOCK TABLE location_capacity IN EXCLUSIVE MODE").executeUpdate();
+            getEntityManager().createNativeQuery(REBUILD_SQL).executeUpdate();
+            getEntityManager().createNativeQuery(CLEAR_EMPTY_SQL).executeUpdate();
+        });
+        refresh();
+        LOG.infof("Capacity ledger rebuilt for %d locations", totals.size());
+    }
+
+    @Scheduled(every = "{warehouse.capacity-ledger.refresh-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refresh() {
+        List<DbLocationCapacity> rows = QuarkusTransaction.requiringNew().call(this::listAll);
+        for (DbLocationCapacity row : rows) {
+            apply(row.location, new Totals(row.reservedCapacity, row.activeWarehouses, row.revision));
+        }
+    }
+
+    @Override
+    public long reservedCapacity(String location) {
+        Totals t = totals.get(location);
+        return t == null ? 0 : t.reserved();
+    }
+
+    @Override
+    public int activeWarehouses(String location) {
+        Totals t = totals.get(location);
+        return t == null ? 0 : t.active();
+    }
+
+    /**
+     * Books the change in the current transaction. Fails the write with 422 when it would take the
+     * location over its capacity.
+     */
+    void book(@Observes WarehouseChange change) {
+        WarehouseDTO warehouse = change.warehouse();
+        boolean created = change.type() == WarehouseChange.Type.CREATED;
+        long delta = created ? capacityOf(warehouse) : -capacityOf(warehouse);
+        Location location = locationGateway.resolveByIdentifier(warehouse.location);
+        long max = location == null ? Long.MAX_VALUE : location.maxCapacity;
+
+        getEntityManager().createNativeQuery(ENSURE_ROW_SQL).setParameter(1, warehouse.location).executeUpdate();
+        Totals[] updated = new Totals[1];
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(APPLY_DELTA_SQL)) {
+                statement.setLong(1, delta);
+                statement.setInt(2, created ? 1 : -1);
+                statement.setString(3, warehouse.location);
+                statement.setLong(4, delta);
+                statement.setLong(5, delta);
+                statement.setLong(6, max);
+                try (ResultSet row = statement.executeQuery()) {
+                    if (row.next()) {
+                        updated[0] = new Totals(row.getLong(1), row.getInt(2), row.getLong(3));
+                    }
+                }
+            }
+        });
+        if (updated[0] == null) {
+            LOG.debugf("Capacity %d would exceed the capacity of location %s (max %d)", Long.valueOf(delta), warehouse.location, Long.valueOf(max));
+            throw WarehouseError.LOCATION_CAPACITY_EXCEEDED.exception(
+                    "Location capacity exceeded for location: " + warehouse.location
+                            + ". max=" + max + ", reserved=" + reservedCapacity(warehouse.location) + ", requested=" + delta);
+        }
+
+        // the row stays locked until commit, so this is the state the commit makes visible
+        Totals booked = updated[0];
+        AfterCommit.run(transactions, () -> apply(warehouse.location, booked));
+    }
+
+    private void apply(String location, Totals read) {
+        totals.merge(location, read, (current, candidate) -> candidate.revision() > current.revision() ? candidate : current);
+    }
+
+    private static long capacityOf(WarehouseDTO warehouse) {
+        return warehouse.capacity == null ? 0 : warehouse.capacity;
+    }
+
+    private record Totals(long reserved, int active, long revision) {}
+}
@@ -0,0 +1,112 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseWriteGuard;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Two-level write guard for warehouse mutations.
+ *
+ * <p>Inside this JVM, writers queue on a fixed set of lock stripes selected by key hash, so they
+ * wait without holding a database connection. Across JVMs, a Postgres transaction-scoped advisory
+ * lock is taken per key, which is what actually makes the checks safe. Both levels are acquired in
+ * ascending order to rule out deadlocks between writers touching several keys.
+ *
+ * <p>When an outer transaction is already active, the stripes are released as soon as the action
+ * returns while the advisory locks are held until that outer transaction commits.
+ */
+@ApplicationScoped
+public class StripedWarehouseWriteGuard implements WarehouseWriteGuard {
+
+    private static final Logger LOG = Logger.getLogger(StripedWarehouseWriteGuard.class);
+
+    private static final int STRIPES = 1024;
+
+    private static final String LOCATION_PREFIX = "warehouse-location:";
+    private static final String BUSINESS_UNIT_PREFIX = "warehouse-bu:";
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    @Inject
+    EntityManager entityManager;
+
+    public StripedWarehouseWriteGuard() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <T> T callExclusive(Collection<String> locations, Collection<String> businessUnitCodes, Supplier<T> action) {
+        TreeSet<Long> keys = new TreeSet<>();
+        addKeys(keys, LOCATION_PREFIX, locations);
+        addKeys(keys, BUSINESS_UNIT_PREFIX, businessUnitCodes);
+
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (long key : keys) {
+            stripeIndexes.add(stripeIndex(key));
+        }
+
+        int[] acquired = new int[stripeIndexes.size()];
+        int count = 0;
+        try {
+            for (int index : stripeIndexes) {
+                stripes[index].lock();
+                acquired[count++] = index;
+            }
+            return QuarkusTransaction.joiningExisting().call(() -> {
+                for (long key : keys) {
+                    acquireAdvisoryLock(key);
+                }
+                return action.get();
+            });
+        } finally {
+            for (int i = count - 1; i >= 0; i--) {
+                stripes[acquired[i]].unlock();
+            }
+        }
+    }
+
+    private void acquireAdvisoryLock(long key) {
+        LOG.debugf("Acquiring advisory lock %d", key);
+        entityManager.createNativeQuery("SELECT count(*) FROM (SELECT pg_advisory_xact_lock(?1)) AS l")
+                .setParameter(1, key)
+                .getSingleResult();
+    }
+
+    private static void addKeys(TreeSet<Long> keys, String prefix, Collection<String> values) {
+        if (values == null) {
+            return;
+        }
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                keys.add(lockKey(prefix + value));
+            }
+        }
+    }
+
+    private static int stripeIndex(long key) {
+        return (int) (key ^ (key >>> 32)) & (STRIPES - 1);
+    }
+
+    /**
+     * Stable 64-bit FNV-1a hash, so every JVM maps a key to the same advisory lock.
+     */
+    static long lockKey(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
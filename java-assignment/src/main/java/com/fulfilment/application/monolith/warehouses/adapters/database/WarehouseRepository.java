@@ -1,30 +1,100 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.common.audit.AuditEvent;
+import com.fulfilment.application.monolith.common.audit.AuditLog;
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementContext;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchCriteria;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchResult;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import org.jboss.logging.Logger;
 
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
     private static final Logger LOG = Logger.getLogger(WarehouseRepository.class);
 
+    private static final String AUDITED_ENTITY = "warehouse";
+
+    private static final String REPLACEMENT_CONTEXT_QUERY =
+            "select w.id, w.businessUnitCode, w.location, w.capacity, w.stock, w.createdAt,"
+                    + " (select count(t) from DbWarehouse t where t.archivedAt is null and t.location = ?2"
+                    + " and t.businessUnitCode <> w.businessUnitCode)"
+                    + " from DbWarehouse w where w.businessUnitCode = ?1 and w.archivedAt is null";
+
+    // Archives the current row and inserts its replacement in one round trip; returns the new id.
+    private static final String REPLACE_SQL =
+            "WITH archived AS ("
+                    + " UPDATE warehouse SET archivedAt = :archivedAt"
+                    + " WHERE id = :currentId AND archivedAt IS NULL RETURNING id)"
+                    + " INSERT INTO warehouse (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)"
+                    + " SELECT nextval('warehouse_seq'), :businessUnitCode, :location, :capacity, :stock, :createdAt, NULL"
+                    + " FROM archived RETURNING id";
+
+    private static final String ARCHIVE_BATCH_SQL =
+            "UPDATE warehouse SET archivedAt = ? WHERE id = ANY(?) AND archivedAt IS NULL";
+
+    private static final String INSERT_BATCH_SQL =
+            "INSERT INTO warehouse (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)"
+                    + " SELECT nextval('warehouse_seq'), r.businessUnitCode, r.location, r.capacity, r.stock, r.createdAt, NULL"
+                    + " FROM unnest(?::text[], ?::text[], ?::int[], ?::int[], ?::timestamp[])"
+                    + " AS r(businessUnitCode, location, capacity, stock, createdAt)"
+                    + " RETURNING id, businessUnitCode";
+
+    @Inject
+    Event<WarehouseChange> warehouseChanges;
+
+    @Inject
+    AuditLog auditLog;
+
+    /**
+     * Audits every warehouse write through the change events it already fires. Archiving is the
+     * delete of a warehouse row, so a replacement shows as the delete of the old row and the create
+     * of the new one.
+     */
+    void audit(@Observes WarehouseChange change) {
+        WarehouseDTO warehouse = change.warehouse();
+        if (change.type() == WarehouseChange.Type.CREATED) {
+            auditLog.record(AUDITED_ENTITY, warehouse.id, AuditEvent.Action.CREATE, null, warehouse);
+        } else {
+            auditLog.record(AUDITED_ENTITY, warehouse.id, AuditEvent.Action.DELETE, warehouse, null);
+        }
+    }
+
     @Override
     public List<WarehouseDTO> getAll() {
-        LOG.info("Fetching all active warehouses");
+        LOG.debug("Fetching all active warehouses");
         return this.list("archivedAt is null").stream().map(DbWarehouse::toWarehouse).toList();
     }
 
     @Override
     @Transactional
     public void create(WarehouseDTO warehouse) {
-        LOG.infof("Creating warehouse entity for business unit code: %s", warehouse.businessUnitCode);
+        LOG.debugf("Creating warehouse entity for business unit code: %s", warehouse.businessUnitCode);
         DbWarehouse entity = new DbWarehouse();
         entity.businessUnitCode = warehouse.businessUnitCode;
         entity.location = warehouse.location;
@@ -35,12 +105,14 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
         entity.archivedAt = null;
 
         persist(entity);
-        LOG.infof("Successfully persisted new warehouse for business unit code: %s", warehouse.businessUnitCode);
+        warehouse.id = entity.id;
+        warehouseChanges.fire(WarehouseChange.created(entity.toWarehouse()));
+        LOG.debugf("Successfully persisted new warehouse for business unit code: %s", warehouse.businessUnitCode);
     }
 
     @Override
     public void update(WarehouseDTO warehouse) {
-        LOG.infof("Updating warehouse entity for business unit code: %s", warehouse.businessUnitCode);
+        LOG.debugf("Updating warehouse entity for business unit code: %s", warehouse.businessUnitCode);
         DbWarehouse entity =
                 find("businessUnitCode = ?1 and archivedAt is null", warehouse.businessUnitCode).firstResult();
 
@@ -50,16 +122,23 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
                     "Active warehouse not found for businessUnitCode=" + warehouse.businessUnitCode);
         }
 
+        // listeners book what was active, not the values written into the archived row
+        WarehouseDTO archived = entity.toWarehouse();
         entity.location = warehouse.location;
         entity.capacity = warehouse.capacity;
         entity.stock = warehouse.stock;
         entity.archivedAt = (warehouse.archivedAt != null) ? warehouse.archivedAt : LocalDateTime.now();
-        LOG.infof("Successfully updated warehouse for business unit code: %s", warehouse.businessUnitCode);
+        archived.archivedAt = entity.archivedAt;
+        // Flush now: Hibernate orders inserts before updates, and a replacement row for the same BU code
+        // would otherwise hit the partial unique index on active business unit codes.
+        flush();
+        warehouseChanges.fire(WarehouseChange.archived(archived));
+        LOG.debugf("Successfully updated warehouse for business unit code: %s", warehouse.businessUnitCode);
     }
 
     @Override
     public void remove(WarehouseDTO warehouse) {
-        LOG.infof("Archiving warehouse entity for business unit code: %s", warehouse.businessUnitCode);
+        LOG.debugf("Archiving warehouse entity for business unit code: %s", warehouse.businessUnitCode);
         DbWarehouse entity =
                 find("businessUnitCode = ?1 and archivedAt is null", warehouse.businessUnitCode).firstResult();
 
@@ -70,14 +149,251 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
         }
 
         entity.archivedAt = LocalDateTime.now();
-        LOG.infof("Successfully archived warehouse for business unit code: %s", warehouse.businessUnitCode);
+        warehouseChanges.fire(WarehouseChange.archived(entity.toWarehouse()));
+        LOG.debugf("Successfully archived warehouse for business unit code: %s", warehouse.businessUnitCode);
     }
 
     @Override
     public WarehouseDTO findByBusinessUnitCode(String buCode) {
-        LOG.infof("Fetching active warehouse for business unit code: %s", buCode);
+        LOG.debugf("Fetching active warehouse for business unit code: %s", buCode);
         DbWarehouse entity =
                 find("businessUnitCode = ?1 and archivedAt is null", buCode).firstResult();
         return entity == null ? null : entity.toWarehouse();
     }
+
+    @Override
+    public ReplacementContext loadReplacementContext(String buCode, String targetLocation) {
+        LOG.debugf("Loading replacement context for business unit code: %s", buCode);
+        List<Object[]> rows = getEntityManager()
+                .createQuery(REPLACEMENT_CONTEXT_QUERY, Object[].class)
+                .setParameter(1, buCode)
+                .setParameter(2, targetLocation)
+                .setMaxResults(1)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return new ReplacementContext(null, 0);
+        }
+
+        Object[] row = rows.get(0);
+        WarehouseDTO current = new WarehouseDTO();
+        current.id = (Long) row[0];
+        current.businessUnitCode = (String) row[1];
+        current.location = (String) row[2];
+        current.capacity = (Integer) row[3];
+        current.stock = (Integer) row[4];
+        current.createdAt = (LocalDateTime) row[5];
+        return new ReplacementContext(current, (Long) row[6]);
+    }
+
+    @Override
+    @Transactional
+    public void replace(WarehouseDTO current, WarehouseDTO replacement) {
+        LOG.debugf("Replacing warehouse %d for business unit code: %s", current.id, replacement.businessUnitCode);
+        LocalDateTime archivedAt = (current.archivedAt != null) ? current.archivedAt : LocalDateTime.now();
+        LocalDateTime createdAt = (replacement.createdAt != null) ? replacement.createdAt : archivedAt;
+
+        List<?> ids = getEntityManager().createNativeQuery(REPLACE_SQL)
+                .setParameter("archivedAt", archivedAt)
+                .setParameter("currentId", current.id)
+                .setParameter("businessUnitCode", replacement.businessUnitCode)
+                .setParameter("location", replacement.location)
+                .setParameter("capacity", replacement.capacity)
+                .setParameter("stock", replacement.stock)
+                .setParameter("createdAt", createdAt)
+                .getResultList();
+
+        if (ids.isEmpty()) {
+            LOG.warnf("No active warehouse %d found to replace for business unit code: %s", current.id, replacement.businessUnitCode);
+            throw new IllegalStateException(
+                    "Active warehouse not found for businessUnitCode=" + replacement.businessUnitCode);
+        }
+
+        // The statement bypasses the persistence context, so drop the cached copy of the archived row.
+        getEntityManager().getEntityManagerFactory().getCache().evict(DbWarehouse.class, current.id);
+
+        current.archivedAt = archivedAt;
+        replacement.id = ((Number) ids.get(0)).longValue();
+        replacement.createdAt = createdAt;
+        replacement.archivedAt = null;
+        warehouseChanges.fire(WarehouseChange.archived(copyOf(current)));
+        warehouseChanges.fire(WarehouseChange.created(copyOf(replacement)));
+        LOG.debugf("Successfully replaced warehouse for business unit code: %s with id %d", replacement.businessUnitCode, replacement.id);
+    }
+
+    @Override
+    public List<WarehouseDTO> findActiveByBusinessUnitCodes(Collection<String> buCodes) {
+        if (buCodes.isEmpty()) {
+            return List.of();
+        }
+        List<DbWarehouse> entities = list("businessUnitCode in ?1 and archivedAt is null", buCodes);
+        // Callers go on to archive these rows with plain SQL; keep no managed copies around.
+        entities.forEach(getEntityManager()::detach);
+        return entities.stream().map(DbWarehouse::toWarehouse).toList();
+    }
+
+    @Override
+    public Map<String, Long> countActiveByLocations(Collection<String> locations) {
+        Map<String, Long> counts = new HashMap<>();
+        if (locations.isEmpty()) {
+            return counts;
+        }
+        getEntityManager()
+                .createQuery("select w.location, count(w) from DbWarehouse w"
+                        + " where w.archivedAt is null and w.location in ?1 group by w.location", Object[].class)
+                .setParameter(1, locations)
+                .getResultList()
+                .forEach(row -> counts.put((String) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    @Override
+    @Transactional
+    public void replaceAll(List<WarehouseDTO> currents, List<WarehouseDTO> replacements) {
+        if (replacements.isEmpty()) {
+            return;
+        }
+        LOG.debugf("Replacing %d warehouses in one batch", replacements.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        EntityManager entityManager = getEntityManager();
+        entityManager.flush();
+        Map<String, Long> newIds = new HashMap<>();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            archiveBatch(connection, currents, now);
+            insertBatch(connection, replacements, now, newIds);
+        });
+
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (WarehouseDTO current : currents) {
+            cache.evict(DbWarehouse.class, current.id);
+            current.archivedAt = now;
+        }
+        for (WarehouseDTO replacement : replacements) {
+            replacement.id = newIds.get(replacement.businessUnitCode);
+            replacement.createdAt = (replacement.createdAt != null) ? replacement.createdAt : now;
+            replacement.archivedAt = null;
+        }
+        currents.forEach(current -> warehouseChanges.fire(WarehouseChange.archived(copyOf(current))));
+        replacements.forEach(replacement -> warehouseChanges.fire(WarehouseChange.created(copyOf(replacement))));
+        LOG.debugf("Successfully replaced %d warehouses", replacements.size());
+    }
+
+    // Events are delivered after commit; hand observers a copy the caller can no longer mutate.
+    private static WarehouseDTO copyOf(WarehouseDTO warehouse) {
+        WarehouseDTO copy = new WarehouseDTO();
+        copy.id = warehouse.id;
+        copy.businessUnitCode = warehouse.businessUnitCode;
+        copy.location = warehouse.location;
+        copy.capacity = warehouse.capacity;
+        copy.stock = warehouse.stock;
+        copy.createdAt = warehouse.createdAt;
+        copy.archivedAt = warehouse.archivedAt;
+        return copy;
+    }
+
+    private static void archiveBatch(Connection connection, List<WarehouseDTO> currents, LocalDateTime now)
+            throws SQLException {
+        Long[] ids = currents.stream().map(w -> w.id).toArray(Long[]::new);
+        try (PreparedStatement statement = connection.prepareStatement(ARCHIVE_BATCH_SQL)) {
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            statement.setArray(2, connection.createArrayOf("bigint", ids));
+            int archived = statement.executeUpdate();
+            if (archived != ids.length) {
+                LOG.warnf("Expected to archive %d warehouses but archived %d", ids.length, archived);
+                throw new IllegalStateException(
+                        "Expected " + ids.length + " active warehouses to archive, found " + archived);
+            }
+        }
+    }
+
+    private static void insertBatch(Connection connection, List<WarehouseDTO> replacements, LocalDateTime now,
+                                    Map<String, Long> newIds) throws SQLException {
+        int size = replacements.size();
+        String[] codes = new String[size];
+        String[] locations = new String[size];
+        Integer[] capacities = new Integer[size];
+        Integer[] stocks = new Integer[size];
+        Timestamp[] createdAts = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            WarehouseDTO replacement = replacements.get(i);
+            codes[i] = replacement.businessUnitCode;
+            locations[i] = replacement.location;
+            capacities[i] = replacement.capacity;
+            stocks[i] = replacement.stock;
+            createdAts[i] = Timestamp.valueOf(replacement.createdAt != null ? replacement.createdAt : now);
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BATCH_SQL)) {
+            statement.setArray(1, array(connection, "text", codes));
+            statement.setArray(2, array(connection, "text", locations));
+            statement.setArray(3, array(connection, "int4", capacities));
+            statement.setArray(4, array(connection, "int4", stocks));
+            statement.setArray(5, array(connection, "timestamp", createdAts));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    newIds.put(rows.getString(2), rows.getLong(1));
+                }
+            }
+        }
+    }
+
+    private static Array array(Connection connection, String type, Object[] values) throws SQLException {
+        return connection.createArrayOf(type, values);
+    }
+
+    @Override
+    public WarehouseSearchResult search(WarehouseSearchCriteria criteria) {
+        // Ordered and resumed from the partial index warehouse_active_<sort>_idx (<sort>, id); a location
+        // prefix alone is matched through warehouse_active_location_prefix_idx (text_pattern_ops).
+        StringBuilder query = new StringBuilder("archivedAt is null");
+        Map<String, Object> params = new HashMap<>();
+
+        if (criteria.locationPrefix != null && !criteria.locationPrefix.isEmpty()) {
+            query.append(" and location like :locationPrefix escape '!'");
+            params.put("locationPrefix", escapeLike(criteria.locationPrefix) + "%");
+        }
+        appendRange(query, params, "capacity", criteria.minCapacity, criteria.maxCapacity);
+        appendRange(query, params, "stock", criteria.minStock, criteria.maxStock);
+        if (criteria.utilizationAbove != null) {
+            query.append(" and stock * 100.0 > :utilizationAbove * capacity");
+            params.put("utilizationAbove", criteria.utilizationAbove);
+        }
+
+        String column = criteria.sort.property;
+        if (criteria.cursor != null && !criteria.cursor.isEmpty()) {
+            WarehouseSearchCursor cursor = WarehouseSearchCursor.decode(criteria.cursor, criteria.sort);
+            String op = criteria.descending ? "<" : ">";
+            // row comparison, so the index scan starts at the cursor instead of filtering up to it
+            query.append(" and (").append(column).append(", id) ").append(op).append(" (:cursorValue, :cursorId)");
+            params.put("cursorValue", cursor.value());
+            params.put("cursorId", cursor.id());
+        }
+
+        Sort.Direction direction = criteria.descending ? Sort.Direction.Descending : Sort.Direction.Ascending;
+        List<DbWarehouse> rows = find(query.toString(), Sort.by(column, direction).and("id", direction), params)
+                .page(Page.ofSize(criteria.limit + 1))
+                .list();
+
+        String nextCursor = null;
+        if (rows.size() > criteria.limit) {
+            rows = rows.subList(0, criteria.limit);
+            nextCursor = WarehouseSearchCursor.of(rows.get(rows.size() - 1), criteria.sort).encode();
+        }
+        return new WarehouseSearchResult(rows.stream().map(DbWarehouse::toWarehouse).toList(), nextCursor);
+    }
+
+    private static void appendRange(StringBuilder query, Map<String, Object> params, String column, Integer min, Integer max) {
+        if (min != null) {
+            query.append(" and ").append(column).append(" >= :min_").append(column);
+            params.put("min_" + column, min);
+        }
+        if (max != null) {
+            query.append(" and ").append(column).append(" <= :max_").append(column);
+            params.put("max_" + column, max);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
 }
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.InvalidSearchCursorException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchCriteria.SortField;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of a search page: the sort value and id of the last row returned. Encoded as
+ * url-safe base64 of {@code id:sortProperty:value} so clients treat it as opaque.
+ */
+record WarehouseSearchCursor(long id, SortField sort, Object value) {
+
+    static WarehouseSearchCursor of(DbWarehouse last, SortField sort) {
+        Object value = switch (sort) {
+            case LOCATION -> last.location;
+            case CAPACITY -> last.capacity;
+            case STOCK -> last.stock;
+            case BUSINESS_UNIT_CODE -> last.businessUnitCode;
+        };
+        return new WarehouseSearchCursor(last.id, sort, value);
+    }
+
+    String encode() {
+        String raw = id + ":" + sort.property + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static WarehouseSearchCursor decode(String cursor, SortField expectedSort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !expectedSort.property.equals(parts[1])) {
+                throw new IllegalArgumentException("cursor does not match sort " + expectedSort.property);
+            }
+            Object value = switch (expectedSort) {
+                case CAPACITY, STOCK -> Integer.valueOf(parts[2]);
+                case LOCATION, BUSINESS_UNIT_CODE -> parts[2];
+            };
+            return new WarehouseSearchCursor(Long.parseLong(parts[0]), expectedSort, value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCursorException(cursor);
+        }
+    }
+}
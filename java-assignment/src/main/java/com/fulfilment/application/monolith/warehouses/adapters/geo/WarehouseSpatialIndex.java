@@ -0,0 +1,111 @@
+package com.fulfilment.application.monolith.warehouses.adapters.geo;
+
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseChange;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.NearbyWarehouseFinder;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of active warehouses.
+ *
+ * <p>Locations come from the k-d tree of the current location catalog snapshot, so a catalog reload
+ * is picked up by the next query; active warehouses are bucketed per location.
+ * A nearest query walks locations outwards from the point and collects matching warehouses until it
+ * has {@code k}, so its cost depends on how many locations it has to pass, not on the total number
+ * of warehouses. The buckets are loaded once at startup and then follow committed
+ * {@link WarehouseChange} events.
+ */
+@ApplicationScoped
+public class WarehouseSpatialIndex implements NearbyWarehouseFinder {
+
+    private static final Logger LOG = Logger.getLogger(WarehouseSpatialIndex.class);
+
+    private static final Comparator<WarehouseDTO> BY_BUSINESS_UNIT_CODE =
+            Comparator.comparing(w -> w.businessUnitCode);
+
+    @Inject
+    LocationGateway locationGateway;
+
+    @Inject
+    WarehouseStore warehouseStore;
+
+    // location -> business unit code -> active warehouse
+    private final Map<String, Map<String, WarehouseDTO>> activeByLocation = new ConcurrentHashMap<>();
+
+    void onStart(@Observes StartupEvent event) {
+        List<WarehouseDTO> active = QuarkusTransaction.requiringNew().call(warehouseStore::getAll);
+        active.forEach(this::add);
+        LOG.infof("Spatial index loaded %d active warehouses at %d locations", active.size(), activeByLocation.size());
+    }
+
+    void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChange change) {
+        switch (change.type()) {
+            case CREATED -> add(change.warehouse());
+            case ARCHIVED -> remove(change.warehouse());
+        }
+    }
+
+    @Override
+    public List<NearbyWarehouse> nearest(double latitude, double longitude, int k, int minFreeCapacity) {
+        List<NearbyWarehouse> result = new ArrayList<>(k);
+        if (k <= 0) {
+            return result;
+        }
+        locationGateway.catalog().spatialIndex().visitNearest(latitude, longitude, (location, distanceKm) -> {
+            Map<String, WarehouseDTO> bucket = activeByLocation.get(location.identification);
+            if (bucket == null || bucket.isEmpty()) {
+                return true;
+            }
+            List<WarehouseDTO> matches = new ArrayList<>(bucket.size());
+            for (WarehouseDTO warehouse : bucket.values()) {
+                if (freeCapacity(warehouse) >= minFreeCapacity) {
+                    matches.add(warehouse);
+                }
+            }
+            matches.sort(BY_BUSINESS_UNIT_CODE);
+            for (WarehouseDTO warehouse : matches) {
+                result.add(new NearbyWarehouse(warehouse, distanceKm));
+                if (result.size() == k) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return result;
+    }
+
+    private void add(WarehouseDTO warehouse) {
+        activeByLocation.computeIfAbsent(warehouse.location, l -> new ConcurrentHashMap<>())
+                .put(warehouse.businessUnitCode, warehouse);
+    }
+
+    private void remove(WarehouseDTO warehouse) {
+        Map<String, WarehouseDTO> bucket = activeByLocation.get(warehouse.location);
+        if (bucket != null) {
+            // Only drop the entry if it is still this row; its replacement may already be indexed.
+            bucket.computeIfPresent(warehouse.businessUnitCode,
+                    (code, indexed) -> indexed.id != null && indexed.id.equals(warehouse.id) ? null : indexed);
+        }
+    }
+
+    private static int freeCapacity(WarehouseDTO warehouse) {
+        int capacity = warehouse.capacity == null ? 0 : warehouse.capacity;
+        int stock = warehouse.stock == null ? 0 : warehouse.stock;
+        return capacity - stock;
+    }
+}
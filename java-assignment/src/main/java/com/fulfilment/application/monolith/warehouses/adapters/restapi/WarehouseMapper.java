@@ -1,15 +1,26 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
 import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementOutcome;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchResult;
+import com.warehouse.api.beans.BulkReplacementResult;
+import com.warehouse.api.beans.ReplacementResult;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseSearchPage;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.List;
+
 @ApplicationScoped
 public class WarehouseMapper {
 
     public Warehouse toWarehouseResponse(WarehouseDTO warehouse) {
         var response = new Warehouse();
+        if (warehouse.id != null) {
+            response.setId(String.valueOf(warehouse.id));
+        }
         response.setBusinessUnitCode(warehouse.businessUnitCode);
         response.setLocation(warehouse.location);
         response.setCapacity(warehouse.capacity);
@@ -35,4 +46,36 @@ public class WarehouseMapper {
         modelWarehouse.setStock(warehouse.stock);
         return modelWarehouse;
     }
+
+    public BulkReplacementResult toBulkReplacementResult(List<ReplacementOutcome> outcomes) {
+        var result = new BulkReplacementResult();
+        result.setApplied(outcomes.stream().allMatch(o -> o.status == ReplacementOutcome.Status.REPLACED));
+        result.setResults(outcomes.stream().map(this::toReplacementResult).toList());
+        return result;
+    }
+
+    private ReplacementResult toReplacementResult(ReplacementOutcome outcome) {
+        var result = new ReplacementResult();
+        result.setBusinessUnitCode(outcome.businessUnitCode);
+        result.setStatus(ReplacementResult.Status.fromValue(outcome.status.name()));
+        result.setMessage(outcome.message);
+        if (outcome.warehouse != null) {
+            result.setWarehouse(toWarehouseResponse(outcome.warehouse));
+        }
+        return result;
+    }
+
+    public WarehouseSearchPage toSearchPage(WarehouseSearchResult result) {
+        var page = new WarehouseSearchPage();
+        page.setItems(result.items().stream().map(this::toWarehouseResponse).toList());
+        page.setNextCursor(result.nextCursor());
+        return page;
+    }
+
+    public com.warehouse.api.beans.NearbyWarehouse toNearbyWarehouse(NearbyWarehouse nearby) {
+        var response = new com.warehouse.api.beans.NearbyWarehouse();
+        response.setWarehouse(toWarehouseResponse(nearby.warehouse()));
+        response.setDistanceKm(nearby.distanceKm());
+        return response;
+    }
 }
@@ -1,13 +1,24 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fulfilment.application.monolith.common.idempotency.IdempotencyStore;
+import com.fulfilment.application.monolith.location.LocationGateway;
 import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.InvalidSearchCursorException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchCriteria;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BulkReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.NearbyWarehouseFinder;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseError;
 import com.warehouse.api.WarehouseResource;
+import com.warehouse.api.beans.BulkReplacementResult;
+import com.warehouse.api.beans.NearbyWarehouse;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseSearchPage;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
@@ -23,7 +34,14 @@ public class WarehouseResourceImpl implements WarehouseResource {
     private final CreateWarehouseOperation createWarehouse;
     private final ReplaceWarehouseOperation replaceWarehouse;
     private final ArchiveWarehouseOperation archiveWarehouse;
+    private final BulkReplaceWarehouseOperation bulkReplaceWarehouse;
     private final WarehouseMapper warehouseMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final NearbyWarehouseFinder nearbyWarehouseFinder;
+    private final LocationGateway locationGateway;
+
+    private static final int MAX_SEARCH_LIMIT = 500;
+    private static final int MAX_NEAREST = 100;
 
     private static final Logger LOGGER = Logger.getLogger(WarehouseResourceImpl.class.getName());
 
@@ -32,12 +50,20 @@ public class WarehouseResourceImpl implements WarehouseResource {
                                  CreateWarehouseOperation createWarehouse,
                                  ReplaceWarehouseOperation replaceWarehouse,
                                  ArchiveWarehouseOperation archiveWarehouse,
-                                 WarehouseMapper warehouseMapper) {
+                                 BulkReplaceWarehouseOperation bulkReplaceWarehouse,
+                                 WarehouseMapper warehouseMapper,
+                                 IdempotencyStore idempotencyStore,
+                                 NearbyWarehouseFinder nearbyWarehouseFinder,
+                                 LocationGateway locationGateway) {
         this.warehouseRepository = warehouseRepository;
         this.createWarehouse = createWarehouse;
         this.replaceWarehouse = replaceWarehouse;
         this.archiveWarehouse = archiveWarehouse;
+        this.bulkReplaceWarehouse = bulkReplaceWarehouse;
         this.warehouseMapper = warehouseMapper;
+        this.idempotencyStore = idempotencyStore;
+        this.nearbyWarehouseFinder = nearbyWarehouseFinder;
+        this.locationGateway = locationGateway;
     }
 
     @Override
@@ -48,16 +74,84 @@ public class WarehouseResourceImpl implements WarehouseResource {
     }
 
     @Override
-    public Warehouse createANewWarehouseUnit(@NotNull Warehouse data) {
+    public Warehouse createANewWarehouseUnit(String idempotencyKey, @NotNull Warehouse data) {
+        return idempotencyStore.execute("warehouse.create", idempotencyKey, data, Warehouse.class,
+                () -> createWarehouse(data));
+    }
+
+    private Warehouse createWarehouse(Warehouse data) {
         WarehouseDTO warehouseDTO = warehouseMapper.toModelWareHouse(data);
         createWarehouse.create(warehouseDTO);
-        DbWarehouse createdWarehouse = warehouseRepository.find("businessUnitCode", data.getBusinessUnitCode())
-                .firstResultOptional()
-                .orElseThrow(() -> new WebApplicationException("Unable to find the created warehouse.", 500));
 
-        LOGGER.info("Warehouse created with id: " + createdWarehouse.id);
+        LOGGER.info("Warehouse created with id: " + warehouseDTO.id);
 
-        return warehouseMapper.toApiWareHouse(createdWarehouse);
+        return warehouseMapper.toWarehouseResponse(warehouseDTO);
+    }
+
+    @Override
+    public WarehouseSearchPage searchActiveWarehouseUnits(String locationPrefix, Integer minCapacity, Integer maxCapacity,
+                                                          Integer minStock, Integer maxStock, Double utilizationAbove,
+                                                          String sort, String direction, Integer limit, String cursor) {
+        WarehouseSearchCriteria criteria = new WarehouseSearchCriteria();
+        criteria.locationPrefix = locationPrefix;
+        criteria.minCapacity = minCapacity;
+        criteria.maxCapacity = maxCapacity;
+        criteria.minStock = minStock;
+        criteria.maxStock = maxStock;
+        criteria.utilizationAbove = utilizationAbove;
+        criteria.cursor = cursor;
+
+        criteria.sort = WarehouseSearchCriteria.SortField.fromProperty(sort);
+        if (criteria.sort == null) {
+            throw new WebApplicationException("Invalid sort field: " + sort, 400);
+        }
+        if (!"asc".equals(direction) && !"desc".equals(direction)) {
+            throw new WebApplicationException("Invalid sort direction: " + direction, 400);
+        }
+        criteria.descending = "desc".equals(direction);
+        if (limit == null || limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new WebApplicationException("Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".", 400);
+        }
+        criteria.limit = limit;
+
+        try {
+            return warehouseMapper.toSearchPage(warehouseRepository.search(criteria));
+        } catch (InvalidSearchCursorException e) {
+            throw WarehouseError.SEARCH_CURSOR_INVALID.exception(e.getMessage());
+        }
+    }
+
+    @Override
+    public List<NearbyWarehouse> findTheNearestActiveWarehouseUnits(Double latitude, Double longitude, String location,
+                                                                    Integer k, Integer minFreeCapacity) {
+        if (k == null || k < 1 || k > MAX_NEAREST) {
+            throw new WebApplicationException("k must be between 1 and " + MAX_NEAREST + ".", 400);
+        }
+        if (minFreeCapacity == null || minFreeCapacity < 0) {
+            throw new WebApplicationException("minFreeCapacity must not be negative.", 400);
+        }
+
+        if (location != null && !location.isBlank()) {
+            if (latitude != null || longitude != null) {
+                throw new WebApplicationException("Provide either location or latitude and longitude, not both.", 400);
+            }
+            Location origin = locationGateway.resolveByIdentifier(location);
+            if (origin == null || !origin.hasCoordinates()) {
+                throw new WebApplicationException("Location has no known coordinates: " + location, 400);
+            }
+            latitude = origin.latitude;
+            longitude = origin.longitude;
+        }
+        if (latitude == null || longitude == null) {
+            throw new WebApplicationException("Provide either location or latitude and longitude.", 400);
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new WebApplicationException("Coordinates out of range.", 400);
+        }
+
+        return nearbyWarehouseFinder.nearest(latitude, longitude, k, minFreeCapacity).stream()
+                .map(warehouseMapper::toNearbyWarehouse)
+                .toList();
     }
 
     @Override
@@ -75,20 +169,34 @@ public class WarehouseResourceImpl implements WarehouseResource {
 
     @Override
     public Warehouse replaceTheCurrentActiveWarehouse(
-            String businessUnitCode, @NotNull Warehouse data) {
+            String businessUnitCode, String idempotencyKey, @NotNull Warehouse data) {
         if (businessUnitCode == null || businessUnitCode.isBlank()) {
             throw new WebApplicationException("Business unit code was not set.", 422);
         }
 
+        return idempotencyStore.execute("warehouse.replace", idempotencyKey, List.of(businessUnitCode, data),
+                Warehouse.class, () -> replaceWarehouse(businessUnitCode, data));
+    }
+
+    private Warehouse replaceWarehouse(String businessUnitCode, Warehouse data) {
         WarehouseDTO domain = warehouseMapper.toModelWareHouse(data);
         domain.businessUnitCode = businessUnitCode; // path param is the authority
         replaceWarehouse.replace(domain);
 
-        DbWarehouse newWarehouse = warehouseRepository.find("businessUnitCode", businessUnitCode)
-                .firstResultOptional()
-                .orElseThrow(() -> new WebApplicationException("Could not find warehouse after replacement.", 500));
+        return warehouseMapper.toWarehouseResponse(domain);
+    }
+
+    @Override
+    public BulkReplacementResult replaceManyActiveWarehousesAtOnce(String idempotencyKey, @NotNull List<Warehouse> data) {
+        if (data == null || data.isEmpty()) {
+            throw new WebApplicationException("At least one replacement must be provided.", 400);
+        }
 
-        return warehouseMapper.toApiWareHouse(newWarehouse);
+        return idempotencyStore.execute("warehouse.bulk-replace", idempotencyKey, data, BulkReplacementResult.class,
+                () -> warehouseMapper.toBulkReplacementResult(
+                        bulkReplaceWarehouse.replaceAll(data.stream()
+                                .map(w -> w == null ? null : warehouseMapper.toModelWareHouse(w))
+                                .toList())));
     }
 
     private DbWarehouse findWarehouseByIdOrThrow(String id) {
@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * A search cursor that was not returned for the requested ordering, or is not a cursor at all.
+ */
+public class InvalidSearchCursorException extends RuntimeException {
+
+  public InvalidSearchCursorException(String cursor) {
+    super("Invalid search cursor: " + cursor);
+  }
+}
@@ -1,17 +1,35 @@
 package com.fulfilment.application.monolith.warehouses.domain.models;
 
+/**
+ * A location from the catalog. Immutable, so catalog snapshots can be shared between threads.
+ */
 public class Location {
-  public String identification;
+  public final String identification;
 
   // maximum number of warehouses that can be created in this location
-  public int maxNumberOfWarehouses;
+  public final int maxNumberOfWarehouses;
 
   // maximum capacity of the location summing all the warehouse capacities
-  public int maxCapacity;
+  public final int maxCapacity;
+
+  // WGS84 coordinates in degrees; NaN when unknown
+  public final double latitude;
+
+  public final double longitude;
 
   public Location(String identification, int maxNumberOfWarehouses, int maxCapacity) {
+    this(identification, maxNumberOfWarehouses, maxCapacity, Double.NaN, Double.NaN);
+  }
+
+  public Location(String identification, int maxNumberOfWarehouses, int maxCapacity, double latitude, double longitude) {
     this.identification = identification;
     this.maxNumberOfWarehouses = maxNumberOfWarehouses;
     this.maxCapacity = maxCapacity;
+    this.latitude = latitude;
+    this.longitude = longitude;
+  }
+
+  public boolean hasCoordinates() {
+    return !Double.isNaN(latitude) && !Double.isNaN(longitude);
   }
 }
@@ -0,0 +1,6 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * An active warehouse together with its great-circle distance from the queried point.
+ */
+public record NearbyWarehouse(WarehouseDTO warehouse, double distanceKm) {}
@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Validation inputs for a replacement, read together: the active warehouse being replaced (or
+ * {@code null}) and how many other active warehouses sit at the target location.
+ */
+public record ReplacementContext(WarehouseDTO current, long activeAtTargetLocation) {}
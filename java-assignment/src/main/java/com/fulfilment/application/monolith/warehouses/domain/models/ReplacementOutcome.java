@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Result of one entry of a bulk replacement.
+ */
+public class ReplacementOutcome {
+
+  public enum Status {
+    // archived the current warehouse and created the replacement
+    REPLACED,
+    // this entry failed validation
+    REJECTED,
+    // this entry was valid, but nothing was applied because another entry was rejected
+    SKIPPED
+  }
+
+  public final String businessUnitCode;
+
+  public Status status;
+
+  public String message;
+
+  // the replacement as requested, or as created when REPLACED
+  public WarehouseDTO warehouse;
+
+  public ReplacementOutcome(String businessUnitCode, WarehouseDTO warehouse) {
+    this.businessUnitCode = businessUnitCode;
+    this.warehouse = warehouse;
+  }
+
+  public boolean isRejected() {
+    return status == Status.REJECTED;
+  }
+
+  public void reject(String message) {
+    this.status = Status.REJECTED;
+    this.message = message;
+  }
+}
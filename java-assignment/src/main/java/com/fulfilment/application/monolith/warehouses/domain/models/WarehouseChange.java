@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Fired by the warehouse store for every row that becomes active or gets archived, so in-memory
+ * views can follow writes without re-reading the table. Observers should listen after commit.
+ */
+public record WarehouseChange(Type type, WarehouseDTO warehouse) {
+
+  public enum Type {
+    CREATED,
+    ARCHIVED
+  }
+
+  public static WarehouseChange created(WarehouseDTO warehouse) {
+    return new WarehouseChange(Type.CREATED, warehouse);
+  }
+
+  public static WarehouseChange archived(WarehouseDTO warehouse) {
+    return new WarehouseChange(Type.ARCHIVED, warehouse);
+  }
+}
@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 
 public class WarehouseDTO {
 
+  // database id of this warehouse row; a replacement gets a new one
+  public Long id;
+
   // unique identifier
   public String businessUnitCode;
 
@@ -0,0 +1,51 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Filters, ordering and page position for a search over active warehouses. Unset filters match all.
+ */
+public class WarehouseSearchCriteria {
+
+  public enum SortField {
+    LOCATION("location"),
+    CAPACITY("capacity"),
+    STOCK("stock"),
+    BUSINESS_UNIT_CODE("businessUnitCode");
+
+    public final String property;
+
+    SortField(String property) {
+      this.property = property;
+    }
+
+    public static SortField fromProperty(String property) {
+      for (SortField field : values()) {
+        if (field.property.equals(property)) {
+          return field;
+        }
+      }
+      return null;
+    }
+  }
+
+  public String locationPrefix;
+
+  public Integer minCapacity;
+
+  public Integer maxCapacity;
+
+  public Integer minStock;
+
+  public Integer maxStock;
+
+  // percentage of capacity, exclusive: 80 means stock > 80% of capacity
+  public Double utilizationAbove;
+
+  public SortField sort = SortField.LOCATION;
+
+  public boolean descending;
+
+  public int limit = 50;
+
+  // opaque keyset position returned as nextCursor by the previous page
+  public String cursor;
+}
@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.util.List;
+
+/**
+ * One page of search results; {@code nextCursor} is {@code null} on the last page.
+ */
+public record WarehouseSearchResult(List<WarehouseDTO> items, String nextCursor) {}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementOutcome;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import java.util.List;
+
+public interface BulkReplaceWarehouseOperation {
+  List<ReplacementOutcome> replaceAll(List<WarehouseDTO> replacements);
+}
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+/**
+ * Running totals of what the active warehouses take up per location. Reads are answered from
+ * memory in constant time and reflect committed writes.
+ */
+public interface LocationCapacityLedger {
+
+  /** Sum of the capacities of the active warehouses at {@code location}. */
+  long reservedCapacity(String location);
+
+  int activeWarehouses(String location);
+
+  /** {@code location.maxCapacity} minus the reserved capacity; negative when over-committed. */
+  default long remainingCapacity(Location location) {
+    return location.maxCapacity - reservedCapacity(location.identification);
+  }
+}
@@ -1,7 +1,19 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface LocationResolver {
   Location resolveByIdentifier(String identifier);
+
+  /**
+   * Resolves every identifier against the same catalog snapshot. Unknown identifiers are left out
+   * of the result.
+   */
+  Map<String, Location> resolveAll(Collection<String> identifiers);
+
+  /** Locations whose identifier starts with {@code prefix}, in identifier order, at most {@code limit}. */
+  List<Location> findByPrefix(String prefix, int limit);
 }
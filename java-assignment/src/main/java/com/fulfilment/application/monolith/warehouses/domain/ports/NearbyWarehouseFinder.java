@@ -0,0 +1,13 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import java.util.List;
+
+public interface NearbyWarehouseFinder {
+
+  /**
+   * Returns up to {@code k} active warehouses closest to the given point, nearest first, that have
+   * at least {@code minFreeCapacity} of capacity left over their stock.
+   */
+  List<NearbyWarehouse> nearest(double latitude, double longitude, int k, int minFreeCapacity);
+}
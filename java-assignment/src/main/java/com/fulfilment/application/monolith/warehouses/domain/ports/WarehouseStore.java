@@ -1,7 +1,12 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementContext;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchCriteria;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchResult;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface WarehouseStore {
 
@@ -14,4 +19,30 @@ public interface WarehouseStore {
   void remove(WarehouseDTO warehouse);
 
   WarehouseDTO findByBusinessUnitCode(String buCode);
+
+  /**
+   * Reads everything a replacement needs to validate in one query: the active warehouse for the BU
+   * code and the number of other active warehouses at the target location.
+   */
+  ReplacementContext loadReplacementContext(String buCode, String targetLocation);
+
+  /**
+   * Archives {@code current} and inserts {@code replacement} in a single statement. Sets the new
+   * row id on {@code replacement} and the archive timestamp on {@code current}.
+   */
+  void replace(WarehouseDTO current, WarehouseDTO replacement);
+
+  List<WarehouseDTO> findActiveByBusinessUnitCodes(Collection<String> buCodes);
+
+  /** Active warehouse count per location; locations without active warehouses are absent. */
+  Map<String, Long> countActiveByLocations(Collection<String> locations);
+
+  /**
+   * Archives every warehouse in {@code currents} and inserts every entry of {@code replacements}
+   * with batched statements. Sets the new row ids on the replacements.
+   */
+  void replaceAll(List<WarehouseDTO> currents, List<WarehouseDTO> replacements);
+
+  /** Keyset-paginated search over active warehouses. */
+  WarehouseSearchResult search(WarehouseSearchCriteria criteria);
 }
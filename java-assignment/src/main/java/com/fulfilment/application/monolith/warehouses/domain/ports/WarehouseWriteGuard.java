@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Serialises warehouse writes that touch the same locations or business unit codes, so that
+ * count-then-insert checks (max warehouses per location, one active warehouse per BU code) stay
+ * correct under concurrency. Writes on disjoint keys do not contend.
+ */
+public interface WarehouseWriteGuard {
+
+  /**
+   * Runs {@code action} in a transaction while holding exclusive locks on every given location and
+   * business unit code. Locks are held until the transaction completes.
+   */
+  <T> T callExclusive(Collection<String> locations, Collection<String> businessUnitCodes, Supplier<T> action);
+
+  default void runExclusive(Collection<String> locations, Collection<String> businessUnitCodes, Runnable action) {
+    callExclusive(locations, businessUnitCodes, () -> {
+      action.run();
+      return null;
+    });
+  }
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.warehouses.domain.rules;
+
+import com.fulfilment.application.monolith.common.DomainValidationException;
+import com.fulfilment.application.monolith.common.ErrorDescriptor;
+
+/**
+ * Every way a warehouse write can be rejected by a domain rule.
+ */
+public enum WarehouseError implements ErrorDescriptor {
+
+  WAREHOUSE_REQUIRED("warehouse.required", 400, "Warehouse must be provided."),
+  BUSINESS_UNIT_CODE_REQUIRED("warehouse.businessUnitCode.required", 400, "Business unit code must be provided."),
+  LOCATION_REQUIRED("warehouse.location.required", 400, "Location must be provided."),
+  CAPACITY_NOT_POSITIVE("warehouse.capacity.notPositive", 422, "Capacity must be > 0."),
+  STOCK_NEGATIVE("warehouse.stock.negative", 422, "Stock must be >= 0."),
+  ARCHIVE_BUSINESS_UNIT_CODE_REQUIRED("warehouse.archive.businessUnitCode.required", 400, "Warehouse businessUnitCode must be provided."),
+  ALREADY_ARCHIVED("warehouse.archive.alreadyArchived", 409, "Warehouse already archived."),
+  BUSINESS_UNIT_CODE_EXISTS("warehouse.businessUnitCode.exists", 409, "Business unit code already exists."),
+  ACTIVE_WAREHOUSE_NOT_FOUND("warehouse.notFound", 404, "Active warehouse not found."),
+  INVALID_LOCATION("warehouse.location.invalid", 422, "Invalid location."),
+  CAPACITY_EXCEEDS_LOCATION("warehouse.capacity.exceedsLocation", 422, "Capacity exceeds max capacity for location."),
+  STOCK_EXCEEDS_CAPACITY("warehouse.stock.exceedsCapacity", 422, "Stock cannot exceed capacity."),
+  CAPACITY_BELOW_STOCK("warehouse.replacement.capacityBelowStock", 422, "New capacity cannot accommodate existing stock."),
+  MAX_WAREHOUSES_REACHED("warehouse.location.maxWarehouses", 422, "Maximum number of warehouses reached for location."),
+  LOCATION_CAPACITY_EXCEEDED("warehouse.location.capacityExceeded", 422, "Location capacity exceeded."),
+  SEARCH_CURSOR_INVALID("warehouse.search.cursorInvalid", 400, "Invalid search cursor.");
+
+  private final String code;
+  private final int status;
+  private final String message;
+
+  WarehouseError(String code, int status, String message) {
+    this.code = code;
+    this.status = status;
+    this.message = message;
+  }
+
+  @Override
+  public String code() {
+    return code;
+  }
+
+  @Override
+  public int status() {
+    return status;
+  }
+
+  @Override
+  public String message() {
+    return message;
+  }
+
+  public DomainValidationException exception() {
+    return new DomainValidationException(this);
+  }
+
+  public DomainValidationException exception(String message) {
+    return new DomainValidationException(this, message);
+  }
+}
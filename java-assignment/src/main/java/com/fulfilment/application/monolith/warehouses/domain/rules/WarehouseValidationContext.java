@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.warehouses.domain.rules;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+
+/**
+ * Inputs of the warehouse rule sets. Reused per thread by {@link WarehouseValidationRules}; fields
+ * a rule set does not need are left unset.
+ */
+public final class WarehouseValidationContext {
+
+  // the warehouse being written
+  public WarehouseDTO warehouse;
+
+  // resolved location of the warehouse, null when unknown
+  public Location location;
+
+  // active warehouse already holding the BU code (create) or being replaced (replace)
+  public WarehouseDTO existing;
+
+  // other active warehouses at the target location
+  public long activeAtLocation;
+
+  WarehouseValidationContext reset(WarehouseDTO warehouse) {
+    this.warehouse = warehouse;
+    this.location = null;
+    this.existing = null;
+    this.activeAtLocation = 0;
+    return this;
+  }
+}
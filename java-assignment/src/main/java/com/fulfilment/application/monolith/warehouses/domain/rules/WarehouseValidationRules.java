@@ -1,89 +1,165 @@
 package com.fulfilment.application.monolith.warehouses.domain.rules;
 
+import com.fulfilment.application.monolith.common.validation.Rule;
+import com.fulfilment.application.monolith.common.validation.RuleSet;
+import com.fulfilment.application.monolith.common.validation.ValidationResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
-import jakarta.ws.rs.WebApplicationException;
-import jakarta.ws.rs.core.Response;
-import org.jboss.logging.Logger;
+import jakarta.enterprise.context.ApplicationScoped;
 
+/**
+ * Warehouse rules, registered once and shared by every use case.
+ *
+ * <p>Each method runs one rule set in a fixed order and collects every violation; the first one
+ * decides the status and message of the thrown exception. Context and result objects are reused
+ * per thread, so a passing validation allocates nothing.
+ */
+@ApplicationScoped
 public class WarehouseValidationRules {
 
-    private static final Logger LOG = Logger.getLogger(WarehouseValidationRules.class);
+    private static final Rule<WarehouseValidationContext> WAREHOUSE_REQUIRED =
+            Rule.<WarehouseValidationContext>of(WarehouseError.WAREHOUSE_REQUIRED, c -> c.warehouse == null).blocking();
 
-    public void validate(WarehouseDTO warehouse) {
-        if (warehouse == null) {
-            throw new WebApplicationException("Warehouse must be provided.", Response.Status.BAD_REQUEST);
-        }
-    }
+    private static final Rule<WarehouseValidationContext> BUSINESS_UNIT_CODE_REQUIRED =
+            Rule.of(WarehouseError.BUSINESS_UNIT_CODE_REQUIRED, c -> isBlank(c.warehouse.businessUnitCode));
+
+    private static final Rule<WarehouseValidationContext> LOCATION_REQUIRED =
+            Rule.of(WarehouseError.LOCATION_REQUIRED, c -> isBlank(c.warehouse.location));
+
+    private static final Rule<WarehouseValidationContext> CAPACITY_POSITIVE =
+            Rule.of(WarehouseError.CAPACITY_NOT_POSITIVE, c -> c.warehouse.capacity == null || c.warehouse.capacity <= 0);
+
+    private static final Rule<WarehouseValidationContext> STOCK_NOT_NEGATIVE =
+            Rule.of(WarehouseError.STOCK_NEGATIVE, c -> c.warehouse.stock == null || c.warehouse.stock < 0);
+
+    private static final Rule<WarehouseValidationContext> ARCHIVE_BUSINESS_UNIT_CODE_REQUIRED =
+            Rule.of(WarehouseError.ARCHIVE_BUSINESS_UNIT_CODE_REQUIRED, c -> isBlank(c.warehouse.businessUnitCode));
+
+    private static final Rule<WarehouseValidationContext> NOT_ARCHIVED =
+            Rule.of(WarehouseError.ALREADY_ARCHIVED, c -> c.warehouse.archivedAt != null);
+
+    private static final Rule<WarehouseValidationContext> BUSINESS_UNIT_CODE_UNIQUE =
+            Rule.of(WarehouseError.BUSINESS_UNIT_CODE_EXISTS,
+                    c -> c.existing != null && c.existing.archivedAt == null,
+                    c -> "Business unit code already exists: " + c.warehouse.businessUnitCode);
+
+    private static final Rule<WarehouseValidationContext> CURRENT_EXISTS =
+            Rule.<WarehouseValidationContext>of(WarehouseError.ACTIVE_WAREHOUSE_NOT_FOUND,
+                    c -> c.existing == null || c.existing.archivedAt != null,
+                    c -> "Active warehouse not found for businessUnitCode=" + c.warehouse.businessUnitCode).blocking();
+
+    private static final Rule<WarehouseValidationContext> LOCATION_KNOWN =
+            Rule.<WarehouseValidationContext>of(WarehouseError.INVALID_LOCATION,
+                    c -> c.location == null,
+                    c -> "Invalid location: " + c.warehouse.location).blocking();
+
+    private static final Rule<WarehouseValidationContext> MAX_WAREHOUSES =
+            Rule.of(WarehouseError.MAX_WAREHOUSES_REACHED,
+                    c -> c.activeAtLocation >= c.location.maxNumberOfWarehouses,
+                    c -> "Maximum number of warehouses reached for location: " + c.warehouse.location);
+
+    private static final Rule<WarehouseValidationContext> CAPACITY_WITHIN_LOCATION =
+            Rule.of(WarehouseError.CAPACITY_EXCEEDS_LOCATION,
+                    c -> c.warehouse.capacity > c.location.maxCapacity,
+                    c -> "Capacity exceeds max capacity for location. max=" + c.location.maxCapacity
+                            + ", requested=" + c.warehouse.capacity);
+
+    private static final Rule<WarehouseValidationContext> STOCK_WITHIN_CAPACITY =
+            Rule.of(WarehouseError.STOCK_EXCEEDS_CAPACITY, c -> c.warehouse.stock > c.warehouse.capacity);
+
+    private static final Rule<WarehouseValidationContext> CAPACITY_HOLDS_CURRENT_STOCK =
+            Rule.of(WarehouseError.CAPACITY_BELOW_STOCK,
+                    c -> c.warehouse.capacity < c.existing.stock,
+                    c -> "New capacity cannot accommodate existing stock. existingStock=" + c.existing.stock
+                            + ", newCapacity=" + c.warehouse.capacity);
+
+    /** Shape of a warehouse to create or replace with. */
+    public static final RuleSet<WarehouseValidationContext> UPSERT = RuleSet.of(
+            WAREHOUSE_REQUIRED, BUSINESS_UNIT_CODE_REQUIRED, LOCATION_REQUIRED, CAPACITY_POSITIVE, STOCK_NOT_NEGATIVE);
+
+    public static final RuleSet<WarehouseValidationContext> ARCHIVE = RuleSet.of(
+            WAREHOUSE_REQUIRED, ARCHIVE_BUSINESS_UNIT_CODE_REQUIRED, NOT_ARCHIVED);
+
+    /** Placement of a new warehouse; expects a valid {@link #UPSERT} shape. */
+    public static final RuleSet<WarehouseValidationContext> CREATE = RuleSet.of(
+            BUSINESS_UNIT_CODE_UNIQUE, LOCATION_KNOWN, MAX_WAREHOUSES, CAPACITY_WITHIN_LOCATION, STOCK_WITHIN_CAPACITY);
+
+    /** Placement of a replacement; expects a valid {@link #UPSERT} shape. */
+    public static final RuleSet<WarehouseValidationContext> REPLACE = RuleSet.of(
+            CURRENT_EXISTS, LOCATION_KNOWN, CAPACITY_WITHIN_LOCATION, STOCK_WITHIN_CAPACITY,
+            CAPACITY_HOLDS_CURRENT_STOCK, MAX_WAREHOUSES);
+
+    /** Per-entry placement in a bulk replacement; max warehouses is checked on the final state instead. */
+    public static final RuleSet<WarehouseValidationContext> BULK_REPLACE = RuleSet.of(
+            CURRENT_EXISTS, LOCATION_KNOWN, CAPACITY_WITHIN_LOCATION, STOCK_WITHIN_CAPACITY,
+            CAPACITY_HOLDS_CURRENT_STOCK);
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
     public void validateUpsert(WarehouseDTO warehouse) {
-        if (isBlank(warehouse.businessUnitCode)) {
-            throw new WebApplicationException("Business unit code must be provided.", Response.Status.BAD_REQUEST);
-        }
-        if (isBlank(warehouse.location)) {
-            throw new WebApplicationException("Location must be provided.", Response.Status.BAD_REQUEST);
-        }
-        if (warehouse.capacity == null || warehouse.capacity <= 0) {
-            throw new WebApplicationException("Capacity must be > 0.", 422);
-        }
-        if (warehouse.stock == null || warehouse.stock < 0) {
-            throw new WebApplicationException("Stock must be >= 0.", 422);
-        }
+        run(UPSERT, begin(warehouse));
     }
 
     public void validateForArchiving(WarehouseDTO warehouse) {
-        if (warehouse.businessUnitCode == null || warehouse.businessUnitCode.isBlank()) {
-            throw new WebApplicationException("Warehouse businessUnitCode must be provided.", Response.Status.BAD_REQUEST);
-        }
-        if (warehouse.archivedAt != null) {
-            throw new WebApplicationException("Warehouse already archived.", Response.Status.CONFLICT);
-        }
+        run(ARCHIVE, begin(warehouse));
     }
 
-    public void validateBusinessUnitCode(WarehouseDTO existing, String businessUnitCode) {
-        if (existing != null && existing.archivedAt == null) {
-            LOG.warnf("Business unit code already exists: %s", businessUnitCode);
-            throw new WebApplicationException("Business unit code already exists: " + businessUnitCode, Response.Status.CONFLICT);
-        }
+    /**
+     * @param existing active warehouse with the same BU code, if any
+     * @param activeAtLocation active warehouses at the target location
+     */
+    public void validateCreation(WarehouseDTO warehouse, WarehouseDTO existing, Location location, long activeAtLocation) {
+        WarehouseValidationContext context = begin(warehouse);
+        context.existing = existing;
+        context.location = location;
+        context.activeAtLocation = activeAtLocation;
+        run(CREATE, context);
     }
 
-    public void validateLocation(Location loc, String location) {
-        if (loc == null) {
-            LOG.warnf("Invalid location specified: %s", location);
-            throw new WebApplicationException("Invalid location: " + location, 422);
-        }
+    /**
+     * @param current the active warehouse being replaced, if found
+     * @param activeAtLocation other active warehouses at the target location
+     */
+    public void validateReplacement(WarehouseDTO warehouse, WarehouseDTO current, Location location, long activeAtLocation) {
+        WarehouseValidationContext context = begin(warehouse);
+        context.existing = current;
+        context.location = location;
+        context.activeAtLocation = activeAtLocation;
+        run(REPLACE, context);
     }
 
-    public void validateCapacityAndStock(WarehouseDTO warehouse, Location loc) {
-        if (warehouse.capacity > loc.maxCapacity) {
-            LOG.warnf("Capacity %d exceeds max capacity %d for location %s", warehouse.capacity, loc.maxCapacity, warehouse.location);
-            throw new WebApplicationException(
-                    "Capacity exceeds max capacity for location. max=" + loc.maxCapacity + ", requested=" + warehouse.capacity, 422);
-        }
-        if (warehouse.stock > warehouse.capacity) {
-            LOG.warnf("Stock %d exceeds capacity %d", warehouse.stock, warehouse.capacity);
-            throw new WebApplicationException("Stock cannot exceed capacity.", 422);
-        }
+    /**
+     * Runs {@code rules} without throwing.
+     *
+     * @return the first violation message, or {@code null} when valid
+     */
+    public String check(RuleSet<WarehouseValidationContext> rules, WarehouseDTO warehouse, WarehouseDTO existing, Location location) {
+        WarehouseValidationContext context = begin(warehouse);
+        context.existing = existing;
+        context.location = location;
+        String violation = rules.validate(context, SCRATCH.get().result.clear()).firstMessage();
+        context.reset(null);
+        return violation;
     }
 
-    public void validateReplacement(WarehouseDTO newWarehouse, WarehouseDTO current) {
-        // Capacity accommodation: new capacity must hold the existing stock
-        if (newWarehouse.capacity < current.stock) {
-            LOG.warnf("New capacity %d cannot accommodate existing stock %d", newWarehouse.capacity, current.stock);
-            throw new WebApplicationException(
-                    "New capacity cannot accommodate existing stock. existingStock=" + current.stock + ", newCapacity=" + newWarehouse.capacity, 422);
-        }
+    private static WarehouseValidationContext begin(WarehouseDTO warehouse) {
+        return SCRATCH.get().context.reset(warehouse);
     }
 
-    public void validateMaxWarehouses(Location loc, long activeAtTarget, String location) {
-        if (activeAtTarget >= loc.maxNumberOfWarehouses) {
-            LOG.warnf("Maximum number of warehouses reached for location: %s", location);
-            throw new WebApplicationException(
-                    "Maximum number of warehouses reached for location: " + location, 422);
-        }
+    private static void run(RuleSet<WarehouseValidationContext> rules, WarehouseValidationContext context) {
+        ValidationResult result = SCRATCH.get().result.clear();
+        rules.validate(context, result);
+        // release references before a possible throw so pooled objects never pin request data
+        context.reset(null);
+        result.throwIfInvalid();
     }
 
     public static boolean isBlank(String s) {
-        return s == null || s.trim().isEmpty();
+        return s == null || s.isBlank();
+    }
+
+    private static final class Scratch {
+        final WarehouseValidationContext context = new WarehouseValidationContext();
+        final ValidationResult result = new ValidationResult();
     }
-}
\ No newline at end of file
+}
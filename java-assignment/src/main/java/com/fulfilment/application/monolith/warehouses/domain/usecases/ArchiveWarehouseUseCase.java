@@ -3,11 +3,13 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseWriteGuard;
 import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseValidationRules;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 
 @ApplicationScoped
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
@@ -15,24 +17,28 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
     private static final Logger LOG = Logger.getLogger(ArchiveWarehouseUseCase.class);
 
     private final WarehouseStore warehouseStore;
+    private final WarehouseWriteGuard warehouseWriteGuard;
     private final WarehouseValidationRules warehouseValidationRules;
 
-    public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+    public ArchiveWarehouseUseCase(WarehouseStore warehouseStore, WarehouseWriteGuard warehouseWriteGuard,
+                                   WarehouseValidationRules warehouseValidationRules) {
         this.warehouseStore = warehouseStore;
-        this.warehouseValidationRules = new WarehouseValidationRules();
+        this.warehouseWriteGuard = warehouseWriteGuard;
+        this.warehouseValidationRules = warehouseValidationRules;
     }
 
     @Override
     public void archive(WarehouseDTO warehouse) {
-        warehouseValidationRules.validate(warehouse);
         warehouseValidationRules.validateForArchiving(warehouse);
 
         LOG.infof("Archiving warehouse: %s", warehouse.businessUnitCode);
 
         warehouse.archivedAt = LocalDateTime.now();
 
-        // Persist the state change (your repository should map archivedAt -> DbWarehouse.archivedAt)
-        warehouseStore.remove(warehouse);
+        // Runs in a transaction so the archive is actually written and change listeners see the commit.
+        warehouseWriteGuard.runExclusive(Collections.singletonList(warehouse.location),
+                Collections.singletonList(warehouse.businessUnitCode),
+                () -> warehouseStore.remove(warehouse));
         LOG.infof("Warehouse archived successfully: %s", warehouse.businessUnitCode);
     }
 }
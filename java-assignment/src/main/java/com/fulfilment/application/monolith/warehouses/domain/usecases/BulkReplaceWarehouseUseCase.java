@@ -0,0 +1,167 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.location.LocationGateway;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementOutcome;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BulkReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationCapacityLedger;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseWriteGuard;
+import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseValidationRules;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replaces many warehouses in one transaction, as done during a network re-plan.
+ *
+ * <p>Unlike calling {@link ReplaceWarehouseUseCase} per BU code, the max-warehouses rule is checked
+ * against the final state of every location: warehouses moving away free a slot, warehouses moving
+ * in take one. Either every replacement is applied or none is.
+ */
+@ApplicationScoped
+public class BulkReplaceWarehouseUseCase implements BulkReplaceWarehouseOperation {
+
+    private static final Logger LOG = Logger.getLogger(BulkReplaceWarehouseUseCase.class);
+
+    private final WarehouseStore warehouseStore;
+    private final LocationGateway locationGateway;
+    private final WarehouseWriteGuard warehouseWriteGuard;
+    private final LocationCapacityLedger locationCapacityLedger;
+    private final WarehouseValidationRules warehouseValidationRules;
+
+    public BulkReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationGateway locationGateway,
+                                       WarehouseWriteGuard warehouseWriteGuard,
+                                       LocationCapacityLedger locationCapacityLedger,
+                                       WarehouseValidationRules warehouseValidationRules) {
+        this.warehouseStore = warehouseStore;
+        this.locationGateway = locationGateway;
+        this.warehouseWriteGuard = warehouseWriteGuard;
+        this.locationCapacityLedger = locationCapacityLedger;
+        this.warehouseValidationRules = warehouseValidationRules;
+    }
+
+    @Override
+    public List<ReplacementOutcome> replaceAll(List<WarehouseDTO> replacements) {
+        if (replacements == null || replacements.isEmpty()) {
+            throw new WebApplicationException("At least one replacement must be provided.", Response.Status.BAD_REQUEST);
+        }
+
+        List<ReplacementOutcome> outcomes = new ArrayList<>(replacements.size());
+        Map<String, ReplacementOutcome> candidates = new LinkedHashMap<>();
+        for (WarehouseDTO replacement : replacements) {
+            ReplacementOutcome outcome = new ReplacementOutcome(
+                    replacement == null ? null : replacement.businessUnitCode, replacement);
+            outcomes.add(outcome);
+            String violation = warehouseValidationRules.check(WarehouseValidationRules.UPSERT, replacement, null, null);
+            if (violation != null) {
+                outcome.reject(violation);
+                continue;
+            }
+            if (candidates.putIfAbsent(replacement.businessUnitCode, outcome) != null) {
+                outcome.reject("Duplicate business unit code in request: " + replacement.businessUnitCode);
+            }
+        }
+
+        Set<String> targetLocations = new HashSet<>();
+        candidates.values().forEach(outcome -> targetLocations.add(outcome.warehouse.location));
+
+        LOG.infof("Replacing %d warehouses across %d locations", candidates.size(), targetLocations.size());
+        warehouseWriteGuard.runExclusive(targetLocations, candidates.keySet(), () -> apply(outcomes, candidates, targetLocations));
+        return outcomes;
+    }
+
+    private void apply(List<ReplacementOutcome> outcomes, Map<String, ReplacementOutcome> candidates,
+                       Set<String> targetLocations) {
+        Map<String, WarehouseDTO> currents = new HashMap<>();
+        warehouseStore.findActiveByBusinessUnitCodes(candidates.keySet())
+                .forEach(current -> currents.put(current.businessUnitCode, current));
+
+        // ---- per-entry rules ----
+        Map<String, Location> locations = locationGateway.resolveAll(targetLocations);
+        Set<String> affectedLocations = new HashSet<>();
+        for (ReplacementOutcome outcome : candidates.values()) {
+            WarehouseDTO replacement = outcome.warehouse;
+            WarehouseDTO current = currents.get(outcome.businessUnitCode);
+            String violation = warehouseValidationRules.check(WarehouseValidationRules.BULK_REPLACE,
+                    replacement, current, locations.get(replacement.location));
+            if (violation != null) {
+                outcome.reject(violation);
+                continue;
+            }
+            affectedLocations.add(replacement.location);
+            affectedLocations.add(current.location);
+        }
+
+        // ---- max warehouses per location, evaluated on the final state ----
+        Map<String, Long> finalCounts = new HashMap<>(warehouseStore.countActiveByLocations(affectedLocations));
+        for (ReplacementOutcome outcome : candidates.values()) {
+            if (!outcome.isRejected()) {
+                finalCounts.merge(currents.get(outcome.businessUnitCode).location, -1L, Long::sum);
+                finalCounts.merge(outcome.warehouse.location, 1L, Long::sum);
+            }
+        }
+        for (ReplacementOutcome outcome : candidates.values()) {
+            if (outcome.isRejected()) {
+                continue;
+            }
+            String target = outcome.warehouse.location;
+            boolean moving = !target.equals(currents.get(outcome.businessUnitCode).location);
+            if (moving && finalCounts.get(target) > locations.get(target).maxNumberOfWarehouses) {
+                LOG.warnf("Maximum number of warehouses would be exceeded for location: %s", target);
+                outcome.reject("Maximum number of warehouses reached for location: " + target);
+            }
+        }
+
+        // ---- location-wide capacity, evaluated on the final state ----
+        Map<String, Long> capacityDeltas = new HashMap<>();
+        for (ReplacementOutcome outcome : candidates.values()) {
+            if (!outcome.isRejected()) {
+                WarehouseDTO current = currents.get(outcome.businessUnitCode);
+                capacityDeltas.merge(current.location, -(long) current.capacity, Long::sum);
+                capacityDeltas.merge(outcome.warehouse.location, (long) outcome.warehouse.capacity, Long::sum);
+            }
+        }
+        for (ReplacementOutcome outcome : candidates.values()) {
+            if (outcome.isRejected()) {
+                continue;
+            }
+            String target = outcome.warehouse.location;
+            long delta = capacityDeltas.get(target);
+            // only locations that end up holding more capacity can break their cap
+            if (delta > 0 && locationCapacityLedger.reservedCapacity(target) + delta > locations.get(target).maxCapacity) {
+                LOG.warnf("Location capacity would be exceeded for location: %s", target);
+                outcome.reject("Location capacity exceeded for location: " + target);
+            }
+        }
+
+        if (outcomes.stream().anyMatch(ReplacementOutcome::isRejected)) {
+            outcomes.stream()
+                    .filter(outcome -> !outcome.isRejected())
+                    .forEach(outcome -> outcome.status = ReplacementOutcome.Status.SKIPPED);
+            LOG.warnf("Bulk replacement rejected; no warehouse was replaced");
+            return;
+        }
+
+        // ---- apply everything with batched statements ----
+        List<WarehouseDTO> toArchive = new ArrayList<>(candidates.size());
+        List<WarehouseDTO> toCreate = new ArrayList<>(candidates.size());
+        for (ReplacementOutcome outcome : candidates.values()) {
+            toArchive.add(currents.get(outcome.businessUnitCode));
+            toCreate.add(outcome.warehouse);
+        }
+        warehouseStore.replaceAll(toArchive, toCreate);
+        candidates.values().forEach(outcome -> outcome.status = ReplacementOutcome.Status.REPLACED);
+        LOG.infof("Bulk replacement applied for %d warehouses", toCreate.size());
+    }
+}
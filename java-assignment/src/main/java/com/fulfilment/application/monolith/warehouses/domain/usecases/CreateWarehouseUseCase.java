@@ -5,11 +5,13 @@ import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseWriteGuard;
 import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseValidationRules;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @ApplicationScoped
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
@@ -18,38 +20,36 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
     private final WarehouseStore warehouseStore;
     private final LocationGateway locationGateway;
+    private final WarehouseWriteGuard warehouseWriteGuard;
     private final WarehouseValidationRules warehouseValidationRules;
 
-    public CreateWarehouseUseCase(WarehouseStore warehouseStore, LocationGateway locationGateway) {
+    public CreateWarehouseUseCase(WarehouseStore warehouseStore, LocationGateway locationGateway,
+                                  WarehouseWriteGuard warehouseWriteGuard,
+                                  WarehouseValidationRules warehouseValidationRules) {
         this.warehouseStore = warehouseStore;
         this.locationGateway = locationGateway;
-        this.warehouseValidationRules = new WarehouseValidationRules();
+        this.warehouseWriteGuard = warehouseWriteGuard;
+        this.warehouseValidationRules = warehouseValidationRules;
     }
 
     @Override
     public void create(WarehouseDTO warehouse) {
-        warehouseValidationRules.validate(warehouse);
         warehouseValidationRules.validateUpsert(warehouse);
 
-        // 1) Business Unit Code Verification: must not already exist (active)
-        WarehouseDTO existing = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
-        warehouseValidationRules.validateBusinessUnitCode(existing, warehouse.businessUnitCode);
-        LOG.infof("Creating warehouse: %s", warehouse.businessUnitCode);
+        // The checks below are count-then-insert, so they run under the location and BU code locks.
+        warehouseWriteGuard.runExclusive(
+                List.of(warehouse.location), List.of(warehouse.businessUnitCode), () -> createExclusively(warehouse));
+    }
 
-        // 2) Location Validation: must be a known valid location
+    private void createExclusively(WarehouseDTO warehouse) {
+        // Gather what the creation rules need, then check them all at once:
+        // unique BU code, known location, max warehouses, capacity and stock.
+        WarehouseDTO existing = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
         Location loc = locationGateway.resolveByIdentifier(warehouse.location);
-        warehouseValidationRules.validateLocation(loc, warehouse.location);
-
-        // 3) Warehouse Creation Feasibility: max warehouses at location
-        long activeAtLocation =
-                warehouseStore.getAll().stream()
-                        .filter(w -> w.location.equals(warehouse.location))
-                        .count();
-
-        warehouseValidationRules.validateMaxWarehouses(loc, activeAtLocation, warehouse.location);
-
-        // 4) Capacity and Stock Validation
-        warehouseValidationRules.validateCapacityAndStock(warehouse, loc);
+        long activeAtLocation = loc == null ? 0
+                : warehouseStore.countActiveByLocations(List.of(warehouse.location)).getOrDefault(warehouse.location, 0L);
+        warehouseValidationRules.validateCreation(warehouse, existing, loc, activeAtLocation);
+        LOG.infof("Creating warehouse: %s", warehouse.businessUnitCode);
 
         // timestamps
         if (warehouse.createdAt == null) {
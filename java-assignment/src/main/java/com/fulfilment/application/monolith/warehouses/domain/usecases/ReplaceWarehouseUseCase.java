@@ -2,17 +2,17 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.location.LocationGateway;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementContext;
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseWriteGuard;
 import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseValidationRules;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
-import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.List;
 
 @ApplicationScoped
 public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
@@ -21,61 +21,49 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
   private final LocationGateway locationGateway;
+  private final WarehouseWriteGuard warehouseWriteGuard;
   private final WarehouseValidationRules warehouseValidationRules;
 
-  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationGateway locationGateway) {
+  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, LocationGateway locationGateway,
+                                 WarehouseWriteGuard warehouseWriteGuard,
+                                 WarehouseValidationRules warehouseValidationRules) {
     this.warehouseStore = warehouseStore;
     this.locationGateway = locationGateway;
-    this.warehouseValidationRules = new WarehouseValidationRules();
+    this.warehouseWriteGuard = warehouseWriteGuard;
+    this.warehouseValidationRules = warehouseValidationRules;
   }
 
   @Override
   public void replace(WarehouseDTO newWarehouse) {
     // ---- basic validations ----
-    warehouseValidationRules.validate(newWarehouse);
     warehouseValidationRules.validateUpsert(newWarehouse);
 
-    // ---- find current active warehouse for BU code ----
-    WarehouseDTO current = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
-    if (current == null || current.archivedAt != null) {
-      LOG.warnf("Active warehouse not found for businessUnitCode=%s", newWarehouse.businessUnitCode);
-      throw new WebApplicationException(
-              "Active warehouse not found for businessUnitCode=" + newWarehouse.businessUnitCode, Response.Status.NOT_FOUND);
-    }
-
-    LOG.infof("Replacing warehouse for business unit code: %s", newWarehouse.businessUnitCode);
+    // ---- archive + create must see a stable count at the target location and a single active BU row ----
+    warehouseWriteGuard.runExclusive(
+            List.of(newWarehouse.location), List.of(newWarehouse.businessUnitCode), () -> replaceExclusively(newWarehouse));
+  }
 
-    // ---- location validation ----
+  private void replaceExclusively(WarehouseDTO newWarehouse) {
+    // ---- single aggregated read: current active warehouse + active count at the target location ----
+    ReplacementContext context =
+            warehouseStore.loadReplacementContext(newWarehouse.businessUnitCode, newWarehouse.location);
+    WarehouseDTO current = context.current();
     Location loc = locationGateway.resolveByIdentifier(newWarehouse.location);
-    warehouseValidationRules.validateLocation(loc, newWarehouse.location);
-
-    // ---- capacity/stock rules for the new warehouse ----
-    warehouseValidationRules.validateCapacityAndStock(newWarehouse, loc);
 
-    // ---- replacement-specific validations ----
-    warehouseValidationRules.validateReplacement(newWarehouse, current);
+    // ---- current exists, location, capacity/stock, existing stock, max warehouses (current already excluded) ----
+    warehouseValidationRules.validateReplacement(newWarehouse, current, loc, context.activeAtTargetLocation());
 
-    // ---- max warehouses at the target location ----
-    // Count active warehouses at target location, excluding the one being replaced (same BU code).
-    long activeAtTarget =
-            warehouseStore.getAll().stream()
-                    .filter(w -> Objects.equals(w.location, newWarehouse.location))
-                    .filter(w -> !Objects.equals(w.businessUnitCode, current.businessUnitCode))
-                    .count();
-
-    warehouseValidationRules.validateMaxWarehouses(loc, activeAtTarget, newWarehouse.location);
+    LOG.infof("Replacing warehouse for business unit code: %s", newWarehouse.businessUnitCode);
 
-    // ---- perform replacement: archive old + create new ----
+    // ---- perform replacement: archive old + create new in one statement ----
     LOG.infof("Archiving old warehouse and creating new one for %s", newWarehouse.businessUnitCode);
     LocalDateTime now = LocalDateTime.now();
 
     current.archivedAt = now;
-    warehouseStore.update(current); // ensure repository persists archivedAt
-
     newWarehouse.createdAt = (newWarehouse.createdAt != null) ? newWarehouse.createdAt : now;
     newWarehouse.archivedAt = null;
 
-    warehouseStore.create(newWarehouse);
+    warehouseStore.replace(current, newWarehouse);
     LOG.infof("Successfully replaced warehouse for business unit code: %s", newWarehouse.businessUnitCode);
   }
 }
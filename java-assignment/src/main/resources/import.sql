@@ -15,3 +15,15 @@ VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null);
 INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
 VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null);
 ALTER SEQUENCE warehouse_seq RESTART WITH 4;
+
+
+-- At most one active warehouse per business unit code; backs up the locking in StripedWarehouseWriteGuard.
+CREATE UNIQUE INDEX warehouse_active_bu_uidx ON warehouse (businessUnitCode) WHERE archivedAt IS NULL;
+
+-- Search over active warehouses: one (sort column, id) index per sort, so a page is an index range scan from the cursor.
+CREATE INDEX warehouse_active_location_idx ON warehouse (location, id) WHERE archivedAt IS NULL;
+CREATE INDEX warehouse_active_capacity_idx ON warehouse (capacity, id) WHERE archivedAt IS NULL;
+CREATE INDEX warehouse_active_stock_idx ON warehouse (stock, id) WHERE archivedAt IS NULL;
+CREATE INDEX warehouse_active_businessunitcode_idx ON warehouse (businessUnitCode, id) WHERE archivedAt IS NULL;
+-- Location prefix filter under any sort; LIKE 'x%' needs text_pattern_ops outside the C collation.
+CREATE INDEX warehouse_active_location_prefix_idx ON warehouse (location text_pattern_ops) WHERE archivedAt IS NULL;
@@ -0,0 +1,54 @@
+package com.fulfilment.application.monolith.common;
+
+import com.fulfilment.application.monolith.warehouses.domain.rules.WarehouseError;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ErrorMapperTest {
+
+  private final ErrorMapper errorMapper = new ErrorMapper();
+
+  @Test
+  public void testDomainValidationExceptionShouldHaveNoStackTrace() {
+    DomainValidationException exception = WarehouseError.INVALID_LOCATION.exception("Invalid location: X");
+
+    assertEquals(0, exception.getStackTrace().length);
+    assertEquals(422, exception.getResponse().getStatus());
+    assertTrue(exception instanceof WebApplicationException);
+  }
+
+  @Test
+  public void testDomainValidationExceptionShouldBeMappedWithItsErrorCode() {
+    Response response = errorMapper.toResponse(WarehouseError.STOCK_EXCEEDS_CAPACITY.exception());
+
+    ErrorMapper.ErrorResponse body = (ErrorMapper.ErrorResponse) response.getEntity();
+    assertEquals(422, response.getStatus());
+    assertEquals("Stock cannot exceed capacity.", body.error());
+    assertEquals("warehouse.stock.exceedsCapacity", body.errorCode());
+  }
+
+  @Test
+  public void testUnexpectedExceptionShouldBeMappedTo500() {
+    Response response = errorMapper.toResponse(new IllegalStateException("boom"));
+
+    ErrorMapper.ErrorResponse body = (ErrorMapper.ErrorResponse) response.getEntity();
+    assertEquals(500, response.getStatus());
+    assertEquals(IllegalStateException.class.getName(), body.exceptionType());
+    assertNull(body.errorCode());
+  }
+
+  @Test
+  public void testRateLimiterShouldSuppressLinesBeyondTheWindowBudget() {
+    LogRateLimiter limiter = new LogRateLimiter(2, 60_000);
+
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(-1, limiter.tryAcquire());
+    assertEquals(-1, limiter.tryAcquire());
+  }
+}
@@ -0,0 +1,141 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.stores.LegacyStoreManagerGateway;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Reads back what the audit writer thread put in the log files. */
+@QuarkusTest
+public class AuditLogTest {
+
+  private static final long WAIT_MILLIS = 5_000;
+
+  @InjectMock
+  LegacyStoreManagerGateway legacyGateway;
+
+  @Inject
+  AuditLog auditLog;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "audit.log.directory")
+  String directory;
+
+  @Test
+  public void writesTheActorAndBeforeStateOfStoreChanges() throws Exception {
+    String actor = "auditor-" + UUID.randomUUID();
+    String name = "AUDITED_" + UUID.randomUUID();
+
+    int id = given()
+        .header(AuditLog.ACTOR_HEADER, actor)
+        .contentType(ContentType.JSON)
+        .body(Map.of("name", name, "quantityProductsInStock", 4))
+        .when()
+        .post("store")
+        .then()
+        .statusCode(201)
+        .extract().path("id");
+    given()
+        .header(AuditLog.ACTOR_HEADER, actor)
+        .contentType(ContentType.JSON)
+        .body(List.of(Map.of("name", name, "quantityProductsInStock", 7)))
+        .when()
+        .post("store/bulk")
+        .then()
+        .statusCode(200);
+
+    List<JsonNode> events = awaitEvents(event -> String.valueOf(id).equals(event.path("entityId").asText())
+        && "store".equals(event.path("entity").asText()), 2);
+
+    JsonNode created = events.get(0);
+    assertEquals(actor, created.path("actor").asText());
+    assertEquals("CREATE", created.path("action").asText());
+    assertTrue(created.path("before").isNull());
+    assertEquals(4, created.path("after").path("quantityProductsInStock").asInt());
+
+    JsonNode updated = events.get(1);
+    assertEquals(actor, updated.path("actor").asText());
+    assertEquals("UPDATE", updated.path("action").asText());
+    assertEquals(4, updated.path("before").path("quantityProductsInStock").asInt());
+    assertEquals(7, updated.path("after").path("quantityProductsInStock").asInt());
+  }
+
+  @Test
+  public void writesOnlyChangesOfCommittedTransactions() throws Exception {
+    String rolledBack = "rolled-back-" + UUID.randomUUID();
+    String committed = "committed-" + UUID.randomUUID();
+
+    QuarkusTransaction.requiringNew().run(() -> {
+      QuarkusTransaction.setRollbackOnly();
+      auditLog.record("test", rolledBack, AuditEvent.Action.CREATE, null, Map.of("value", 1));
+    });
+    QuarkusTransaction.requiringNew().run(
+        () -> auditLog.record("test", committed, AuditEvent.Action.CREATE, null, Map.of("value", 2)));
+
+    // events are written in order, so the rolled back one would be there by now
+    JsonNode written = awaitEvents(event -> committed.equals(event.path("entityId").asText()), 1).get(0);
+    assertEquals(AuditLog.SYSTEM, written.path("actor").asText());
+    assertTrue(readEvents().stream().noneMatch(event -> rolledBack.equals(event.path("entityId").asText())));
+  }
+
+  private List<JsonNode> awaitEvents(Predicate<JsonNode> filter, int count) throws Exception {
+    long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+    List<JsonNode> matching;
+    do {
+      matching = readEvents().stream().filter(filter).toList();
+      if (matching.size() >= count) {
+        return matching;
+      }
+      Thread.sleep(50);
+    } while (System.currentTimeMillis() < deadline);
+    throw new AssertionError("expected " + count + " audit events, found " + matching);
+  }
+
+  // oldest rolled file first, so events come back in the order they were written
+  private List<JsonNode> readEvents() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listed = Files.list(Path.of(directory))) {
+      files = new ArrayList<>(listed.filter(file -> file.getFileName().toString().matches("audit(\\.\\d+)?\\.log")).toList());
+    }
+    files.sort((a, b) -> Integer.compare(rollIndex(b), rollIndex(a)));
+    List<JsonNode> events = new ArrayList<>();
+    for (Path file : files) {
+      for (String line : Files.readAllLines(file)) {
+        try {
+          events.add(objectMapper.readTree(line));
+        } catch (JsonProcessingException e) {
+          // the writer is still appending this line
+        }
+      }
+    }
+    return events;
+  }
+
+  private static int rollIndex(Path file) {
+    String[] parts = file.getFileName().toString().split("\\.");
+    return parts.length == 3 ? Integer.parseInt(parts[1]) : 0;
+  }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditRingBufferTest {
+
+  @Test
+  public void rejectsOffersWhenFullAndAcceptsThemAgainAfterDraining() {
+    AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(3);
+    assertEquals(4, buffer.capacity());
+    for (int i = 0; i < 4; i++) {
+      assertTrue(buffer.offer(i));
+    }
+    assertFalse(buffer.offer(4));
+
+    List<Integer> drained = new ArrayList<>();
+    assertEquals(2, buffer.drain(drained::add, 2));
+    assertTrue(buffer.offer(4));
+    assertEquals(3, buffer.drain(drained::add, 10));
+    assertEquals(List.of(0, 1, 2, 3, 4), drained);
+  }
+
+  @Test
+  public void concurrentProducersLoseNothingThatWasAccepted() throws InterruptedException {
+    AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+    int producers = 4;
+    int perProducer = 5_000;
+    CountDownLatch done = new CountDownLatch(producers);
+    for (int p = 0; p < producers; p++) {
+      int base = p * perProducer;
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          while (!buffer.offer(base + i)) {
+            Thread.yield();
+          }
+        }
+        done.countDown();
+      });
+      thread.start();
+    }
+
+    Set<Integer> seen = new HashSet<>();
+    while (seen.size() < producers * perProducer) {
+      if (buffer.drain(seen::add, 128) == 0) {
+        Thread.yield();
+      }
+    }
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertEquals(0, buffer.drain(seen::add, 1));
+  }
+}
@@ -0,0 +1,66 @@
+package com.fulfilment.application.monolith.common.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RotatingFileSinkTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void rollsOverAtTheSizeLimitAndKeepsOnlyMaxFiles() throws IOException {
+    try (RotatingFileSink sink = new RotatingFileSink(directory, "audit", 10, 2)) {
+      for (int i = 0; i < 4; i++) {
+        sink.write(("line-" + i).getBytes(StandardCharsets.UTF_8));
+        sink.flush();
+      }
+    }
+
+    assertEquals(List.of("line-3"), Files.readAllLines(directory.resolve("audit.log")));
+    assertEquals(List.of("line-2"), Files.readAllLines(directory.resolve("audit.1.log")));
+    assertEquals(List.of("line-1"), Files.readAllLines(directory.resolve("audit.2.log")));
+    assertFalse(Files.exists(directory.resolve("audit.3.log")));
+  }
+
+  @Test
+  public void appendsToAnExistingFile() throws IOException {
+    try (RotatingFileSink sink = new RotatingFileSink(directory, "audit", 1024, 2)) {
+      sink.write("first".getBytes(StandardCharsets.UTF_8));
+    }
+    try (RotatingFileSink sink = new RotatingFileSink(directory, "audit", 1024, 2)) {
+      sink.write("second".getBytes(StandardCharsets.UTF_8));
+    }
+
+    assertEquals(List.of("first", "second"), Files.readAllLines(directory.resolve("audit.log")));
+  }
+
+  @Test
+  public void recoversFromAFailedRollover() throws IOException {
+    // a non-empty directory in place of the rolled file cannot be replaced
+    Path blocker = Files.createDirectories(directory.resolve("audit.1.log").resolve("blocker"));
+
+    try (RotatingFileSink sink = new RotatingFileSink(directory, "audit", 10, 1)) {
+      sink.write("line-0".getBytes(StandardCharsets.UTF_8));
+      sink.flush();
+      assertThrows(IOException.class, () -> sink.write("line-1".getBytes(StandardCharsets.UTF_8)));
+
+      Files.delete(blocker);
+      Files.delete(blocker.getParent());
+      sink.write("line-2".getBytes(StandardCharsets.UTF_8));
+    }
+
+    assertEquals(List.of("line-2"), Files.readAllLines(directory.resolve("audit.log")));
+    assertEquals(List.of("line-0"), Files.readAllLines(directory.resolve("audit.1.log")));
+  }
+}
@@ -0,0 +1,51 @@
+package com.fulfilment.application.monolith.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NaturalKeyCacheTest {
+
+  @Test
+  public void countsHitsAndMisses() {
+    NaturalKeyCache cache = new NaturalKeyCache(10);
+    assertNull(cache.get("TONSTAD"));
+    cache.put("TONSTAD", 1L);
+    assertEquals(1L, cache.get("TONSTAD"));
+    assertEquals(1L, cache.get("TONSTAD"));
+
+    NaturalKeyCache.Stats stats = cache.stats();
+    assertEquals(2, stats.hits());
+    assertEquals(1, stats.misses());
+    assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+  }
+
+  @Test
+  public void evictsUnreferencedEntriesFirstWhenFull() {
+    NaturalKeyCache cache = new NaturalKeyCache(10);
+    for (long i = 0; i < 10; i++) {
+      cache.put("key-" + i, i);
+    }
+    cache.get("key-0");
+    cache.put("key-10", 10L);
+
+    NaturalKeyCache.Stats stats = cache.stats();
+    assertTrue(stats.size() <= 10);
+    assertTrue(stats.evictions() >= 1);
+    assertEquals(0L, cache.get("key-0"));
+    assertEquals(10L, cache.get("key-10"));
+  }
+
+  @Test
+  public void invalidateRemovesTheKey() {
+    NaturalKeyCache cache = new NaturalKeyCache(10);
+    cache.put("KALLAX", 2L);
+    cache.invalidate("KALLAX");
+    cache.invalidate("KALLAX");
+
+    assertNull(cache.get("KALLAX"));
+    assertEquals(1, cache.stats().invalidations());
+  }
+}
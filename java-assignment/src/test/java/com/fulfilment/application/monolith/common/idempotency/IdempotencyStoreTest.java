@@ -0,0 +1,137 @@
+package com.fulfilment.application.monolith.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.api.beans.Warehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class IdempotencyStoreTest {
+
+    @Inject
+    IdempotencyStore idempotencyStore;
+
+    @Inject
+    IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    public void whenTheSameKeyIsReplayedTheActionShouldRunOnlyOnce() {
+
+        AtomicInteger executions = new AtomicInteger();
+        Warehouse request = warehouse("IDEM.001");
+
+        Warehouse first = idempotencyStore.execute("test.create", "key-1", request, Warehouse.class, () -> {
+            executions.incrementAndGet();
+            return warehouse("IDEM.001");
+        });
+        Warehouse replayed = idempotencyStore.execute("test.create", "key-1", request, Warehouse.class, () -> {
+            executions.incrementAndGet();
+            return warehouse("SHOULD.NOT.RUN");
+        });
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getBusinessUnitCode(), replayed.getBusinessUnitCode());
+        assertEquals(1, idempotencyRecordRepository.count("id", "test.create:key-1"));
+    }
+
+    @Test
+    public void whenTheSameKeyIsReusedWithADifferentRequestItShouldFail() {
+
+        idempotencyStore.execute("test.create", "key-2", warehouse("IDEM.002"), Warehouse.class,
+                () -> warehouse("IDEM.002"));
+
+        WebApplicationException webApplicationException = assertThrows(
+                WebApplicationException.class,
+                () -> idempotencyStore.execute("test.create", "key-2", warehouse("IDEM.003"), Warehouse.class,
+                        () -> warehouse("IDEM.003"))
+        );
+
+        assertEquals(422, webApplicationException.getResponse().getStatus());
+    }
+
+    @Test
+    public void whenNoKeyIsGivenTheActionShouldRunEveryTime() {
+
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyStore.execute("test.create", null, warehouse("IDEM.004"), Warehouse.class, () -> {
+            executions.incrementAndGet();
+            return warehouse("IDEM.004");
+        });
+        idempotencyStore.execute("test.create", null, warehouse("IDEM.004"), Warehouse.class, () -> {
+            executions.incrementAndGet();
+            return warehouse("IDEM.004");
+        });
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void whenAnotherNodeHoldsTheKeyTheRetryShouldWaitAndReplayItsResponse() throws Exception {
+
+        Warehouse request = warehouse("IDEM.005");
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+
+        // the first attempt, as another node would run it, commits while the retry is waiting
+        CountDownLatch claimed = new CountDownLatch(1);
+        ExecutorService otherNode = Executors.newSingleThreadExecutor();
+        Future<?> firstAttempt = otherNode.submit(() -> QuarkusTransaction.requiringNew().run(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            idempotencyRecordRepository.claim("test.create:key-5", hash, now, now.plusHours(1));
+            try {
+                idempotencyRecordRepository.complete("test.create:key-5",
+                        objectMapper.writeValueAsString(warehouse("IDEM.005")));
+                claimed.countDown();
+                Thread.sleep(300);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        try {
+            assertTrue(claimed.await(30, TimeUnit.SECONDS));
+
+            AtomicInteger executions = new AtomicInteger();
+            Warehouse replayed = idempotencyStore.execute("test.create", "key-5", request, Warehouse.class, () -> {
+                executions.incrementAndGet();
+                throw new WebApplicationException("already exists", 409);
+            });
+
+            assertEquals(0, executions.get());
+            assertEquals("IDEM.005", replayed.getBusinessUnitCode());
+        } finally {
+            firstAttempt.get(30, TimeUnit.SECONDS);
+            otherNode.shutdown();
+        }
+    }
+
+    private static Warehouse warehouse(String businessUnitCode) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode(businessUnitCode);
+        warehouse.setLocation("AMSTERDAM-001");
+        warehouse.setCapacity(10);
+        warehouse.setStock(5);
+        return warehouse;
+    }
+}
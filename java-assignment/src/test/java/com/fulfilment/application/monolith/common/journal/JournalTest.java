@@ -0,0 +1,137 @@
+package com.fulfilment.application.monolith.common.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void testRecordsShouldBeReadBackInOrderAcrossSegments() throws Exception {
+    List<CompletableFuture<Long>> appends = new ArrayList<>();
+    try (Journal journal = Journal.open(directory, "test", 64, 16)) {
+      for (int i = 0; i < 20; i++) {
+        appends.add(journal.append(payload(i)));
+      }
+      for (int i = 0; i < 20; i++) {
+        assertEquals(i, appends.get(i).join());
+      }
+
+      List<JournalRecord> records = journal.reader().read(0, 100);
+      assertEquals(20, records.size());
+      for (int i = 0; i < 20; i++) {
+        assertEquals(i, records.get(i).sequence());
+        assertArrayEquals(payload(i), records.get(i).payload());
+      }
+    }
+    assertTrue(Journal.Segment.list(directory, "test").size() > 1);
+  }
+
+  @Test
+  public void testReadShouldStartAtTheRequestedSequence() throws Exception {
+    try (Journal journal = Journal.open(directory, "test", 64, 16)) {
+      for (int i = 0; i < 10; i++) {
+        journal.appendAndSync(payload(i));
+      }
+
+      List<JournalRecord> records = journal.reader().read(7, 2);
+
+      assertEquals(2, records.size());
+      assertEquals(7, records.get(0).sequence());
+      assertArrayEquals(payload(8), records.get(1).payload());
+    }
+  }
+
+  @Test
+  public void testReopenedJournalShouldContinueAfterTheLastIntactRecord() throws Exception {
+    try (Journal journal = Journal.open(directory, "test", 1024, 16)) {
+      journal.appendAndSync(payload(0));
+      journal.appendAndSync(payload(1));
+    }
+    // simulate a torn write: a header promising more bytes than were written
+    Path segment = Journal.Segment.list(directory, "test").get(0).path();
+    long end = 2L * (Journal.HEADER_BYTES + payload(0).length);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(8).putInt(0, 5).putInt(4, 42), end);
+    }
+
+    try (Journal journal = Journal.open(directory, "test", 1024, 16)) {
+      assertEquals(2, journal.appendAndSync(payload(2)));
+
+      List<JournalRecord> records = JournalReader.open(directory, "test").read(0, 10);
+      assertEquals(3, records.size());
+      assertArrayEquals(payload(2), records.get(2).payload());
+    }
+  }
+
+  @Test
+  public void testAcknowledgedSegmentsShouldBeDeletedWhenANewSegmentStarts() throws Exception {
+    // records 0-9 take 16 bytes, so 4 fit in a segment; from 10 on they take 17
+    try (Journal journal = Journal.open(directory, "test", 64, 16)) {
+      for (int i = 0; i < 10; i++) {
+        journal.appendAndSync(payload(i));
+      }
+      JournalReader reader = journal.reader();
+      reader.acknowledge(9);
+      reader.acknowledge(5);
+      assertEquals(List.of(0L, 4L, 8L), firstSequences());
+
+      for (int i = 10; i < 13; i++) {
+        journal.appendAndSync(payload(i));
+      }
+
+      // 0-3 and 4-7 are acknowledged; 8 is not, so its segment stays
+      assertEquals(List.of(8L, 11L), firstSequences());
+      List<JournalRecord> records = reader.read(0, 100);
+      assertEquals(8, records.get(0).sequence());
+      assertEquals(5, records.size());
+    }
+  }
+
+  @Test
+  public void testReopenedJournalShouldDeleteSegmentsAcknowledgedMeanwhile() throws Exception {
+    try (Journal journal = Journal.open(directory, "test", 64, 16)) {
+      for (int i = 0; i < 10; i++) {
+        journal.appendAndSync(payload(i));
+      }
+    }
+    JournalReader.open(directory, "test").acknowledge(10);
+
+    try (Journal journal = Journal.open(directory, "test", 64, 16)) {
+      assertEquals(List.of(8L), firstSequences());
+      assertEquals(10, journal.appendAndSync(payload(10)));
+    }
+  }
+
+  @Test
+  public void testOversizedRecordShouldBeRejected() throws Exception {
+    try (Journal journal = Journal.open(directory, "test", 64, 16)) {
+      assertThrows(IllegalArgumentException.class, () -> journal.appendAndSync(new byte[64]));
+      assertThrows(IllegalArgumentException.class, () -> journal.appendAndSync(new byte[0]));
+    }
+  }
+
+  private List<Long> firstSequences() throws Exception {
+    return Journal.Segment.list(directory, "test").stream().map(Journal.Segment::firstSequence).toList();
+  }
+
+  private static byte[] payload(int i) {
+    return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.common.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+  @Test
+  public void expiresEveryItemAtItsDeadlineTick() {
+    Random random = new Random(42);
+    int items = 5_000;
+    // the item is its own deadline; up to 250k ticks spans all three levels
+    TimingWheel<Long> encoded = new TimingWheel<>(10, 3, 0);
+    for (int i = 0; i < items; i++) {
+      long deadline = random.nextInt(2_500_000);
+      encoded.schedule(deadline, deadline);
+    }
+
+    List<Long> expired = new ArrayList<>();
+    long now = 0;
+    while (encoded.size() > 0) {
+      now += 1 + random.nextInt(500);
+      long at = now;
+      encoded.advance(now, deadline -> {
+        assertTrue(deadline <= at, "expired early: " + deadline + " at " + at);
+        assertTrue(deadline > at - 510, "expired late: " + deadline + " at " + at);
+        expired.add(deadline);
+      });
+    }
+    assertEquals(items, expired.size());
+  }
+
+  @Test
+  public void parksItemsBeyondItsRangeUntilTheyAreDue() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 1, 0);
+    wheel.schedule("far", 1_000);
+    List<String> expired = new ArrayList<>();
+
+    wheel.advance(999, expired::add);
+    assertTrue(expired.isEmpty());
+    wheel.advance(1_000, expired::add);
+    assertEquals(List.of("far"), expired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void expiresPastDeadlinesOnTheNextTick() {
+    TimingWheel<String> wheel = new TimingWheel<>(100, 2, 1_000);
+    wheel.schedule("late", 500);
+    List<String> expired = new ArrayList<>();
+
+    wheel.advance(1_099, expired::add);
+    assertTrue(expired.isEmpty());
+    wheel.advance(1_100, expired::add);
+    assertEquals(List.of("late"), expired);
+  }
+}
@@ -19,6 +19,7 @@ import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @QuarkusTest
 public class FulfilmentResourceTest {
@@ -211,4 +212,49 @@ public class FulfilmentResourceTest {
                 .then()
                 .statusCode(404);
     }
+
+    @Test
+    public void testDeleteStore_removesItsFulfilments() {
+        FulfilmentRequest request = new FulfilmentRequest();
+        request.productId = products.get(0).id;
+        request.warehouseId = warehouse1.id;
+        request.storeId = store.id;
+        given().contentType("application/json").body(request).when().post("/fulfilment").then().statusCode(201);
+        request.warehouseId = warehouse2.id;
+        given().contentType("application/json").body(request).when().post("/fulfilment").then().statusCode(201);
+
+        given()
+                .contentType("application/json")
+                .body(List.of(store.id))
+                .when()
+                .post("/store/bulk-delete")
+                .then()
+                .statusCode(200)
+                .body("deleted", is(1))
+                .body("fulfilmentsDeleted", is(2));
+
+        assertEquals(0, fulfilmentRepository.count("store.id", store.id));
+        given().when().delete("/store/" + store.id).then().statusCode(404);
+    }
+
+    @Test
+    public void testStoreInventory_followsAddedFulfilments() {
+        FulfilmentRequest request = new FulfilmentRequest();
+        request.productId = products.get(0).id;
+        request.warehouseId = warehouse1.id;
+        request.storeId = store.id;
+        given().contentType("application/json").body(request).when().post("/fulfilment").then().statusCode(201);
+        request.warehouseId = warehouse2.id;
+        given().contentType("application/json").body(request).when().post("/fulfilment").then().statusCode(201);
+        request.productId = products.get(1).id;
+        given().contentType("application/json").body(request).when().post("/fulfilment").then().statusCode(201);
+
+        given()
+                .when()
+                .get("/store/" + store.id + "/inventory")
+                .then()
+                .statusCode(200)
+                .body("productsServed", is(2))
+                .body("servingWarehouses", is(2));
+    }
 }
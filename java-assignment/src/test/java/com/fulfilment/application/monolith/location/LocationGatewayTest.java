@@ -2,13 +2,31 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LocationGatewayTest {
 
-  private final LocationGateway locationGateway = new LocationGateway();
+  private final LocationGateway locationGateway = gateway();
+
+  private static LocationGateway gateway() {
+    LocationGateway gateway = new LocationGateway();
+    gateway.init();
+    return gateway;
+  }
 
   @Test
   public void testWhenResolveExistingLocationShouldReturn() {
@@ -25,4 +43,56 @@ public class LocationGatewayTest {
   public void testWhenResolveLocationAsNullShouldReturnNull() {
     assertNull(locationGateway.resolveByIdentifier(null));
   }
+
+  @Test
+  public void testWhenResolvingInBatchShouldLeaveOutUnknownIdentifiers() {
+    Map<String, Location> resolved =
+        locationGateway.resolveAll(List.of("ZWOLLE-001", "NOLOCATION-001", "TILBURG-001"));
+
+    assertEquals(2, resolved.size());
+    assertEquals("TILBURG-001", resolved.get("TILBURG-001").identification);
+  }
+
+  @Test
+  public void testWhenFindingByPrefixShouldReturnMatchesInOrder() {
+    List<Location> amsterdam = locationGateway.findByPrefix("AMSTERDAM-", 10);
+
+    assertEquals(List.of("AMSTERDAM-001", "AMSTERDAM-002"),
+        amsterdam.stream().map(l -> l.identification).toList());
+    assertEquals(1, locationGateway.findByPrefix("AMSTERDAM-", 1).size());
+    assertTrue(locationGateway.findByPrefix("UTRECHT-", 10).isEmpty());
+    assertEquals(8, locationGateway.findByPrefix("", 100).size());
+    assertEquals(2, locationGateway.catalog().countByPrefix("ZWOLLE-"));
+  }
+
+  @Test
+  public void testWhenCatalogFileIsReloadedShouldSwapInNewLocations(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("locations.csv");
+    Files.writeString(file, """
+        identification,maxNumberOfWarehouses,maxCapacity,latitude,longitude
+        UTRECHT-001,2,60,52.0907,5.1214
+        """);
+    LocationGateway gateway = new LocationGateway();
+    gateway.catalogPath = Optional.of(file.toString());
+
+    assertTrue(gateway.reload());
+    assertEquals(60, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+    assertNull(gateway.resolveByIdentifier("ZWOLLE-001"));
+  }
+
+  @Test
+  public void testWhenCatalogFileIsMalformedShouldKeepCurrentCatalog(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("locations.csv");
+    Files.writeString(file, """
+        identification,maxNumberOfWarehouses,maxCapacity,latitude,longitude
+        UTRECHT-001,two,60,52.0907,5.1214
+        """);
+    LocationGateway gateway = gateway();
+    LocationCatalog before = gateway.catalog();
+    gateway.catalogPath = Optional.of(file.toString());
+
+    assertFalse(gateway.reload());
+    assertSame(before, gateway.catalog());
+    assertNotNull(gateway.resolveByIdentifier("ZWOLLE-001"));
+  }
 }
@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocationKdTreeTest {
+
+  @Test
+  public void testNearestToAmsterdamShouldReturnAmsterdamLocationsFirst() {
+    LocationGateway gateway = new LocationGateway();
+    gateway.init();
+    LocationKdTree tree = LocationKdTree.build(gateway.allLocations());
+
+    List<Location> nearest = tree.nearest(52.37, 4.90, 2);
+
+    assertEquals("AMSTERDAM-001", nearest.get(0).identification);
+    assertEquals("AMSTERDAM-002", nearest.get(1).identification);
+  }
+
+  @Test
+  public void testLocationsWithoutCoordinatesShouldBeSkipped() {
+    LocationKdTree tree = LocationKdTree.build(List.of(
+        new Location("NOWHERE-001", 1, 10),
+        new Location("ZWOLLE-001", 1, 40, 52.5168, 6.0830)));
+
+    assertEquals(1, tree.size());
+    assertEquals("ZWOLLE-001", tree.nearest(0, 0, 5).get(0).identification);
+  }
+
+  @Test
+  public void testNearestShouldMatchBruteForce() {
+    Random random = new Random(42);
+    List<Location> locations = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      locations.add(new Location("LOC-" + i, 1, 10,
+          random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+    }
+    LocationKdTree tree = LocationKdTree.build(locations);
+
+    for (int q = 0; q < 50; q++) {
+      double lat = random.nextDouble() * 180 - 90;
+      double lon = random.nextDouble() * 360 - 180;
+      List<Location> expected = locations.stream()
+          .sorted(Comparator.comparingDouble(l -> LocationKdTree.distanceKm(lat, lon, l.latitude, l.longitude)))
+          .limit(10)
+          .toList();
+
+      List<Double> distances = new ArrayList<>();
+      List<Location> actual = new ArrayList<>();
+      tree.visitNearest(lat, lon, (location, distanceKm) -> {
+        actual.add(location);
+        distances.add(distanceKm);
+        return actual.size() < 10;
+      });
+
+      assertEquals(expected, actual);
+      for (int i = 1; i < distances.size(); i++) {
+        assertTrue(distances.get(i - 1) <= distances.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LocationResourceTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void testLocationWithoutCoordinatesShouldBeWrittenWithoutThem() throws Exception {
+    String json = objectMapper.writeValueAsString(LocationResource.LocationView.of(new Location("NOWHERE-001", 1, 10)));
+
+    assertEquals("{\"identification\":\"NOWHERE-001\",\"maxNumberOfWarehouses\":1,\"maxCapacity\":10}", json);
+  }
+
+  @Test
+  public void testLocationWithCoordinatesShouldBeWrittenWithThem() throws Exception {
+    String json = objectMapper.writeValueAsString(
+        LocationResource.LocationView.of(new Location("ZWOLLE-001", 1, 40, 52.5168, 6.083)));
+
+    assertEquals("{\"identification\":\"ZWOLLE-001\",\"maxNumberOfWarehouses\":1,\"maxCapacity\":40,"
+        + "\"latitude\":52.5168,\"longitude\":6.083}", json);
+  }
+}
@@ -7,6 +7,7 @@ import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
@@ -245,4 +246,278 @@ public class ProductEndpointTest {
                 .body("error", is("Product with id of " + updateProduct.id + " does not exist."));
 
     }
+
+    @Test
+    void getByName_shouldNotReturnTheOldName_afterRename() {
+        Product product = new Product("HEMNES");
+        product.price = BigDecimal.TEN;
+        product.stock = 4;
+
+        long id = given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .post(path)
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        given().when().get(path + "/by-name/HEMNES").then().statusCode(200);
+
+        product.name = "HEMNES_RENAMED";
+        given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .put(path + "/" + id)
+                .then()
+                .statusCode(200);
+
+        given()
+                .when()
+                .get(path + "/by-name/HEMNES")
+                .then()
+                .statusCode(404)
+                .body("error", is("Product with name HEMNES does not exist."));
+        given().when().get(path + "/by-name/HEMNES_RENAMED").then().statusCode(200);
+    }
+
+    @Test
+    void stockAdjustments_shouldApplyDeltasAndRejectNegativeStock() {
+        Product product = new Product("LACK");
+        product.price = BigDecimal.ONE;
+        product.stock = 3;
+
+        long id = given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .post(path)
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new StockAdjustment(null, -2))
+                .when()
+                .post(path + "/" + id + "/stock-adjustments")
+                .then()
+                .statusCode(200)
+                .body("stock", is(1));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new StockAdjustment(null, -2))
+                .when()
+                .post(path + "/" + id + "/stock-adjustments")
+                .then()
+                .statusCode(409)
+                .body("error", is("Insufficient stock for product with id of " + id + "."));
+
+        // all or nothing: the missing product rolls back the adjustment of LACK
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(new StockAdjustment(id, 4), new StockAdjustment(999999L, 1)))
+                .when()
+                .post(path + "/stock-adjustments")
+                .then()
+                .statusCode(404);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(new StockAdjustment(id, 4), new StockAdjustment(id, -1)))
+                .when()
+                .post(path + "/stock-adjustments")
+                .then()
+                .statusCode(200)
+                .body("[0].stock", is(4));
+    }
+
+    @Test
+    void stockAdjustments_shouldRejectOutOfRangeDeltasAndStock() {
+        Product product = new Product("IVAR");
+        product.price = BigDecimal.ONE;
+        product.stock = Integer.MAX_VALUE - 10;
+
+        long id = given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .post(path)
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new StockAdjustment(null, ProductResource.MAX_STOCK_DELTA + 1))
+                .when()
+                .post(path + "/" + id + "/stock-adjustments")
+                .then()
+                .statusCode(422);
+
+        // would overflow the stock column
+        given()
+                .contentType(ContentType.JSON)
+                .body(new StockAdjustment(null, 11))
+                .when()
+                .post(path + "/" + id + "/stock-adjustments")
+                .then()
+                .statusCode(422);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(new StockAdjustment(id, 6), new StockAdjustment(id, 5)))
+                .when()
+                .post(path + "/stock-adjustments")
+                .then()
+                .statusCode(422)
+                .body("error", is("Stock of products with ids [" + id + "] would exceed " + Integer.MAX_VALUE + "."));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new StockAdjustment(null, 10))
+                .when()
+                .post(path + "/" + id + "/stock-adjustments")
+                .then()
+                .statusCode(200)
+                .body("stock", is(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void reservations_shouldHoldStockUntilConfirmedOrReleased() {
+        Product product = new Product("POÄNG");
+        product.price = BigDecimal.ONE;
+        product.stock = 5;
+
+        long id = given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .post(path)
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        long confirmed = given()
+                .contentType(ContentType.JSON)
+                .body(new ReservationRequest(3, 60L))
+                .when()
+                .post(path + "/" + id + "/reservations")
+                .then()
+                .statusCode(201)
+                .body("quantity", is(3))
+                .extract()
+                .jsonPath().getLong("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new ReservationRequest(3, 60L))
+                .when()
+                .post(path + "/" + id + "/reservations")
+                .then()
+                .statusCode(409)
+                .body("error", is("Insufficient available stock for product with id of " + id + "."));
+
+        long released = given()
+                .contentType(ContentType.JSON)
+                .body(new ReservationRequest(2, 60L))
+                .when()
+                .post(path + "/" + id + "/reservations")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        given()
+                .when()
+                .get(path + "/" + id + "/availability")
+                .then()
+                .statusCode(200)
+                .body("stock", is(5))
+                .body("reserved", is(5))
+                .body("available", is(0));
+
+        // reserved stock cannot be taken out or overwritten
+        given()
+                .contentType(ContentType.JSON)
+                .body(new StockAdjustment(null, -1))
+                .when()
+                .post(path + "/" + id + "/stock-adjustments")
+                .then()
+                .statusCode(409);
+        product.stock = 4;
+        given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .put(path + "/" + id)
+                .then()
+                .statusCode(409)
+                .body("error", is("Stock of product with id of " + id + " cannot go below the 5 reserved."));
+
+        given().when().post(path + "/reservations/" + confirmed + "/confirm").then().statusCode(200).body("stock", is(2));
+        given().when().delete(path + "/reservations/" + released).then().statusCode(204);
+        given().when().delete(path + "/reservations/" + released).then().statusCode(404);
+
+        given()
+                .when()
+                .get(path + "/" + id + "/availability")
+                .then()
+                .statusCode(200)
+                .body("stock", is(2))
+                .body("reserved", is(0))
+                .body("available", is(2));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new ReservationRequest(1, 0L))
+                .when()
+                .post(path + "/" + id + "/reservations")
+                .then()
+                .statusCode(422);
+    }
+
+    @Test
+    void reservations_shouldExpireAfterTheirTtl() throws InterruptedException {
+        Product product = new Product("STRANDMON");
+        product.price = BigDecimal.ONE;
+        product.stock = 2;
+
+        long id = given()
+                .contentType(ContentType.JSON)
+                .body(product)
+                .when()
+                .post(path)
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        long expiring = given()
+                .contentType(ContentType.JSON)
+                .body(new ReservationRequest(2, 1L))
+                .when()
+                .post(path + "/" + id + "/reservations")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath().getLong("id");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        int reserved;
+        do {
+            Thread.sleep(100);
+            reserved = given().when().get(path + "/" + id + "/availability").then().statusCode(200)
+                    .extract().jsonPath().getInt("reserved");
+        } while (reserved > 0 && System.currentTimeMillis() < deadline);
+
+        assertEquals(0, reserved);
+        given().when().post(path + "/reservations/" + expiring + "/confirm").then().statusCode(404);
+    }
 }
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class LegacyStoreDigestTest {
+
+  @Test
+  public void fingerprintIsStable() {
+    assertEquals(LegacyStoreDigest.fingerprint(1L, "TONSTAD", 10), LegacyStoreDigest.fingerprint(1L, "TONSTAD", 10));
+  }
+
+  @Test
+  public void fingerprintChangesWithEveryField() {
+    long base = LegacyStoreDigest.fingerprint(1L, "TONSTAD", 10);
+    assertNotEquals(base, LegacyStoreDigest.fingerprint(2L, "TONSTAD", 10));
+    assertNotEquals(base, LegacyStoreDigest.fingerprint(1L, "TONSTAE", 10));
+    assertNotEquals(base, LegacyStoreDigest.fingerprint(1L, "TONSTAD", 11));
+  }
+}
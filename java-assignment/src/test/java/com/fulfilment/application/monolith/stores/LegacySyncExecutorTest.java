@@ -0,0 +1,130 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LegacySyncExecutorTest {
+
+  private LegacySyncExecutor executor;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    executor.stop();
+  }
+
+  @Test
+  public void testFullQueueShouldRefuseCallsWhenSpilling() throws Exception {
+    executor = executor(1, 1, LegacySyncExecutor.OverflowPolicy.SPILL, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch running = new CountDownLatch(1);
+
+    CompletableFuture<Void> first = executor.submit("legacy", false, () -> {
+      running.countDown();
+      await(release);
+    });
+    running.await(5, TimeUnit.SECONDS);
+    CompletableFuture<Void> queued = executor.submit("legacy", false, () -> {});
+
+    assertThrows(RejectedExecutionException.class, () -> executor.submit("legacy", false, () -> {}));
+    release.countDown();
+    first.join();
+    queued.join();
+
+    LegacySyncExecutor.Metrics metrics = executor.metrics();
+    assertEquals(2, metrics.submitted());
+    assertEquals(2, metrics.succeeded());
+    assertEquals(1, metrics.spilled());
+  }
+
+  @Test
+  public void testCallsToOneTargetShouldNotExceedItsConcurrencyLimit() throws Exception {
+    executor = executor(4, 64, LegacySyncExecutor.OverflowPolicy.BLOCK, 2);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+
+    CompletableFuture<?>[] calls = new CompletableFuture<?>[20];
+    for (int i = 0; i < calls.length; i++) {
+      calls[i] = executor.submit("legacy", false, () -> {
+        peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        sleep(5);
+        inFlight.decrementAndGet();
+      });
+    }
+    CompletableFuture.allOf(calls).join();
+
+    assertTrue(peak.get() <= 2, "peak " + peak.get());
+  }
+
+  @Test
+  public void testASlowTargetShouldNotHoldWorkersOfOtherTargets() throws Exception {
+    executor = executor(2, 64, LegacySyncExecutor.OverflowPolicy.BLOCK, 1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<?>[] slow = new CompletableFuture<?>[3];
+    for (int i = 0; i < slow.length; i++) {
+      slow[i] = executor.submit("slow", false, () -> await(release));
+    }
+    CompletableFuture<Void> fast = executor.submit("fast", false, () -> {});
+
+    // one worker runs a slow call, the other slow calls wait without a worker
+    fast.get(5, TimeUnit.SECONDS);
+    assertEquals(2, executor.metrics().queueDepth());
+    release.countDown();
+    CompletableFuture.allOf(slow).get(5, TimeUnit.SECONDS);
+    assertEquals(4, executor.metrics().succeeded());
+  }
+
+  @Test
+  public void testFailedCallsShouldBeCounted() {
+    executor = executor(1, 4, LegacySyncExecutor.OverflowPolicy.BLOCK, 1);
+
+    CompletableFuture<Void> call = executor.submit("legacy", true, () -> {
+      throw new IllegalStateException("legacy down");
+    });
+
+    assertThrows(CompletionException.class, call::join);
+    // recorded before the call completes
+    LegacySyncExecutor.Metrics metrics = executor.metrics();
+    assertEquals(1, metrics.failed());
+    assertEquals(1, metrics.retried());
+    assertEquals(1, metrics.execution().count());
+  }
+
+  private static LegacySyncExecutor executor(int threads, int queueCapacity, LegacySyncExecutor.OverflowPolicy policy,
+                                             int perTarget) {
+    LegacySyncExecutor executor = new LegacySyncExecutor();
+    executor.threads = threads;
+    executor.queueCapacity = queueCapacity;
+    executor.overflowPolicy = policy;
+    executor.maxConcurrencyPerTarget = perTarget;
+    executor.start();
+    return executor;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,17 +1,27 @@
 package com.fulfilment.application.monolith.stores;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
@@ -19,11 +29,27 @@ import static org.mockito.Mockito.*;
 @QuarkusTest
 class StoreEndpointTest {
 
+    // The outbox drainer polls every 500ms, so a sync queued by mistake shows up within this window.
+    private static final long SYNC_WAIT_MILLIS = 1500;
+
     @InjectMock
     private LegacyStoreManagerGateway legacyGateway;
 
+    @Inject
+    private StoreSyncOutboxRepository outbox;
+
     private final String path = "store";
 
+    @BeforeEach
+    public void awaitSyncsOfEarlierTests() throws InterruptedException {
+        // an entry is deleted only once it was sent, so none of them can reach the legacy system later
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (QuarkusTransaction.requiringNew().call(outbox::count) > 0) {
+            assertFalse(System.nanoTime() > deadline, "store syncs of earlier tests were not sent");
+            Thread.sleep(50);
+        }
+        clearInvocations(legacyGateway);
+    }
 
     @Test
     public void givenThereAreRecordsInDatabaseWhenUserQueriesThemAllRecordsShouldBeReturned() {
@@ -37,7 +63,7 @@ class StoreEndpointTest {
                 .body(containsString("TONSTAD"), containsString("KALLAX"), containsString("BESTÅ"));
 
         // ensure create wasn't called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
         // also ensure update wasn't called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
 
@@ -66,7 +92,7 @@ class StoreEndpointTest {
                 .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
 
         // ensure create wasn't called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
         // also ensure update wasn't called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
 
@@ -101,7 +127,7 @@ class StoreEndpointTest {
         assertEquals("LONDON_UK", getResponse.jsonPath().getString("name"));
         assertEquals(100, getResponse.jsonPath().getInt("quantityProductsInStock"));
 
-        // Because AFTER_SUCCESS runs after commit, it might be invoked very shortly after response.
+        // The outbox drainer sends the sync in the background, shortly after the response.
         // Mockito's timeout() gives it a small window.
         verify(legacyGateway, timeout(2000).times(1))
                 .createStoreOnLegacySystem(argThat(s ->
@@ -111,7 +137,7 @@ class StoreEndpointTest {
                 ));
 
         // also ensure update wasn't called
-        verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).updateStoreOnLegacySystem(any());
 
     }
 
@@ -132,7 +158,7 @@ class StoreEndpointTest {
                 .body("error", is("Id was invalidly set on request."));
 
         // ensure create wasn't called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
         // also ensure update wasn't called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
 
@@ -152,7 +178,7 @@ class StoreEndpointTest {
                 .body("error", is("Store with id of " + invalidId + " does not exist."));
 
         // ensure create wasn't called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
         // also ensure update wasn't called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
 
@@ -274,7 +300,7 @@ class StoreEndpointTest {
                 ));
 
         //As we updated the record rolled back legacy gateway should not be called
-        verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).updateStoreOnLegacySystem(any());
 
     }
 
@@ -298,7 +324,7 @@ class StoreEndpointTest {
 
 
         //As we updated the record rolled back legacy gateway should not be called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
 
         //As we updated the record rolled back legacy gateway should not be called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
@@ -325,7 +351,7 @@ class StoreEndpointTest {
 
 
         //As we updated the record rolled back legacy gateway should not be called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
 
         //As we updated the record rolled back legacy gateway should not be called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
@@ -352,7 +378,7 @@ class StoreEndpointTest {
 
 
         //As we updated the record rolled back legacy gateway should not be called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
 
         //As we updated the record rolled back legacy gateway should not be called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
@@ -439,12 +465,110 @@ class StoreEndpointTest {
 
 
         //As we updated the record rolled back legacy gateway should not be called
-        verify(legacyGateway, never()).createStoreOnLegacySystem(any());
+        verify(legacyGateway, after(SYNC_WAIT_MILLIS).never()).createStoreOnLegacySystem(any());
 
         //As we updated the record rolled back legacy gateway should not be called
         verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
 
     }
 
+    @Test
+    public void givenThereAreRecordsInDatabaseWhenUserPagesThroughThemThenEveryStoreShouldBeReturnedOnce() {
+
+        // initial data, in name order: BESTÅ, KALLAX, TONSTAD
+        ExtractableResponse<Response> first = given()
+                .when()
+                .get(path + "/page?limit=1&fields=name")
+                .then()
+                .statusCode(200)
+                .extract();
+
+        List<Map<String, Object>> firstItems = first.jsonPath().getList("items");
+        assertEquals(1, firstItems.size());
+        assertEquals(Map.of("name", "BESTÅ"), firstItems.get(0));
+        String cursor = first.jsonPath().getString("nextCursor");
+
+        given()
+                .when()
+                .get(path + "/page?limit=1&cursor=" + cursor)
+                .then()
+                .statusCode(200)
+                .body("items[0].name", is("KALLAX"));
+
+        given()
+                .when()
+                .get(path + "/page?fields=owner")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void givenThereAreRecordsInDatabaseWhenUserStreamsThemThenOneJsonLinePerStoreShouldBeReturned() {
+
+        String body = given()
+                .accept("application/x-ndjson")
+                .when()
+                .get(path + "/stream?fields=id,name")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        List<String> lines = body.lines().toList();
+        assertTrue(lines.size() >= 2);
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"KALLAX\"")));
+        assertTrue(lines.stream().noneMatch(line -> line.contains("quantityProductsInStock")));
+    }
+
+    @Test
+    public void givenNewAndExistingStoresWhenUserUpsertsThemInBulkThenEachShouldBeCreatedOrUpdatedAndSynced() {
+
+        Store created = new Store("PARIS_BULK");
+        created.quantityProductsInStock = 7;
+        Store updated = new Store("KALLAX");
+        updated.quantityProductsInStock = 42;
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(created, updated))
+                .when()
+                .post(path + "/bulk")
+                .then()
+                .statusCode(200)
+                .body("created", is(1))
+                .body("updated", is(1));
+
+        given()
+                .when()
+                .get(path + "/2")
+                .then()
+                .statusCode(200)
+                .body("quantityProductsInStock", is(42));
 
-}
\ No newline at end of file
+        verify(legacyGateway, timeout(2000).times(1))
+                .createStoreOnLegacySystem(argThat(s -> s != null && "PARIS_BULK".equals(s.name)));
+        verify(legacyGateway, timeout(2000).times(1))
+                .updateStoreOnLegacySystem(argThat(s -> s != null && "KALLAX".equals(s.name) && s.quantityProductsInStock == 42));
+    }
+
+    @Test
+    public void givenStoreNameWhenUserLooksItUpTwiceThenSecondLookupShouldHitTheNameCache() {
+
+        given().when().get(path + "/by-name/BESTÅ").then().statusCode(200).body("id", is(3));
+        given().when().get(path + "/by-name/BESTÅ").then().statusCode(200).body("id", is(3));
+
+        given()
+                .when()
+                .get(path + "/name-cache/stats")
+                .then()
+                .statusCode(200)
+                .body("hits", greaterThanOrEqualTo(1));
+
+        given()
+                .when()
+                .get(path + "/by-name/NO_SUCH_STORE")
+                .then()
+                .statusCode(404)
+                .body("error", is("Store with name NO_SUCH_STORE does not exist."));
+    }
+}
@@ -0,0 +1,103 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reconciles the three stores of import.sql against a digest set up by hand, two stores per batch.
+ */
+@QuarkusTest
+@TestProfile(StoreReconciliationTest.SmallBatchProfile.class)
+class StoreReconciliationTest {
+
+    public static class SmallBatchProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // queued syncs stay in the outbox for the test to look at
+            return Map.of(
+                    "store.reconcile.batch-size", "2",
+                    "store.sync.coalesce-window", "PT1H",
+                    "store.sync.outbox.poll-interval", "1h");
+        }
+    }
+
+    @Inject
+    private StoreReconciliation reconciliation;
+
+    @Inject
+    private LegacyStoreDigest digest;
+
+    @Inject
+    private StoreSyncOutboxRepository outbox;
+
+    @Test
+    public void givenAnInterruptedRunThenItShouldResumeFromTheCheckpointAndResyncOnlyTheDifferences() throws Exception {
+
+        // the legacy system has TONSTAD as it is, an older KALLAX, no BESTÅ, and a store deleted since
+        QuarkusTransaction.requiringNew().run(() -> {
+            digest.received(StoreLegacySyncType.CREATE, 1L, "TONSTAD", 10);
+            digest.received(StoreLegacySyncType.CREATE, 2L, "KALLAX", 1);
+            digest.received(StoreLegacySyncType.UPDATE, 2L, "KALLAX", 4);
+            digest.received(StoreLegacySyncType.CREATE, 999L, "GONE", 1);
+        });
+
+        // one batch, then the run stops
+        QuarkusTransaction.requiringNew().run(reconciliation::begin);
+        assertTrue(QuarkusTransaction.requiringNew().call(reconciliation::reconcileBatch));
+
+        assertEquals(Map.of(2L, StoreLegacySyncType.UPDATE), queued());
+        StoreReconciliation.Status interrupted = reconciliation.status();
+        assertEquals(2, interrupted.lastStoreId());
+        assertEquals(2, interrupted.scanned());
+        assertEquals(1, interrupted.resynced());
+        assertNull(interrupted.finishedAt());
+
+        // TONSTAD was compared before the interruption, so the resumed run does not see this
+        QuarkusTransaction.requiringNew().run(() -> digest.received(StoreLegacySyncType.UPDATE, 1L, "TONSTAD", 9));
+
+        assertTrue(reconciliation.start());
+        StoreReconciliation.Status finished = awaitFinished();
+
+        assertEquals(Map.of(
+                2L, StoreLegacySyncType.UPDATE,
+                3L, StoreLegacySyncType.CREATE,
+                999L, StoreLegacySyncType.DELETE), queued());
+        assertEquals(interrupted.startedAt(), finished.startedAt());
+        assertEquals(3, finished.lastStoreId());
+        assertEquals(4, finished.scanned());
+        assertEquals(3, finished.resynced());
+    }
+
+    private StoreReconciliation.Status awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        StoreReconciliation.Status status;
+        while (true) {
+            status = reconciliation.status();
+            if (!status.running() && status.finishedAt() != null) {
+                return status;
+            }
+            assertFalse(System.nanoTime() > deadline, "reconciliation did not finish: " + status);
+            Thread.sleep(50);
+        }
+    }
+
+    private Map<Long, StoreLegacySyncType> queued() {
+        Map<Long, StoreLegacySyncType> types = new HashMap<>();
+        QuarkusTransaction.requiringNew().run(() -> outbox.listAll().forEach(
+                entry -> assertNull(types.put(entry.storeId, entry.type), "queued twice: " + entry.storeId)));
+        return types;
+    }
+}
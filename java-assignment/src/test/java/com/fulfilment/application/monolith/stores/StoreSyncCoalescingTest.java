@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@QuarkusTest
+@TestProfile(StoreSyncCoalescingTest.CoalescingProfile.class)
+class StoreSyncCoalescingTest {
+
+    public static class CoalescingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("store.sync.coalesce-window", "1s");
+        }
+    }
+
+    @InjectMock
+    private LegacyStoreManagerGateway legacyGateway;
+
+    private final String path = "store";
+
+    @Test
+    public void givenAStoreChangedSeveralTimesWithinTheWindowThenLegacySystemShouldGetOneCallWithTheLatestState() {
+
+        Store store = new Store("OSLO_NO");
+        store.quantityProductsInStock = 1;
+
+        long createdStoreId =
+                given()
+                        .contentType(ContentType.JSON)
+                        .body(store)
+                        .when()
+                        .post(path)
+                        .then()
+                        .statusCode(201)
+                        .extract()
+                        .jsonPath().getLong("id");
+
+        for (int quantity = 2; quantity <= 3; quantity++) {
+            Store patch = new Store("OSLO_NO");
+            patch.quantityProductsInStock = quantity;
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(patch)
+                    .when()
+                    .put(path + "/" + createdStoreId)
+                    .then()
+                    .statusCode(200);
+        }
+
+        // the store is still new to the legacy system, so the merged call is a create
+        verify(legacyGateway, after(2500).times(1))
+                .createStoreOnLegacySystem(argThat(s ->
+                        s != null
+                                && "OSLO_NO".equals(s.name)
+                                && s.quantityProductsInStock == 3
+                ));
+        verify(legacyGateway, never()).updateStoreOnLegacySystem(any());
+    }
+}
@@ -0,0 +1,179 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Drains the outbox directly, as concurrent scheduler runs on several nodes would, against a mocked
+ * legacy system.
+ */
+@QuarkusTest
+@TestProfile(StoreSyncOutboxDeliveryTest.ManualDrainProfile.class)
+class StoreSyncOutboxDeliveryTest {
+
+    public static class ManualDrainProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // the scheduled drain runs once at startup, on an empty outbox
+            return Map.of(
+                    "store.sync.outbox.poll-interval", "1h",
+                    "store.sync.outbox.initial-backoff", "PT0.2S");
+        }
+    }
+
+    @InjectMock
+    private LegacyStoreManagerGateway legacyGateway;
+
+    @Inject
+    private StoreSyncOutboxDrainer drainer;
+
+    @Inject
+    private StoreSyncOutboxRepository outbox;
+
+    private final Map<Long, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+
+    @Test
+    public void givenTwoConcurrentDrainersThenEveryEntryShouldBeDeliveredExactlyOnce() throws Exception {
+
+        int stores = 300;
+        enqueue(100_000, stores);
+        countDeliveries();
+
+        ExecutorService drainers = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            running.add(drainers.submit(() -> {
+                start.await();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+                while (pending() > 0 && System.nanoTime() < deadline) {
+                    QuarkusTransaction.requiringNew().call(drainer::drainBatch);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> drain : running) {
+            drain.get(60, TimeUnit.SECONDS);
+        }
+        drainers.shutdown();
+
+        assertEquals(0, pending());
+        assertEquals(stores, deliveries.size());
+        assertTrue(deliveries.values().stream().allMatch(count -> count.get() == 1), "delivered more than once: " + deliveries);
+    }
+
+    @Test
+    public void givenEntriesLockedByOneDrainerThenAnotherShouldClaimOnlyTheRest() throws Exception {
+
+        enqueue(200_000, 10);
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService first = Executors.newSingleThreadExecutor();
+        Future<List<Long>> firstClaim = first.submit(() -> QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> ids = outbox.claimDue(LocalDateTime.now(), 4).stream().map(e -> e.id).toList();
+            claimed.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return ids;
+        }));
+        try {
+            assertTrue(claimed.await(30, TimeUnit.SECONDS));
+            List<Long> secondClaim = QuarkusTransaction.requiringNew().call(
+                    () -> outbox.claimDue(LocalDateTime.now(), 10).stream().map(e -> e.id).toList());
+
+            assertEquals(6, secondClaim.size());
+        } finally {
+            release.countDown();
+        }
+        List<Long> firstIds = firstClaim.get(30, TimeUnit.SECONDS);
+        first.shutdown();
+        assertEquals(4, firstIds.size());
+
+        // nothing was sent, so everything is claimable again
+        assertEquals(10, QuarkusTransaction.requiringNew().call(
+                () -> outbox.claimDue(LocalDateTime.now(), 10).size()).intValue());
+        drainAll();
+    }
+
+    @Test
+    public void givenALegacyCallFailsThenTheEntryShouldBeRetriedAfterTheBackoff() throws Exception {
+
+        long failingStore = 300_000;
+        enqueue(failingStore, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("legacy system unavailable");
+            }
+            return null;
+        }).when(legacyGateway).createStoreOnLegacySystem(any());
+
+        QuarkusTransaction.requiringNew().call(drainer::drainBatch);
+
+        StoreSyncOutboxEntry failed = QuarkusTransaction.requiringNew().call(() -> outbox.find("storeId", failingStore).firstResult());
+        assertEquals(1, failed.attempts);
+        assertEquals("legacy system unavailable", failed.lastError);
+        assertTrue(failed.availableAt.isAfter(LocalDateTime.now()));
+
+        // not due yet
+        QuarkusTransaction.requiringNew().call(drainer::drainBatch);
+        assertEquals(1, attempts.get());
+
+        Thread.sleep(300);
+        QuarkusTransaction.requiringNew().call(drainer::drainBatch);
+        assertEquals(2, attempts.get());
+        assertEquals(0, pending());
+    }
+
+    private void enqueue(long firstStoreId, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < count; i++) {
+                long storeId = firstStoreId + i;
+                outbox.persist(new StoreSyncOutboxEntry(
+                        new StoreLegacySync(StoreLegacySyncType.CREATE, storeId, "OUTBOX_" + storeId, i), now, now));
+            }
+        });
+    }
+
+    private void countDeliveries() {
+        doAnswer(invocation -> {
+            Store store = invocation.getArgument(0);
+            deliveries.computeIfAbsent(store.id, id -> new AtomicInteger()).incrementAndGet();
+            return null;
+        }).when(legacyGateway).createStoreOnLegacySystem(any());
+    }
+
+    private void drainAll() {
+        while (QuarkusTransaction.requiringNew().call(drainer::drainBatch)) {
+            // next batch
+        }
+    }
+
+    private long pending() {
+        return QuarkusTransaction.requiringNew().call(outbox::count);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StoreSyncOutboxDrainerTest {
+
+  private final Duration initial = Duration.ofSeconds(1);
+  private final Duration max = Duration.ofMinutes(5);
+
+  @Test
+  public void testBackoffShouldDoubleAfterEveryAttempt() {
+    assertEquals(Duration.ofSeconds(1), StoreSyncOutboxDrainer.backoff(1, initial, max));
+    assertEquals(Duration.ofSeconds(2), StoreSyncOutboxDrainer.backoff(2, initial, max));
+    assertEquals(Duration.ofSeconds(8), StoreSyncOutboxDrainer.backoff(4, initial, max));
+  }
+
+  @Test
+  public void testBackoffShouldBeCappedAtTheMaximum() {
+    assertEquals(max, StoreSyncOutboxDrainer.backoff(10, initial, max));
+    assertEquals(max, StoreSyncOutboxDrainer.backoff(Integer.MAX_VALUE, initial, max));
+  }
+}
@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.InvalidSearchCursorException;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchCriteria;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseSearchResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class WarehouseSearchTest {
+
+    @Inject
+    private WarehouseStore warehouseStore;
+
+    @Test
+    public void whenSearchingByLocationPrefixOnlyMatchingActiveWarehousesShouldBeReturned() {
+
+        WarehouseSearchCriteria criteria = new WarehouseSearchCriteria();
+        criteria.locationPrefix = "AMSTERDAM-";
+
+        WarehouseSearchResult result = warehouseStore.search(criteria);
+
+        assertTrue(result.items().stream().anyMatch(w -> "MWH.012".equals(w.businessUnitCode)));
+        assertTrue(result.items().stream().allMatch(w -> w.location.startsWith("AMSTERDAM-") && w.archivedAt == null));
+    }
+
+    @Test
+    public void whenSearchingByUtilizationOnlyWarehousesAboveThresholdShouldBeReturned() {
+
+        WarehouseSearchCriteria criteria = new WarehouseSearchCriteria();
+        criteria.utilizationAbove = 80.0;
+        criteria.minCapacity = 20;
+        criteria.maxCapacity = 40;
+
+        WarehouseSearchResult result = warehouseStore.search(criteria);
+
+        assertTrue(result.items().stream().allMatch(w -> w.stock * 100.0 > 80.0 * w.capacity));
+        assertTrue(result.items().stream().allMatch(w -> w.capacity >= 20 && w.capacity <= 40));
+    }
+
+    @Test
+    public void whenPagingWithTheCursorEveryWarehouseShouldBeReturnedOnceInOrder() {
+
+        WarehouseSearchCriteria all = new WarehouseSearchCriteria();
+        all.sort = WarehouseSearchCriteria.SortField.CAPACITY;
+        all.descending = true;
+        all.limit = 500;
+        int expected = warehouseStore.search(all).items().size();
+
+        List<WarehouseDTO> paged = new ArrayList<>();
+        WarehouseSearchCriteria page = new WarehouseSearchCriteria();
+        page.sort = WarehouseSearchCriteria.SortField.CAPACITY;
+        page.descending = true;
+        page.limit = 1;
+        do {
+            WarehouseSearchResult result = warehouseStore.search(page);
+            paged.addAll(result.items());
+            page.cursor = result.nextCursor();
+        } while (page.cursor != null);
+
+        assertEquals(expected, paged.size());
+        assertEquals(expected, new HashSet<>(paged.stream().map(w -> w.id).toList()).size());
+        for (int i = 1; i < paged.size(); i++) {
+            assertTrue(paged.get(i - 1).capacity >= paged.get(i).capacity);
+        }
+    }
+
+    @Test
+    public void whenTheCursorDoesNotMatchTheSortItShouldBeRejected() {
+
+        WarehouseSearchCriteria criteria = new WarehouseSearchCriteria();
+        criteria.limit = 1;
+        criteria.cursor = warehouseStore.search(criteria).nextCursor();
+        criteria.sort = WarehouseSearchCriteria.SortField.STOCK;
+
+        assertThrows(InvalidSearchCursorException.class, () -> warehouseStore.search(criteria));
+    }
+}
@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.warehouses.adapters.geo;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.NearbyWarehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.NearbyWarehouseFinder;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class WarehouseSpatialIndexTest {
+
+    // only used by this test, far away from every other location
+    private static final String LOCATION = "NORDKAPP-001";
+    private static final double LATITUDE = 71.1685;
+    private static final double LONGITUDE = 25.7838;
+
+    @Inject
+    private NearbyWarehouseFinder nearbyWarehouseFinder;
+
+    @Inject
+    private CreateWarehouseOperation createWarehouseOperation;
+
+    @Inject
+    private ArchiveWarehouseOperation archiveWarehouseOperation;
+
+    @Inject
+    private WarehouseStore warehouseStore;
+
+    @Test
+    public void whenWarehousesAreCreatedAndArchivedTheIndexShouldFollow() {
+
+        createWarehouseOperation.create(warehouse("GEO.002", 20, 5));
+        createWarehouseOperation.create(warehouse("GEO.001", 30, 25));
+
+        // both at distance 0, in business unit code order
+        List<NearbyWarehouse> nearest = nearbyWarehouseFinder.nearest(LATITUDE, LONGITUDE, 2, 0);
+        assertEquals(List.of("GEO.001", "GEO.002"), businessUnitCodes(nearest));
+        assertEquals(0.0, nearest.get(0).distanceKm(), 1e-9);
+
+        // GEO.001 has only 5 free
+        assertEquals("GEO.002", nearbyWarehouseFinder.nearest(LATITUDE, LONGITUDE, 1, 10).get(0).warehouse().businessUnitCode);
+
+        archiveWarehouseOperation.archive(warehouseStore.findByBusinessUnitCode("GEO.002"));
+
+        nearest = nearbyWarehouseFinder.nearest(LATITUDE, LONGITUDE, 2, 0);
+        assertEquals("GEO.001", nearest.get(0).warehouse().businessUnitCode);
+        assertTrue(nearest.get(1).distanceKm() > 0, "GEO.002 is archived, the next one is elsewhere");
+        assertTrue(nearest.get(1).distanceKm() >= nearest.get(0).distanceKm());
+    }
+
+    private static WarehouseDTO warehouse(String businessUnitCode, int capacity, int stock) {
+        WarehouseDTO warehouseDTO = new WarehouseDTO();
+        warehouseDTO.businessUnitCode = businessUnitCode;
+        warehouseDTO.location = LOCATION;
+        warehouseDTO.capacity = capacity;
+        warehouseDTO.stock = stock;
+        return warehouseDTO;
+    }
+
+    private static List<String> businessUnitCodes(List<NearbyWarehouse> nearest) {
+        return nearest.stream().map(n -> n.warehouse().businessUnitCode).toList();
+    }
+}
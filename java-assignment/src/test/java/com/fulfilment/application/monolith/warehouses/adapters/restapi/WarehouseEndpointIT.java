@@ -7,9 +7,13 @@ import io.restassured.response.ExtractableResponse;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusIntegrationTest
 public class WarehouseEndpointIT {
@@ -119,4 +123,32 @@ public class WarehouseEndpointIT {
                 .extract();
 
     }
+
+    @Test
+    public void nearestWarehousesShouldBeOrderedByDistance() {
+
+        ExtractableResponse<Response> nearest = given()
+                .when()
+                .get(path + "/nearest?location=ZWOLLE-001&k=3")
+                .then()
+                .statusCode(200)
+                .extract();
+
+        List<Float> distances = nearest.jsonPath().getList("distanceKm", Float.class);
+        assertEquals(3, distances.size());
+        assertEquals("MWH.001", nearest.jsonPath().getString("[0].warehouse.businessUnitCode"));
+        assertEquals(0.0f, distances.get(0));
+        for (int i = 1; i < distances.size(); i++) {
+            assertTrue(distances.get(i - 1) <= distances.get(i), "not ordered by distance: " + distances);
+        }
+
+        // no warehouse has 95 free, MWH.001 has the most with 90
+        given()
+                .when()
+                .get(path + "/nearest?location=ZWOLLE-001&k=1&minFreeCapacity=95")
+                .then()
+                .statusCode(200)
+                .body("size()", is(0));
+    }
 }
+
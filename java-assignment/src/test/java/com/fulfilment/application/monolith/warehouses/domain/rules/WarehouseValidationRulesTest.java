@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.warehouses.domain.rules;
+
+import com.fulfilment.application.monolith.common.DomainValidationException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WarehouseValidationRulesTest {
+
+  private final WarehouseValidationRules rules = new WarehouseValidationRules();
+  private final Location zwolle = new Location("ZWOLLE-001", 1, 40);
+
+  @Test
+  public void testUpsertShouldCollectEveryViolation() {
+    WarehouseDTO warehouse = warehouse(" ", null, 0, -1);
+
+    DomainValidationException e = assertThrows(DomainValidationException.class, () -> rules.validateUpsert(warehouse));
+
+    assertEquals(WarehouseError.BUSINESS_UNIT_CODE_REQUIRED, e.descriptor());
+    assertEquals(4, e.violations().size());
+    assertEquals(e.getMessage(), e.violations().get(0));
+  }
+
+  @Test
+  public void testMissingWarehouseShouldStopTheRuleSet() {
+    DomainValidationException e = assertThrows(DomainValidationException.class, () -> rules.validateUpsert(null));
+
+    assertEquals(List.of(WarehouseError.WAREHOUSE_REQUIRED.message()), e.violations());
+  }
+
+  @Test
+  public void testReplacementShouldReportNotFoundAlone() {
+    WarehouseDTO replacement = warehouse("MWH.404", "ZWOLLE-001", 500, 600);
+
+    DomainValidationException e = assertThrows(DomainValidationException.class,
+        () -> rules.validateReplacement(replacement, null, zwolle, 5));
+
+    assertEquals(404, e.getResponse().getStatus());
+    assertEquals(1, e.violations().size());
+  }
+
+  @Test
+  public void testReplacementShouldReportPlacementViolationsInOrder() {
+    WarehouseDTO current = warehouse("MWH.001", "ZWOLLE-001", 30, 20);
+    WarehouseDTO replacement = warehouse("MWH.001", "ZWOLLE-001", 50, 10);
+
+    DomainValidationException e = assertThrows(DomainValidationException.class,
+        () -> rules.validateReplacement(replacement, current, zwolle, 1));
+
+    assertEquals(WarehouseError.CAPACITY_EXCEEDS_LOCATION, e.descriptor());
+    assertEquals(2, e.violations().size());
+    assertEquals("Maximum number of warehouses reached for location: ZWOLLE-001", e.violations().get(1));
+  }
+
+  @Test
+  public void testPassingValidationShouldLeaveNoViolationBehind() {
+    WarehouseDTO warehouse = warehouse("MWH.002", "ZWOLLE-001", 40, 10);
+
+    assertThrows(DomainValidationException.class, () -> rules.validateCreation(warehouse, null, null, 0));
+    assertDoesNotThrow(() -> rules.validateCreation(warehouse, null, zwolle, 0));
+    assertNull(rules.check(WarehouseValidationRules.UPSERT, warehouse, null, null));
+  }
+
+  private static WarehouseDTO warehouse(String businessUnitCode, String location, int capacity, int stock) {
+    WarehouseDTO warehouse = new WarehouseDTO();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+}
@@ -91,8 +91,8 @@ public class ArchiveWarehouseUseCaseTest {
 
         archiveWarehouseOperation.archive(existingWarehouseDTO);
 
-        WarehouseDTO archivedWarehouseDTO = warehouseStore.findByBusinessUnitCode("IND.011");
-        assertNotNull(archivedWarehouseDTO.archivedAt, "The warehouse is archived, so archiveAt should not be null");
+        assertNull(warehouseStore.findByBusinessUnitCode("IND.011"),
+                "The warehouse is archived, so it should no longer be found as active");
 
     }
 
@@ -0,0 +1,102 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.ReplacementOutcome;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.BulkReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+public class BulkReplaceWarehouseUseCaseTest {
+
+    @Inject
+    private BulkReplaceWarehouseOperation bulkReplaceWarehouseOperation;
+
+    @Inject
+    private ReplaceWarehouseOperation replaceWarehouseOperation;
+
+    @Inject
+    private CreateWarehouseOperation createWarehouseOperation;
+
+    @Inject
+    private WarehouseStore warehouseStore;
+
+    @Test
+    public void whenTwoWarehousesSwapLocationsTheBulkReplacementShouldSucceedWhereSingleReplacementsFail() {
+
+        WarehouseDTO helmond = createWarehouse("BLK.001", "HELMOND-001");
+        WarehouseDTO zwolle = createWarehouse("BLK.002", "ZWOLLE-002");
+
+        // HELMOND-001 allows a single warehouse, so moving BLK.002 there on its own is rejected.
+        WebApplicationException webApplicationException = assertThrows(
+                WebApplicationException.class,
+                () -> replaceWarehouseOperation.replace(warehouse("BLK.002", "HELMOND-001"))
+        );
+        assertEquals("Maximum number of warehouses reached for location: HELMOND-001", webApplicationException.getMessage());
+
+        List<ReplacementOutcome> outcomes = bulkReplaceWarehouseOperation.replaceAll(List.of(
+                warehouse("BLK.001", "ZWOLLE-002"),
+                warehouse("BLK.002", "HELMOND-001")));
+
+        assertEquals(ReplacementOutcome.Status.REPLACED, outcomes.get(0).status);
+        assertEquals(ReplacementOutcome.Status.REPLACED, outcomes.get(1).status);
+        assertNotEquals(helmond.id, outcomes.get(0).warehouse.id);
+        assertNotEquals(zwolle.id, outcomes.get(1).warehouse.id);
+        assertEquals("ZWOLLE-002", warehouseStore.findByBusinessUnitCode("BLK.001").location);
+        assertEquals("HELMOND-001", warehouseStore.findByBusinessUnitCode("BLK.002").location);
+    }
+
+    @Test
+    public void whenOneReplacementIsInvalidNothingShouldBeApplied() {
+
+        createWarehouse("BLK.010", "AMSTERDAM-002");
+
+        List<ReplacementOutcome> outcomes = bulkReplaceWarehouseOperation.replaceAll(List.of(
+                warehouse("BLK.010", "AMSTERDAM-002"),
+                warehouse("BLK.UNKNOWN", "AMSTERDAM-002")));
+
+        assertEquals(ReplacementOutcome.Status.SKIPPED, outcomes.get(0).status);
+        assertEquals(ReplacementOutcome.Status.REJECTED, outcomes.get(1).status);
+        assertEquals("Active warehouse not found for businessUnitCode=BLK.UNKNOWN", outcomes.get(1).message);
+        assertEquals(10, warehouseStore.findByBusinessUnitCode("BLK.010").capacity);
+    }
+
+    @Test
+    public void whenTheSameBusinessUnitCodeIsListedTwiceItShouldBeRejected() {
+
+        List<ReplacementOutcome> outcomes = bulkReplaceWarehouseOperation.replaceAll(List.of(
+                warehouse("MWH.012", "AMSTERDAM-001"),
+                warehouse("MWH.012", "AMSTERDAM-001")));
+
+        assertEquals(ReplacementOutcome.Status.SKIPPED, outcomes.get(0).status);
+        assertEquals(ReplacementOutcome.Status.REJECTED, outcomes.get(1).status);
+        assertEquals("Duplicate business unit code in request: MWH.012", outcomes.get(1).message);
+    }
+
+    private WarehouseDTO createWarehouse(String businessUnitCode, String location) {
+        WarehouseDTO warehouseDTO = warehouse(businessUnitCode, location);
+        warehouseDTO.capacity = 10;
+        createWarehouseOperation.create(warehouseDTO);
+        return warehouseDTO;
+    }
+
+    private static WarehouseDTO warehouse(String businessUnitCode, String location) {
+        WarehouseDTO warehouseDTO = new WarehouseDTO();
+        warehouseDTO.businessUnitCode = businessUnitCode;
+        warehouseDTO.location = location;
+        warehouseDTO.capacity = 12;
+        warehouseDTO.stock = 5;
+        return warehouseDTO;
+    }
+}
@@ -3,14 +3,24 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationCapacityLedger;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 public class CreateWarehouseUseCaseTest {
@@ -21,6 +31,9 @@ public class CreateWarehouseUseCaseTest {
     @Inject
     private WarehouseStore warehouseStore;
 
+    @Inject
+    private LocationCapacityLedger locationCapacityLedger;
+
 
     @Test
     public void createWareHouse() {
@@ -215,4 +228,79 @@ public class CreateWarehouseUseCaseTest {
         assertEquals("Invalid location: " + warehouseDTO.location, webApplicationException.getMessage());
 
     }
+
+    @Test
+    public void whenUsersCreateWarehousesConcurrentlyAtSameLocationMaximumShouldNotBeExceeded() throws Exception {
+
+        int attempts = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            WarehouseDTO warehouseDTO = new WarehouseDTO();
+            warehouseDTO.businessUnitCode = "EIN.00" + i;
+            warehouseDTO.capacity = 10;
+            warehouseDTO.location = "EINDHOVEN-001";
+            warehouseDTO.stock = 1;
+
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    createWarehouseOperation.create(warehouseDTO);
+                    return true;
+                } catch (WebApplicationException e) {
+                    return false;
+                }
+            }));
+        }
+
+        start.countDown();
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        long activeAtLocation = warehouseStore.getAll().stream()
+                .filter(w -> "EINDHOVEN-001".equals(w.location))
+                .count();
+
+        assertEquals(2, created);
+        assertEquals(2, activeAtLocation);
+    }
+
+    @Test
+    public void whenLocationCapacityWouldBeExceededCreationShouldFail() {
+
+        // only used by this test, so no other warehouse takes up its capacity of 75
+        String location = "ARNHEM-001";
+        assertEquals(0, locationCapacityLedger.reservedCapacity(location));
+
+        WarehouseDTO first = new WarehouseDTO();
+        first.businessUnitCode = "CAP.001";
+        first.capacity = 50;
+        first.location = location;
+        first.stock = 5;
+        createWarehouseOperation.create(first);
+
+        assertEquals(50, locationCapacityLedger.reservedCapacity(location));
+
+        WarehouseDTO second = new WarehouseDTO();
+        second.businessUnitCode = "CAP.002";
+        second.capacity = 30;
+        second.location = location;
+        second.stock = 5;
+
+        WebApplicationException webApplicationException = assertThrows(
+                WebApplicationException.class,
+                () -> createWarehouseOperation.create(second)
+        );
+
+        assertTrue(webApplicationException.getMessage().startsWith("Location capacity exceeded for location: " + location));
+        assertEquals(50, locationCapacityLedger.reservedCapacity(location));
+        assertEquals(1, locationCapacityLedger.activeWarehouses(location));
+    }
 }
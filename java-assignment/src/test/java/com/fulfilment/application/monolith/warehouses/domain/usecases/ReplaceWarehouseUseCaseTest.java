@@ -1,6 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseDTO;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.test.junit.QuarkusTest;
@@ -9,6 +10,8 @@ import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @QuarkusTest
@@ -17,6 +20,9 @@ public class ReplaceWarehouseUseCaseTest {
     @Inject
     private ReplaceWarehouseOperation replaceWarehouseOperation;
 
+    @Inject
+    private CreateWarehouseOperation createWarehouseOperation;
+
     @Inject
     private WarehouseStore warehouseStore;
 
@@ -209,16 +215,36 @@ public class ReplaceWarehouseUseCaseTest {
         WarehouseDTO replacedWarehouseDTO = warehouseStore.findByBusinessUnitCode("MWH.001");
 
         assertEquals("MWH.001", replacedWarehouseDTO.businessUnitCode);
-        assertEquals(100, replacedWarehouseDTO.capacity);
+        assertEquals(10, replacedWarehouseDTO.capacity);
         assertEquals("ZWOLLE-001", replacedWarehouseDTO.location);
         assertEquals(10, replacedWarehouseDTO.stock);
 
     }
 
-
-
-
-
-
-
+    @Test
+    public void whenUserReplacesWarehouseTheNewRowShouldGetItsOwnIdAndTheOldOneShouldBeArchived() {
+
+        WarehouseDTO original = new WarehouseDTO();
+        original.businessUnitCode = "IND.020";
+        original.capacity = 20;
+        original.location = "AMSTERDAM-002";
+        original.stock = 5;
+        createWarehouseOperation.create(original);
+        assertNotNull(original.id);
+
+        WarehouseDTO replacement = new WarehouseDTO();
+        replacement.businessUnitCode = "IND.020";
+        replacement.capacity = 25;
+        replacement.location = "AMSTERDAM-002";
+        replacement.stock = 5;
+        replaceWarehouseOperation.replace(replacement);
+
+        assertNotNull(replacement.id);
+        assertNotEquals(original.id, replacement.id);
+
+        WarehouseDTO active = warehouseStore.findByBusinessUnitCode("IND.020");
+        assertEquals(replacement.id, active.id);
+        assertEquals(25, active.capacity);
+        assertEquals(1, warehouseStore.getAll().stream().filter(w -> "IND.020".equals(w.businessUnitCode)).count());
+    }
 }